@@ -50,8 +50,9 @@ public class H2ExecutorConsoleApplication {
         props.put("user", dbUser);
         props.put("password", dbPassword);
 
-        var executor = new H2QueryExecutor(dbUrl, props);
-        process(executor, parsedArgs);
+        try (var executor = new H2QueryExecutor(dbUrl, props)) {
+            process(executor, parsedArgs);
+        }
     }
 
     private static String validateAndGetValue(String argName, Map<String, String> ars) {
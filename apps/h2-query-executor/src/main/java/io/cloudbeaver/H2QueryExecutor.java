@@ -16,48 +16,141 @@
  */
 package io.cloudbeaver;
 
-import java.sql.DriverManager;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.jdbcx.JdbcDataSource;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
+import java.util.Set;
+
+public class H2QueryExecutor implements AutoCloseable {
+    private static final int MAX_POOL_CONNECTIONS = 4;
+    private static final int FETCH_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final Set<String> QUERY_KEYWORDS = Set.of(
+        "SELECT", "WITH", "VALUES", "TABLE", "SHOW", "EXPLAIN", "CALL", "SCRIPT", "HELP"
+    );
 
-public class H2QueryExecutor {
-    private final String dbUrl;
-    private final Properties dbProperties;
+    private final JdbcConnectionPool connectionPool;
+    private final PrintWriter out;
 
     public H2QueryExecutor(String dbUrl, Properties dbProperties) {
-        this.dbUrl = dbUrl;
-        this.dbProperties = dbProperties;
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL(dbUrl);
+        dataSource.setUser(dbProperties.getProperty("user"));
+        dataSource.setPassword(dbProperties.getProperty("password"));
+        this.connectionPool = JdbcConnectionPool.create(dataSource);
+        this.connectionPool.setMaxConnections(MAX_POOL_CONNECTIONS);
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
     }
 
-
-    public void executeQuery(String query) throws SQLException, ClassNotFoundException {
-        System.out.println("Execute query: " + query);
-
+    public void executeQuery(String query) throws SQLException {
         try (
-            var connection = DriverManager.getConnection(dbUrl, dbProperties);
+            var connection = connectionPool.getConnection();
             var statement = connection.createStatement()
         ) {
-            statement.execute(query);
-            var result = statement.getResultSet();
-            if (result == null) {
-                return;
-            }
-            var meta = result.getMetaData();
-            while (result.next()) {
-                for (var i = 1; i <= meta.getColumnCount(); i++) {
-                    var className = meta.getColumnClassName(i);
-                    var clazz = Class.forName(className);
-                    System.out.print(result.getObject(i, clazz) + " ");
+            executeStatement(statement, query);
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Executes all statements of the script in one transaction.
+     * Consecutive statements which don't return results are executed in batches.
+     */
+    public void executeScript(String script) throws SQLException {
+        var queries = SqlScriptSplitter.split(script);
+        try (var connection = connectionPool.getConnection()) {
+            var autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (var statement = connection.createStatement()) {
+                var batchSize = 0;
+                for (String query : queries) {
+                    if (QUERY_KEYWORDS.contains(SqlScriptSplitter.getFirstKeyword(query))) {
+                        if (batchSize > 0) {
+                            statement.executeBatch();
+                            batchSize = 0;
+                        }
+                        executeStatement(statement, query);
+                        continue;
+                    }
+                    out.println("Execute query: " + query);
+                    statement.addBatch(query);
+                    batchSize++;
+                    if (batchSize >= MAX_BATCH_SIZE) {
+                        statement.executeBatch();
+                        batchSize = 0;
+                    }
+                }
+                if (batchSize > 0) {
+                    statement.executeBatch();
                 }
-                System.out.println();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                out.flush();
+            }
+        }
+    }
+
+    public void execute11MigrationFix() throws SQLException {
+        executeScript(SqlConsts.fix11MigrationQueries);
+    }
+
+    @Override
+    public void close() {
+        out.flush();
+        connectionPool.dispose();
+    }
+
+    private void executeStatement(Statement statement, String query) throws SQLException {
+        out.println("Execute query: " + query);
+        statement.setFetchSize(FETCH_SIZE);
+        if (!statement.execute(query)) {
+            return;
+        }
+        try (var result = statement.getResultSet()) {
+            printResult(result);
+        }
+    }
+
+    /**
+     * Prints rows as they are fetched, result set is never kept in memory.
+     */
+    private void printResult(ResultSet result) throws SQLException {
+        var meta = result.getMetaData();
+        var columnTypes = resolveColumnTypes(meta);
+        var row = new StringBuilder();
+        while (result.next()) {
+            row.setLength(0);
+            for (var i = 0; i < columnTypes.length; i++) {
+                var value = columnTypes[i] == null ? result.getObject(i + 1) : result.getObject(i + 1, columnTypes[i]);
+                row.append(value).append(' ');
             }
+            out.println(row);
         }
     }
 
-    public void execute11MigrationFix() throws SQLException, ClassNotFoundException {
-        var queries = SqlConsts.fix11MigrationQueries.split(";");
-        for (String query : queries) {
-            executeQuery(query);
+    private static Class<?>[] resolveColumnTypes(ResultSetMetaData meta) throws SQLException {
+        var columnTypes = new Class<?>[meta.getColumnCount()];
+        for (var i = 0; i < columnTypes.length; i++) {
+            try {
+                columnTypes[i] = Class.forName(meta.getColumnClassName(i + 1));
+            } catch (ClassNotFoundException e) {
+                // Let the driver choose the value class
+                columnTypes[i] = null;
+            }
         }
+        return columnTypes;
     }
 }
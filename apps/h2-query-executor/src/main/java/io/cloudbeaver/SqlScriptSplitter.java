@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits SQL script into statements.
+ * Delimiters inside quoted strings, quoted identifiers, $$ blocks and comments are ignored.
+ */
+public class SqlScriptSplitter {
+    private static final char DELIMITER = ';';
+
+    public static List<String> split(String script) {
+        var statements = new ArrayList<String>();
+        var length = script.length();
+        var start = 0;
+        var pos = 0;
+        while (pos < length) {
+            var c = script.charAt(pos);
+            if (c == '\'' || c == '"') {
+                pos = skipQuoted(script, pos + 1, c);
+            } else if (c == '-' && script.startsWith("--", pos)) {
+                pos = skipTo(script, pos + 2, "\n");
+            } else if (c == '/' && script.startsWith("/*", pos)) {
+                pos = skipTo(script, pos + 2, "*/");
+            } else if (c == '$' && script.startsWith("$$", pos)) {
+                pos = skipTo(script, pos + 2, "$$");
+            } else if (c == DELIMITER) {
+                addStatement(statements, script.substring(start, pos));
+                pos++;
+                start = pos;
+            } else {
+                pos++;
+            }
+        }
+        addStatement(statements, script.substring(start));
+        return statements;
+    }
+
+    private static int skipQuoted(String script, int pos, char quote) {
+        var length = script.length();
+        while (pos < length) {
+            if (script.charAt(pos) == quote) {
+                // Doubled quote is an escaped quote
+                if (pos + 1 < length && script.charAt(pos + 1) == quote) {
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            pos++;
+        }
+        return length;
+    }
+
+    private static int skipTo(String script, int pos, String end) {
+        var endPos = script.indexOf(end, pos);
+        return endPos == -1 ? script.length() : endPos + end.length();
+    }
+
+    private static void addStatement(List<String> statements, String statement) {
+        statement = statement.trim();
+        if (!statement.isEmpty() && !isCommentOnly(statement)) {
+            statements.add(statement);
+        }
+    }
+
+    /**
+     * Returns the first keyword of the statement in upper case, or empty string if there is no keyword.
+     * Leading comments and opening parentheses are skipped, so {@code (SELECT ...) UNION ...} starts with SELECT.
+     */
+    public static String getFirstKeyword(String statement) {
+        var start = skipComments(statement, 0);
+        while (start < statement.length() && statement.charAt(start) == '(') {
+            start = skipComments(statement, start + 1);
+        }
+        var end = start;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return statement.substring(start, end).toUpperCase(Locale.ENGLISH);
+    }
+
+    private static boolean isCommentOnly(String statement) {
+        return skipComments(statement, 0) == statement.length();
+    }
+
+    private static int skipComments(String statement, int pos) {
+        var length = statement.length();
+        while (pos < length) {
+            var c = statement.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (statement.startsWith("--", pos)) {
+                pos = skipTo(statement, pos + 2, "\n");
+            } else if (statement.startsWith("/*", pos)) {
+                pos = skipTo(statement, pos + 2, "*/");
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SqlScriptSplitterTest {
+
+    @Test
+    public void testSplitByDelimiter() {
+        Assert.assertEquals(
+            List.of("CREATE TABLE T(ID INT)", "INSERT INTO T VALUES(1)", "DROP TABLE T"),
+            SqlScriptSplitter.split("CREATE TABLE T(ID INT);\nINSERT INTO T VALUES(1);\n\n;DROP TABLE T\n")
+        );
+    }
+
+    @Test
+    public void testDelimiterInsideLiterals() {
+        Assert.assertEquals(
+            List.of("INSERT INTO T VALUES('a;b')", "SELECT 'it''s; fine', \"col;name\" FROM T"),
+            SqlScriptSplitter.split("INSERT INTO T VALUES('a;b');SELECT 'it''s; fine', \"col;name\" FROM T;")
+        );
+        Assert.assertEquals(
+            List.of("CREATE ALIAS F AS $$ String f() { return \"x;y\"; } $$", "CALL F()"),
+            SqlScriptSplitter.split("CREATE ALIAS F AS $$ String f() { return \"x;y\"; } $$;CALL F()")
+        );
+    }
+
+    @Test
+    public void testDelimiterInsideComments() {
+        Assert.assertEquals(
+            List.of("SELECT 1 -- one; two\nFROM DUAL", "SELECT /* a; b */ 2"),
+            SqlScriptSplitter.split("SELECT 1 -- one; two\nFROM DUAL;SELECT /* a; b */ 2;")
+        );
+        // Comment-only parts are not statements
+        Assert.assertEquals(
+            List.of("SELECT 1"),
+            SqlScriptSplitter.split("-- header;\n/* block; */;SELECT 1;\n-- trailer")
+        );
+    }
+
+    @Test
+    public void testUnterminatedLiteral() {
+        Assert.assertEquals(
+            List.of("SELECT 1", "SELECT 'a;b"),
+            SqlScriptSplitter.split("SELECT 1;SELECT 'a;b")
+        );
+    }
+
+    @Test
+    public void testFirstKeyword() {
+        Assert.assertEquals("SELECT", SqlScriptSplitter.getFirstKeyword("select * from T"));
+        Assert.assertEquals("INSERT", SqlScriptSplitter.getFirstKeyword("-- comment\n/* block */ Insert INTO T VALUES(1)"));
+        Assert.assertEquals("SELECT", SqlScriptSplitter.getFirstKeyword("(SELECT 1) UNION (SELECT 2)"));
+        Assert.assertEquals("SELECT", SqlScriptSplitter.getFirstKeyword("/* c */ ( -- nested\n (SELECT 1)) UNION SELECT 2"));
+        Assert.assertEquals("", SqlScriptSplitter.getFirstKeyword("-- comment only"));
+        Assert.assertEquals("", SqlScriptSplitter.getFirstKeyword("(("));
+    }
+}
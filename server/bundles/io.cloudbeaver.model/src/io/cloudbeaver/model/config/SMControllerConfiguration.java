@@ -40,6 +40,16 @@ public class SMControllerConfiguration {
     private int blockLoginPeriod = DEFAULT_BLOCK_LOGIN_PERIOD;
     private final PasswordPolicyConfiguration passwordPolicy = new PasswordPolicyConfiguration();
 
+    //in seconds
+    public static final int DEFAULT_TOKEN_CACHE_TTL = 30;
+    public static final int DEFAULT_TOKEN_CACHE_SIZE = 10000;
+    public static final int DEFAULT_TOKEN_EXPIRY_UPDATE_PERIOD = 60;
+    // how long validated shared tokens are trusted without database check (token revocation delay), 0 disables cache
+    private int tokenCacheTtl = DEFAULT_TOKEN_CACHE_TTL;
+    private int tokenCacheSize = DEFAULT_TOKEN_CACHE_SIZE;
+    // token expiry time is extended in database at most once per this period
+    private int tokenExpiryUpdatePeriod = DEFAULT_TOKEN_EXPIRY_UPDATE_PERIOD;
+
     public int getAccessTokenTtl() {
         return accessTokenTtl;
     }
@@ -96,6 +106,30 @@ public class SMControllerConfiguration {
         this.blockLoginPeriod = blockPeriod;
     }
 
+    public int getTokenCacheTtl() {
+        return tokenCacheTtl;
+    }
+
+    public void setTokenCacheTtl(int tokenCacheTtl) {
+        this.tokenCacheTtl = tokenCacheTtl;
+    }
+
+    public int getTokenCacheSize() {
+        return tokenCacheSize;
+    }
+
+    public void setTokenCacheSize(int tokenCacheSize) {
+        this.tokenCacheSize = tokenCacheSize;
+    }
+
+    public int getTokenExpiryUpdatePeriod() {
+        return tokenExpiryUpdatePeriod;
+    }
+
+    public void setTokenExpiryUpdatePeriod(int tokenExpiryUpdatePeriod) {
+        this.tokenExpiryUpdatePeriod = tokenExpiryUpdatePeriod;
+    }
+
     public PasswordPolicyConfiguration getPasswordPolicyConfiguration() {
         return passwordPolicy;
     }
@@ -0,0 +1,45 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.config;
+
+/**
+ * GraphQL endpoint configuration
+ */
+public class WebGraphQLConfig {
+    public static final int DEFAULT_DOCUMENT_CACHE_SIZE = 1000;
+
+    // Max number of parsed and validated query documents kept in memory. 0 disables the cache.
+    private int documentCacheSize = DEFAULT_DOCUMENT_CACHE_SIZE;
+    // Allows clients to send query hash instead of full query text
+    private boolean persistedQueries = false;
+
+    public int getDocumentCacheSize() {
+        return documentCacheSize;
+    }
+
+    public void setDocumentCacheSize(int documentCacheSize) {
+        this.documentCacheSize = documentCacheSize;
+    }
+
+    public boolean isPersistedQueries() {
+        return persistedQueries;
+    }
+
+    public void setPersistedQueries(boolean persistedQueries) {
+        this.persistedQueries = persistedQueries;
+    }
+}
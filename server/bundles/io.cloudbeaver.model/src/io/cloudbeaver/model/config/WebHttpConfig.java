@@ -0,0 +1,124 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.config;
+
+/**
+ * Web server HTTP connector configuration
+ */
+public class WebHttpConfig {
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+    public static final String[] DEFAULT_COMPRESSION_MIME_TYPES = {
+        "text/html",
+        "text/css",
+        "text/javascript",
+        "application/javascript",
+        "application/json",
+        "application/graphql-response+json",
+        "image/svg+xml"
+    };
+    public static final int DEFAULT_MIN_THREADS = 8;
+    public static final int DEFAULT_MAX_THREADS = 200;
+    public static final int DEFAULT_THREAD_IDLE_TIMEOUT = 60000;
+
+    // Compress responses of the listed mime types if client accepts gzip
+    private boolean compressionEnabled = true;
+    // Responses smaller than this are sent uncompressed
+    private int compressionMinSize = DEFAULT_COMPRESSION_MIN_SIZE;
+    private String[] compressionMimeTypes = DEFAULT_COMPRESSION_MIME_TYPES;
+    // Accept HTTP/2 over cleartext connections (prior knowledge and HTTP/1.1 upgrade)
+    private boolean http2Enabled = false;
+
+    private int minThreads = DEFAULT_MIN_THREADS;
+    private int maxThreads = DEFAULT_MAX_THREADS;
+    // Max number of requests waiting for a free thread. 0 means unlimited.
+    private int maxQueuedRequests = 0;
+    private int threadIdleTimeout = DEFAULT_THREAD_IDLE_TIMEOUT;
+    // Run requests in virtual threads if JVM supports them
+    private boolean virtualThreads = false;
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public int getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    public void setCompressionMinSize(int compressionMinSize) {
+        this.compressionMinSize = compressionMinSize;
+    }
+
+    public String[] getCompressionMimeTypes() {
+        return compressionMimeTypes;
+    }
+
+    public void setCompressionMimeTypes(String[] compressionMimeTypes) {
+        this.compressionMimeTypes = compressionMimeTypes;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    public void setMinThreads(int minThreads) {
+        this.minThreads = minThreads;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    public void setMaxQueuedRequests(int maxQueuedRequests) {
+        this.maxQueuedRequests = maxQueuedRequests;
+    }
+
+    public int getThreadIdleTimeout() {
+        return threadIdleTimeout;
+    }
+
+    public void setThreadIdleTimeout(int threadIdleTimeout) {
+        this.threadIdleTimeout = threadIdleTimeout;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
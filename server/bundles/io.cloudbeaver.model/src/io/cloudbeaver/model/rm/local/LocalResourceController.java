@@ -48,7 +48,10 @@ import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.Pair;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.text.MessageFormat;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
@@ -580,17 +583,7 @@ public class LocalResourceController extends BaseLocalResourceController {
     ) throws DBException {
         try (var ignoredLock = lockController.lockProject(projectId, "setResourceContents")) {
             validateResourcePath(resourcePath);
-            Number fileSizeLimit = ServletAppUtils.getServletApplication()
-                .getAppConfiguration()
-                .getResourceQuota(WebSQLConstants.QUOTA_PROP_RM_FILE_SIZE_LIMIT);
-            if (fileSizeLimit != null && data.length > fileSizeLimit.longValue()) {
-                throw new DBQuotaException(
-                    "File size quota exceeded",
-                    WebSQLConstants.QUOTA_PROP_RM_FILE_SIZE_LIMIT,
-                    fileSizeLimit.longValue(),
-                    data.length
-                );
-            }
+            checkFileSizeQuota(getFileSizeLimit(), data.length);
             Path targetPath = getTargetPath(projectId, resourcePath);
             if (!forceOverwrite && Files.exists(targetPath)) {
                 throw new DBException("Resource '" + IOUtils.getFileNameWithoutExtension(targetPath) + "' already exists");
@@ -614,6 +607,159 @@ public class LocalResourceController extends BaseLocalResourceController {
         return DEFAULT_CHANGE_ID;
     }
 
+    /**
+     * Opens resource file for reading.
+     * Content is read right from the file, so resources of any size may be read without loading them into memory.
+     */
+    @NotNull
+    public SeekableByteChannel openResourceReadChannel(
+        @NotNull String projectId,
+        @NotNull String resourcePath
+    ) throws DBException {
+        validateResourcePath(resourcePath);
+        Path targetPath = getTargetPath(projectId, resourcePath);
+        if (!Files.isRegularFile(targetPath)) {
+            throw new DBException("Resource '" + resourcePath + "' doesn't exists");
+        }
+        return doFileReadOperation(projectId, targetPath, () -> {
+            try {
+                return FileChannel.open(targetPath, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new DBException("Error reading resource '" + resourcePath + "'", e);
+            }
+        });
+    }
+
+    /**
+     * Opens resource for writing.
+     * Data is written to a temporary file which replaces the resource content when the channel is closed,
+     * file handlers and resource events are triggered at that moment.
+     *
+     * @param append keep the current resource content and write new data after it
+     */
+    @NotNull
+    public SeekableByteChannel openResourceWriteChannel(
+        @NotNull String projectId,
+        @NotNull String resourcePath,
+        boolean append
+    ) throws DBException {
+        validateResourcePath(resourcePath);
+        Path targetPath = getTargetPath(projectId, resourcePath);
+        if (Files.isDirectory(targetPath)) {
+            throw new DBException("Resource '" + resourcePath + "' is a folder");
+        }
+        Path tempFile = null;
+        try {
+            createFolder(targetPath.getParent());
+            tempFile = createContentFile(targetPath);
+            if (append && Files.exists(targetPath)) {
+                Path sourceFile = tempFile;
+                doFileReadOperation(projectId, targetPath, () -> {
+                    try {
+                        Files.copy(targetPath, sourceFile, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new DBException("Error reading resource '" + resourcePath + "'", e);
+                    }
+                    return null;
+                });
+            }
+            FileChannel channel = FileChannel.open(
+                tempFile,
+                StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING
+            );
+            return new LocalResourceWriteChannel(this, projectId, resourcePath, tempFile, channel, getFileSizeLimit());
+        } catch (IOException | DBException e) {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ex) {
+                    log.debug("Error deleting temporary file '" + tempFile + "'", ex);
+                }
+            }
+            if (e instanceof DBException dbe) {
+                throw dbe;
+            }
+            throw new DBException("Error opening resource '" + resourcePath + "' for writing", e);
+        }
+    }
+
+    /**
+     * Replaces resource content with the content of the file written by {@link LocalResourceWriteChannel}.
+     */
+    void commitResourceContents(
+        @NotNull String projectId,
+        @NotNull String resourcePath,
+        @NotNull Path contentFile
+    ) throws DBException {
+        try (var ignoredLock = lockController.lockProject(projectId, "setResourceContents")) {
+            Path targetPath = getTargetPath(projectId, resourcePath);
+            try {
+                checkFileSizeQuota(getFileSizeLimit(), Files.size(contentFile));
+            } catch (IOException e) {
+                throw new DBException("Error reading written resource content", e);
+            }
+            boolean newResource = !Files.exists(targetPath);
+            doFileWriteOperation(projectId, targetPath, () -> {
+                createFolder(targetPath.getParent());
+                try {
+                    log.debug("Writing data to resource '" + targetPath + " in project " + projectId + "'");
+                    moveContentFile(contentFile, targetPath);
+                } catch (IOException e) {
+                    throw new DBException("Error writing resource '" + resourcePath + "'", e);
+                }
+                return null;
+            });
+            if (newResource) {
+                fireRmResourceAddEvent(projectId, resourcePath);
+            }
+        }
+    }
+
+    /**
+     * Creates a hidden file next to the resource, so it is moved on the same volume
+     * and gets the same default permissions as a resource file created in place.
+     */
+    @NotNull
+    private static Path createContentFile(@NotNull Path targetPath) throws IOException {
+        return Files.createFile(
+            targetPath.resolveSibling("." + targetPath.getFileName() + "." + UUID.randomUUID() + ".tmp")
+        );
+    }
+
+    private static void moveContentFile(@NotNull Path contentFile, @NotNull Path targetPath) throws IOException {
+        if (Files.exists(targetPath)) {
+            // Keep permissions of the replaced resource
+            PosixFileAttributeView targetAttributes = Files.getFileAttributeView(targetPath, PosixFileAttributeView.class);
+            if (targetAttributes != null) {
+                Files.setPosixFilePermissions(contentFile, targetAttributes.readAttributes().permissions());
+            }
+        }
+        try {
+            Files.move(contentFile, targetPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(contentFile, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Nullable
+    Long getFileSizeLimit() {
+        Number fileSizeLimit = ServletAppUtils.getServletApplication()
+            .getAppConfiguration()
+            .getResourceQuota(WebSQLConstants.QUOTA_PROP_RM_FILE_SIZE_LIMIT);
+        return fileSizeLimit == null ? null : fileSizeLimit.longValue();
+    }
+
+    static void checkFileSizeQuota(@Nullable Long fileSizeLimit, long fileSize) throws DBQuotaException {
+        if (fileSizeLimit != null && fileSize > fileSizeLimit) {
+            throw new DBQuotaException(
+                "File size quota exceeded",
+                WebSQLConstants.QUOTA_PROP_RM_FILE_SIZE_LIMIT,
+                fileSizeLimit,
+                fileSize
+            );
+        }
+    }
 
     @NotNull
     @Override
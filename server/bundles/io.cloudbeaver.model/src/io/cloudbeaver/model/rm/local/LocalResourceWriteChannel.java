@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.rm.local;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.sql.DBQuotaException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Resource write channel.
+ * Data is streamed into a temporary file which is moved to the resource location on close.
+ * Nothing is committed if the file size quota was exceeded.
+ */
+class LocalResourceWriteChannel implements SeekableByteChannel {
+
+    private static final Log log = Log.getLog(LocalResourceWriteChannel.class);
+
+    @NotNull
+    private final LocalResourceController controller;
+    @NotNull
+    private final String projectId;
+    @NotNull
+    private final String resourcePath;
+    @NotNull
+    private final Path contentFile;
+    @NotNull
+    private final FileChannel channel;
+    @Nullable
+    private final Long fileSizeLimit;
+    private boolean failed;
+    private boolean closed;
+
+    LocalResourceWriteChannel(
+        @NotNull LocalResourceController controller,
+        @NotNull String projectId,
+        @NotNull String resourcePath,
+        @NotNull Path contentFile,
+        @NotNull FileChannel channel,
+        @Nullable Long fileSizeLimit
+    ) {
+        this.controller = controller;
+        this.projectId = projectId;
+        this.resourcePath = resourcePath;
+        this.contentFile = contentFile;
+        this.channel = channel;
+        this.fileSizeLimit = fileSizeLimit;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        throw new NonReadableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        long newSize = Math.max(channel.size(), channel.position() + src.remaining());
+        try {
+            LocalResourceController.checkFileSizeQuota(fileSizeLimit, newSize);
+        } catch (DBQuotaException e) {
+            failed = true;
+            throw new IOException(e.getMessage(), e);
+        }
+        return channel.write(src);
+    }
+
+    @Override
+    public long position() throws IOException {
+        return channel.position();
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        channel.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) throws IOException {
+        channel.truncate(size);
+        return this;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+            if (!failed) {
+                controller.commitResourceContents(projectId, resourcePath, contentFile);
+            }
+        } catch (DBException e) {
+            throw new IOException("Failed to write data to the resource: " + e.getMessage(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(contentFile);
+            } catch (IOException e) {
+                log.debug("Error deleting temporary file '" + contentFile + "'", e);
+            }
+        }
+    }
+}
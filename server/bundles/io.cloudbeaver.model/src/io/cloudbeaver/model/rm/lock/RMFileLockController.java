@@ -17,6 +17,7 @@
 package io.cloudbeaver.model.rm.lock;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import io.cloudbeaver.model.app.ServletApplication;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
@@ -27,23 +28,57 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * File based resource locks
+ * File based resource locks.
+ * <p>
+ * Lock of the project is a lock file in the workspace metadata folder, so it is visible to all server instances
+ * sharing the workspace. The owner of the lock also holds OS lock ({@link FileChannel#lock}) on the lock file
+ * while the lock is active. OS releases it when the owner process dies, so stale locks are detected immediately.
+ * <p>
+ * Inside the process projects are guarded by striped locks: operations with different projects do not contend,
+ * and waiters are notified when the project is unlocked. Unlocks made by other processes are checked periodically.
  */
 public class RMFileLockController {
     private static final Log log = Log.getLog(RMFileLockController.class);
     private static final int DEFAULT_MAX_LOCK_TIME = 1 * 60 * 1000; // 1 min
-    private static final int CHECK_PERIOD = 10;
+    // Period of checking for the unlock made by another process
+    private static final int EXTERNAL_UNLOCK_CHECK_PERIOD = 100;
 
     private static final String LOCK_META_FOLDER = ".locks";
     private static final String LOCK_FILE_EXTENSION = ".lock";
 
-    private final Gson gson = new Gson();
+    // OS lock is placed beyond the file content, so lock info remains readable on platforms with mandatory locks
+    private static final long OS_LOCK_POSITION = Long.MAX_VALUE - 1;
+
+    private static final int LOCK_STRIPES = 64;
+    private static final LockStripe[] lockStripes = new LockStripe[LOCK_STRIPES];
+    // Lock files locked by this process (lock file path -> operation id)
+    private static final Map<Path, String> processLocks = new ConcurrentHashMap<>();
+
+    private static final Gson gson = new Gson();
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            lockStripes[i] = new LockStripe();
+        }
+    }
 
     private final Path lockFolderPath;
     private final String applicationId;
@@ -67,7 +102,8 @@ public class RMFileLockController {
      * Lock the project for the duration of any operation.
      * Other threads/processes will also see this lock, and will wait for it to end
      * or force intercept lock, if the operation will take too long and
-     * exceeds the maximum available locking time {@link #maxLockTime} or the lock is invalid {@link #awaitUnlock)}.
+     * exceeds the maximum available locking time {@link #maxLockTime} or the lock owner process is dead
+     * {@link #awaitUnlock)}.
      *
      * @param projectId     - project to be locked
      * @param operationName - executed operation name
@@ -75,27 +111,28 @@ public class RMFileLockController {
      */
     @NotNull
     public RMLock lockProject(@NotNull String projectId, @NotNull String operationName) throws DBException {
-        synchronized (RMFileLockController.class) {
-            try {
-                RMLockInfo lockInfo = new RMLockInfo.Builder(projectId, UUID.randomUUID().toString())
-                    .setApplicationId(applicationId)
-                    .setOperationName(operationName)
-                    .setOperationStartTime(System.currentTimeMillis())
-                    .build();
-                Path projectLockFile = getProjectLockFilePath(projectId);
-
-                if (!IOUtils.isFileFromDefaultFS(lockFolderPath)) {
-                    // fake lock for external file system?
-                    return new RMLock(projectLockFile);
-                }
-                createLockFolderIfNeeded();
-                createProjectFolder(projectId);
+        RMLockInfo lockInfo = new RMLockInfo.Builder(projectId, UUID.randomUUID().toString())
+            .setApplicationId(applicationId)
+            .setOperationName(operationName)
+            .setOperationStartTime(System.currentTimeMillis())
+            .build();
+        Path projectLockFile = getProjectLockFilePath(projectId);
 
-                createLockFile(projectLockFile, lockInfo);
-                return new RMLock(projectLockFile);
-            } catch (Exception e) {
-                throw new DBException("Failed to lock project: " + projectId, e);
-            }
+        if (!IOUtils.isFileFromDefaultFS(lockFolderPath)) {
+            // fake lock for external file system?
+            return new RMLock(projectLockFile);
+        }
+        LockStripe stripe = getLockStripe(projectLockFile);
+        stripe.lock.lock();
+        try {
+            createProjectFolder(projectId);
+            return createLockFile(projectLockFile, lockInfo);
+        } catch (DBException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DBException("Failed to lock project: " + projectId, e);
+        } finally {
+            stripe.lock.unlock();
         }
     }
 
@@ -109,11 +146,15 @@ public class RMFileLockController {
      */
     @Nullable
     public RMLock lockIfNotLocked(@NotNull String projectId, @NotNull String operationName) throws DBException {
-        synchronized (RMFileLockController.class) {
+        LockStripe stripe = getLockStripe(getProjectLockFilePath(projectId));
+        stripe.lock.lock();
+        try {
             if (isProjectLocked(projectId)) {
                 return null;
             }
             return lockProject(projectId, operationName);
+        } finally {
+            stripe.lock.unlock();
         }
     }
 
@@ -129,37 +170,78 @@ public class RMFileLockController {
         return Files.exists(lockFilePath);
     }
 
-    private void createLockFile(Path projectLockFile, RMLockInfo lockInfo) throws DBException, InterruptedException {
-        boolean lockFileCreated = false;
-        while (!lockFileCreated) {
-            if (Files.exists(projectLockFile)) {
+    private RMLock createLockFile(Path projectLockFile, RMLockInfo lockInfo) throws DBException, InterruptedException {
+        while (true) {
+            if (isLocked(projectLockFile)) {
                 awaitUnlock(lockInfo.getProjectId(), projectLockFile);
             }
+            FileChannel lockChannel;
             try {
-                Files.createFile(projectLockFile);
-                lockFileCreated = true;
+                lockChannel = FileChannel.open(
+                    projectLockFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                log.info("Looks like file was locked by another rm instance at the same time");
+                continue;
             } catch (IOException e) {
-                if (Files.exists(projectLockFile)) {
-                    log.info("Looks like file was locked by another rm instance at the same time");
-                    continue;
-                } else {
-                    throw new DBException("Failed to create lock file: " + projectLockFile, e);
-                }
+                throw new DBException("Failed to create lock file: " + projectLockFile, e);
             }
 
             try {
-                Files.write(projectLockFile, gson.toJson(lockInfo).getBytes(StandardCharsets.UTF_8));
+                lockChannel.lock(OS_LOCK_POSITION, 1, false);
+                lockChannel.write(ByteBuffer.wrap(gson.toJson(lockInfo).getBytes(StandardCharsets.UTF_8)));
             } catch (IOException e) {
                 log.error("Failed to write lock info, unlock project: " + lockInfo.getProjectId());
                 try {
-                    Files.deleteIfExists(lockFolderPath);
+                    Files.deleteIfExists(projectLockFile);
                 } catch (IOException ex) {
-                    throw new DBException("Failed to remove invalid lock file: " + projectLockFile, ex);
+                    log.error("Failed to remove invalid lock file: " + projectLockFile, ex);
                 }
+                closeLockChannel(lockChannel);
                 throw new DBException("Failed to lock project: " + lockInfo.getProjectId(), e);
             }
+            processLocks.put(projectLockFile, lockInfo.getOperationId());
+            return new RMLock(projectLockFile, lockInfo.getOperationId(), lockChannel);
         }
+    }
 
+    /**
+     * Removes the lock file if it still belongs to the lock and releases OS lock.
+     * The lock file can belong to another operation if the lock was forcibly intercepted.
+     */
+    static void releaseLock(@NotNull RMLock lock) {
+        Path lockFilePath = lock.getLockFilePath();
+        LockStripe stripe = getLockStripe(lockFilePath);
+        stripe.lock.lock();
+        try {
+            try {
+                RMLockInfo currentLockInfo = readLockInfo(null, lockFilePath);
+                if (currentLockInfo != null && lock.getOperationId().equals(currentLockInfo.getOperationId())) {
+                    // Delete the file while OS lock is still held, so nobody can treat it as stale in between
+                    Files.deleteIfExists(lockFilePath);
+                } else {
+                    log.warn("Lock file was intercepted by another operation: " + lockFilePath);
+                }
+            } catch (IOException e) {
+                log.error("Failed to unlock file: " + lockFilePath, e);
+            } finally {
+                processLocks.remove(lockFilePath, lock.getOperationId());
+                closeLockChannel(lock.getLockChannel());
+            }
+            stripe.unlocked.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static void closeLockChannel(@Nullable FileChannel lockChannel) {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            log.error("Failed to release lock file channel", e);
+        }
     }
 
     private void createProjectFolder(String projectId) throws DBException {
@@ -185,25 +267,35 @@ public class RMFileLockController {
         awaitingUnlock(projectId, projectLockFile);
     }
 
+    /**
+     * Waits until the project is unlocked. Must be called under the project lock stripe.
+     */
     protected void awaitingUnlock(String projectId, Path projectLockFile) throws DBException, InterruptedException {
         log.info("Waiting for a file to be unlocked: " + projectLockFile);
+        LockStripe stripe = getLockStripe(projectLockFile);
         RMLockInfo originalLockInfo = readLockInfo(projectId, projectLockFile);
         boolean fileUnlocked = originalLockInfo == null; //lock can be removed at the moment when we try to read lock file info
-        int maxIterations = maxLockTime / CHECK_PERIOD;
-        int currentCheckCount = 0;
+        long deadline = System.currentTimeMillis() + maxLockTime;
 
         while (!fileUnlocked) {
-            fileUnlocked = !isLocked(projectLockFile);
-            if (currentCheckCount >= maxIterations || fileUnlocked) {
-                break;
-            }
-            if (originalLockInfo != null & originalLockInfo.isBlank()) {
+            if (originalLockInfo.isBlank()) {
                 // possible in situation where the project has just been locked
                 // and the lock information has not yet been written
                 originalLockInfo = readLockInfo(projectId, projectLockFile);
+                if (originalLockInfo == null) {
+                    return;
+                }
             }
-            currentCheckCount++;
-            Thread.sleep(CHECK_PERIOD);
+            if (!originalLockInfo.isBlank() && removeStaleLock(projectLockFile, originalLockInfo)) {
+                return;
+            }
+            long waitTime = deadline - System.currentTimeMillis();
+            if (waitTime <= 0) {
+                break;
+            }
+            // In-process unlocks signal the condition, unlocks made by other processes are checked periodically
+            stripe.unlocked.await(Math.min(waitTime, EXTERNAL_UNLOCK_CHECK_PERIOD), TimeUnit.MILLISECONDS);
+            fileUnlocked = !isLocked(projectLockFile);
         }
         if (fileUnlocked) {
             return;
@@ -219,7 +311,43 @@ public class RMFileLockController {
         if (originalLockInfo.getOperationId().equals(currentLockInfo.getOperationId())) {
             forceUnlock(projectLockFile);
         } else {
-            awaitUnlock(projectId, lockFolderPath);
+            awaitUnlock(projectId, projectLockFile);
+        }
+    }
+
+    /**
+     * Removes the lock if the process which holds it is dead (OS released its file lock).
+     *
+     * @return true if the lock was stale and has been removed
+     */
+    private boolean removeStaleLock(Path projectLockFile, RMLockInfo originalLockInfo) {
+        if (processLocks.containsKey(projectLockFile)) {
+            // Locked by this process. Also we must not open another channel for this file:
+            // closing it could release OS locks held by the owner channel.
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(projectLockFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock osLock = channel.tryLock(OS_LOCK_POSITION, 1, false);
+            if (osLock == null) {
+                // Owner process is alive
+                return false;
+            }
+            // Make sure that the file was not unlocked and locked again by another operation
+            RMLockInfo currentLockInfo = readLockInfo(originalLockInfo.getProjectId(), projectLockFile);
+            if (currentLockInfo != null && originalLockInfo.getOperationId().equals(currentLockInfo.getOperationId())) {
+                log.warn("Lock owner '" + originalLockInfo.getApplicationId() + "' of operation '" +
+                    originalLockInfo.getOperationName() + "' is not alive, remove stale lock: " + projectLockFile);
+                Files.deleteIfExists(projectLockFile);
+            }
+            return true;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        } catch (NoSuchFileException e) {
+            // Unlocked now
+            return true;
+        } catch (IOException e) {
+            log.debug("Failed to check lock owner: " + projectLockFile, e);
+            return false;
         }
     }
 
@@ -240,30 +368,37 @@ public class RMFileLockController {
      - empty lock info if the lock has just been created and the information has not yet been written;
      - lock info
      */
-    private RMLockInfo readLockInfo(String projectId, Path projectLockFile) throws DBException {
+    private static RMLockInfo readLockInfo(@Nullable String projectId, Path projectLockFile) {
         if (Files.notExists(projectLockFile)) {
             return null;
         }
+        RMLockInfo lockInfo = null;
         try (Reader reader = Files.newBufferedReader(projectLockFile, StandardCharsets.UTF_8)) {
-            return gson.fromJson(reader, RMLockInfo.class);
-        } catch (IOException e) {
-            if (!isLocked(projectLockFile)) {
+            lockInfo = gson.fromJson(reader, RMLockInfo.class);
+        } catch (IOException | JsonParseException e) {
+            if (Files.notExists(projectLockFile)) {
                 return null;
             }
             log.warn("Failed to read lock file info, but lock file still exist: " + projectLockFile);
-            return RMLockInfo.emptyLock(projectId);
         }
+        if (lockInfo == null) {
+            // Lock info is not written yet
+            return Files.exists(projectLockFile) ? RMLockInfo.emptyLock(projectId) : null;
+        }
+        return lockInfo;
     }
 
     private Path getProjectLockFilePath(String projectId) {
         return lockFolderPath.resolve(projectId).resolve(projectId + LOCK_FILE_EXTENSION);
     }
 
-    private void createLockFolderIfNeeded() throws IOException {
-        synchronized (RMFileLockController.class) {
-            if (Files.notExists(lockFolderPath)) {
-                Files.createDirectories(lockFolderPath);
-            }
-        }
+    @NotNull
+    private static LockStripe getLockStripe(@NotNull Path lockFilePath) {
+        return lockStripes[Math.floorMod(lockFilePath.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static class LockStripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition unlocked = lock.newCondition();
     }
 }
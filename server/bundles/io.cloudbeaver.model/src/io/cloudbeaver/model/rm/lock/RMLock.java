@@ -16,9 +16,11 @@
  */
 package io.cloudbeaver.model.rm.lock;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -29,22 +31,48 @@ public class RMLock implements AutoCloseable {
     private static final Log log = Log.getLog(RMLock.class);
 
     private final Path lockFilePath;
+    @Nullable
+    private final String operationId;
+    // Channel holding OS file lock, closing it releases the lock
+    @Nullable
+    private final FileChannel lockChannel;
+    private boolean unlocked;
 
     public RMLock(Path lockFilePath) {
+        this(lockFilePath, null, null);
+    }
+
+    RMLock(Path lockFilePath, @Nullable String operationId, @Nullable FileChannel lockChannel) {
         this.lockFilePath = lockFilePath;
+        this.operationId = operationId;
+        this.lockChannel = lockChannel;
     }
 
     /**
      * Unlock resource and remove .lock file
      */
     public void unlock() {
+        synchronized (this) {
+            if (unlocked) {
+                return;
+            }
+            unlocked = true;
+        }
+        if (operationId != null) {
+            RMFileLockController.releaseLock(this);
+            return;
+        }
+        deleteLockFile();
+    }
+
+    private void deleteLockFile() {
         try {
             Files.deleteIfExists(lockFilePath);
         } catch (IOException e) {
             log.error("Failed to unlock file: " + lockFilePath, e);
             if (Files.exists(lockFilePath)) {
                 // file still locket, try to unlock again
-                unlock();
+                deleteLockFile();
             }
         }
     }
@@ -56,6 +84,16 @@ public class RMLock implements AutoCloseable {
         return lockFilePath;
     }
 
+    @Nullable
+    String getOperationId() {
+        return operationId;
+    }
+
+    @Nullable
+    FileChannel getLockChannel() {
+        return lockChannel;
+    }
+
     @Override
     public void close() {
         unlock();
@@ -87,14 +87,13 @@ public abstract class BaseWebSession extends AbstractSessionPersistent {
         if (!eventAllowedByFilter) {
             return;
         }
-        synchronized (sessionEventHandlers) {
-            for (CBWebSessionEventHandler eventHandler : sessionEventHandlers) {
-                try {
-                    eventHandler.handleWebSessionEvent(event);
-                } catch (DBException e) {
-                    log.error(e.getMessage(), e);
-                    addSessionError(e);
-                }
+        // Handlers list is copy-on-write, so publishers don't wait for each other and for handler registration
+        for (CBWebSessionEventHandler eventHandler : sessionEventHandlers) {
+            try {
+                eventHandler.handleWebSessionEvent(event);
+            } catch (DBException e) {
+                log.error(e.getMessage(), e);
+                addSessionError(e);
             }
         }
     }
@@ -172,7 +171,7 @@ public abstract class BaseWebSession extends AbstractSessionPersistent {
     }
 
     @NotNull
-    public synchronized WebUserContext getUserContext() {
+    public WebUserContext getUserContext() {
         return userContext;
     }
 
@@ -187,7 +187,7 @@ public class WebSession extends BaseWebSession
         this.cacheExpired = cacheExpired;
     }
 
-    public synchronized WebUser getUser() {
+    public WebUser getUser() {
         return this.userContext.getUser();
     }
 
@@ -203,44 +203,47 @@ public class WebSession extends BaseWebSession
         return allMetaParams;
     }
 
-    public synchronized String getUserId() {
+    public String getUserId() {
         return userContext.getUserId();
     }
 
-    public synchronized boolean hasPermission(String perm) {
-        return getSessionPermissions().contains(DBWConstants.PERMISSION_ADMIN) ||
-            getSessionPermissions().contains(perm);
+    public boolean hasPermission(String perm) {
+        Set<String> permissions = getSessionPermissions();
+        return permissions.contains(DBWConstants.PERMISSION_ADMIN) || permissions.contains(perm);
     }
 
-    public synchronized boolean isAuthorizedInSecurityManager() {
+    public boolean isAuthorizedInSecurityManager() {
         return userContext.isAuthorizedInSecurityManager();
     }
 
-    public synchronized Set<String> getSessionPermissions() {
-        if (userContext.getUserPermissions() == null) {
+    public Set<String> getSessionPermissions() {
+        // User context state is read without locking, the session is locked only for the initial authorization
+        Set<String> permissions = userContext.getUserPermissions();
+        if (permissions == null) {
             refreshSessionAuth();
+            permissions = userContext.getUserPermissions();
         }
-        return userContext.getUserPermissions();
+        return permissions;
     }
 
     @NotNull
-    public synchronized SMController getSecurityController() {
+    public SMController getSecurityController() {
         return userContext.getSecurityController();
     }
 
     @NotNull
-    public synchronized SMAdminController getAdminSecurityController() throws DBException {
+    public SMAdminController getAdminSecurityController() throws DBException {
         if (!hasPermission(DBWConstants.PERMISSION_ADMIN)) {
             throw new DBException("Admin permissions required");
         }
         return userContext.getAdminSecurityController();
     }
 
-    public synchronized RMController getRmController() {
+    public RMController getRmController() {
         return userContext.getRmController();
     }
 
-    public synchronized DBFileController getFileController() {
+    public DBFileController getFileController() {
         return userContext.getFileController();
     }
 
@@ -39,12 +39,19 @@ import org.jkiss.dbeaver.model.security.user.SMAuthPermissions;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Web user context.
- * Contains user state and services based on available permissions
+ * Contains user state and services based on available permissions.
+ * <p>
+ * User state is kept in an immutable snapshot which is replaced on each change, so readers never wait for
+ * a refresh which goes to the security manager. Changes are serialized by the refresh lock.
  */
 //TODO: split to authenticated and non authenticated context
 public class WebUserContext implements SMCredentialsProvider {
@@ -53,28 +60,33 @@ public class WebUserContext implements SMCredentialsProvider {
     private final ServletApplication application;
     private final DBPWorkspace workspace;
 
-    private WebUser user;
-    private Set<String> userPermissions;
-    private SMCredentials smCredentials = null;
-    private String smSessionId;
-    private String refreshToken;
-
-    private SMController securityController;
-    private SMAdminController adminSecurityController;
-    private DBSSecretController secretController;
-    private RMController rmController;
-    private DBFileController fileController;
-    private Set<String> accessibleProjectIds = new HashSet<>();
+    private final Object refreshLock = new Object();
+    private final RefreshTask permissionsRefresh = new RefreshTask();
+    private final RefreshTask projectsRefresh = new RefreshTask();
+
+    // Controllers are created with this context as credentials provider, so the state is never null
+    @NotNull
+    private volatile State state = new State(null, null, null, null, null, null, null, null);
+    // State being built under the refresh lock, it is visible only to the controllers called by the refreshing thread
+    @Nullable
+    private State pendingState;
+    @NotNull
+    private volatile Set<String> accessibleProjectIds = ConcurrentHashMap.newKeySet();
+    private volatile DBSSecretController secretController;
+    private final DBFileController fileController;
     private final WebSessionPreferenceStore preferenceStore;
 
     public WebUserContext(ServletApplication application, DBPWorkspace workspace) throws DBException {
         this.application = application;
         this.workspace = workspace;
-        this.securityController = application.createSecurityController(this);
-        this.rmController = application.createResourceController(this, workspace);
+        this.state = state.withControllers(
+            application.createSecurityController(this),
+            null,
+            application.createResourceController(this, workspace)
+        );
         this.fileController = application.createFileController(this);
         this.preferenceStore = new WebSessionPreferenceStore(DBWorkbench.getPlatform().getPreferenceStore());
-        setUserPermissions(getDefaultPermissions());
+        this.state = state.withUserPermissions(getDefaultPermissions());
     }
 
     /**
@@ -84,158 +96,219 @@ public class WebUserContext implements SMCredentialsProvider {
      * @return - true if context changed
      * @throws DBException - if user already authorized and new token come from another user
      */
-    public synchronized boolean refresh(SMAuthInfo smAuthInfo) throws DBException {
-        if (smAuthInfo.getAuthPermissions() == null && !isAuthorizedInSecurityManager()) {
-            throw new DBCException("Required information about session permissions is missing");
-        }
-        boolean sessionChanged = !CommonUtils.equalObjects(smSessionId, smAuthInfo.getAuthPermissions().getSessionId());
-        if (smAuthInfo.getAuthStatus() != SMAuthStatus.SUCCESS || (sessionChanged && smAuthInfo.getSmAccessToken() == null)) {
-            throw new DBCException("Authorization did not complete successfully");
-        }
-        if (sessionChanged) {
-            return refresh(smAuthInfo.getSmAccessToken(), smAuthInfo.getSmRefreshToken(), smAuthInfo.getAuthPermissions());
+    public boolean refresh(SMAuthInfo smAuthInfo) throws DBException {
+        synchronized (refreshLock) {
+            if (smAuthInfo.getAuthPermissions() == null && !isAuthorizedInSecurityManager()) {
+                throw new DBCException("Required information about session permissions is missing");
+            }
+            boolean sessionChanged = !CommonUtils.equalObjects(state.smSessionId(), smAuthInfo.getAuthPermissions().getSessionId());
+            if (smAuthInfo.getAuthStatus() != SMAuthStatus.SUCCESS || (sessionChanged && smAuthInfo.getSmAccessToken() == null)) {
+                throw new DBCException("Authorization did not complete successfully");
+            }
+            if (sessionChanged) {
+                return refresh(smAuthInfo.getSmAccessToken(), smAuthInfo.getSmRefreshToken(), smAuthInfo.getAuthPermissions());
+            }
+            return false;
         }
-        return false;
     }
 
-    public synchronized boolean refresh(
+    public boolean refresh(
         @NotNull String smAccessToken,
         @Nullable String smRefreshToken,
         @NotNull SMAuthPermissions smAuthPermissions
     ) throws DBException {
-        var isNonAnonymousUserAuthorized = isNonAnonymousUserAuthorizedInSM();
-        var isSessionChanged = !CommonUtils.equalObjects(smSessionId, smAuthPermissions.getSessionId());
-        if (isNonAnonymousUserAuthorized && isSessionChanged && !Objects.equals(getUserId(), smAuthPermissions.getUserId())) {
-            throw new DBCException("Another user is already logged in");
-        }
-        this.smCredentials = new SMCredentials(
-            smAccessToken,
-            smAuthPermissions.getUserId(),
-            smAuthPermissions.getSessionId(),
-            smAuthPermissions.getPermissions()
-        );
-        setRefreshToken(smRefreshToken);
-        setUserPermissions(smAuthPermissions.getPermissions());
-        this.adminSecurityController = application.getAdminSecurityController(this);
-        this.rmController = application.createResourceController(this, workspace);
-        if (isSessionChanged) {
-            if (smAuthPermissions.getUserId() != null) {
-                this.preferenceStore.updateAllUserPreferences(securityController.getCurrentUserParameters());
-            } else {
-                this.preferenceStore.updateAllUserPreferences(Map.of());
+        synchronized (refreshLock) {
+            State current = state;
+            var isNonAnonymousUserAuthorized = current.isNonAnonymousUserAuthorized();
+            var isSessionChanged = !CommonUtils.equalObjects(current.smSessionId(), smAuthPermissions.getSessionId());
+            if (isNonAnonymousUserAuthorized && isSessionChanged && !Objects.equals(current.getUserId(), smAuthPermissions.getUserId())) {
+                throw new DBCException("Another user is already logged in");
             }
-            this.smSessionId = smAuthPermissions.getSessionId();
-            setUser(smAuthPermissions.getUserId() == null ? null : new WebUser(securityController.getCurrentUser()));
-            refreshAccessibleProjects();
+            SMCredentials smCredentials = new SMCredentials(
+                smAccessToken,
+                smAuthPermissions.getUserId(),
+                smAuthPermissions.getSessionId(),
+                smAuthPermissions.getPermissions()
+            );
+            state = buildState(
+                current.withCredentials(smCredentials, smRefreshToken).withUserPermissions(smAuthPermissions.getPermissions()),
+                pending -> {
+                    pending = pending.withControllers(
+                        pending.securityController(),
+                        application.getAdminSecurityController(this),
+                        application.createResourceController(this, workspace)
+                    );
+                    if (!isSessionChanged) {
+                        return pending;
+                    }
+                    SMController securityController = pending.securityController();
+                    if (smAuthPermissions.getUserId() != null) {
+                        this.preferenceStore.updateAllUserPreferences(securityController.getCurrentUserParameters());
+                    } else {
+                        this.preferenceStore.updateAllUserPreferences(Map.of());
+                    }
+                    WebUser user = smAuthPermissions.getUserId() == null ? null : new WebUser(securityController.getCurrentUser());
+                    return pending.withSession(smAuthPermissions.getSessionId(), user);
+                }
+            );
+            if (isSessionChanged) {
+                // Refresh lock is already held, don't join the concurrent refresh
+                readAccessibleProjects();
+            }
+            return isSessionChanged;
         }
-        return isSessionChanged;
     }
 
-    public synchronized void refreshAccessibleProjects() throws DBException {
-        this.accessibleProjectIds.clear();
-        this.accessibleProjectIds.addAll(
-            Arrays.stream(rmController.listAccessibleProjects()).map(RMProject::getId).collect(Collectors.toSet())
-        );
+    /**
+     * Rereads the list of projects accessible by the current user.
+     * Concurrent calls share the same read.
+     */
+    public void refreshAccessibleProjects() throws DBException {
+        projectsRefresh.run(this::readAccessibleProjects);
     }
 
-    public synchronized void refreshSMSession() throws DBException {
-        if (smCredentials == null || refreshToken == null) {
-            return;
+    private void readAccessibleProjects() throws DBException {
+        synchronized (refreshLock) {
+            Set<String> projectIds = ConcurrentHashMap.newKeySet();
+            for (RMProject project : state.rmController().listAccessibleProjects()) {
+                projectIds.add(project.getId());
+            }
+            this.accessibleProjectIds = projectIds;
+        }
+    }
+
+    public void refreshSMSession() throws DBException {
+        synchronized (refreshLock) {
+            State current = state;
+            SMCredentials smCredentials = current.smCredentials();
+            if (smCredentials == null || current.refreshToken() == null) {
+                return;
+            }
+            var newTokens = current.securityController().refreshSession(current.refreshToken());
+            state = current.withCredentials(
+                new SMCredentials(
+                    newTokens.getSmAccessToken(),
+                    smCredentials.getUserId(),
+                    smCredentials.getSmSessionId(),
+                    smCredentials.getPermissions()
+                ),
+                newTokens.getSmRefreshToken()
+            );
         }
-        var newTokens = securityController.refreshSession(refreshToken);
-        setRefreshToken(newTokens.getSmRefreshToken());
-        this.smCredentials = new SMCredentials(
-            newTokens.getSmAccessToken(),
-            smCredentials.getUserId(),
-            smCredentials.getSmSessionId(),
-            smCredentials.getPermissions()
-        );
     }
 
     /**
      * reset the state as if the user is not logged in
      */
-    public synchronized void reset() throws DBException {
-        try {
-            if (this.smCredentials != null) {
-                this.securityController.logout();
+    public void reset() throws DBException {
+        synchronized (refreshLock) {
+            State current = state;
+            try {
+                if (current.smCredentials() != null) {
+                    current.securityController().logout();
+                }
+            } catch (Exception e) {
+                log.error("Error logging out user", e);
             }
-        } catch (Exception e) {
-            log.error("Error logging out user", e);
+            state = buildState(
+                current.withUserPermissions(getDefaultPermissions())
+                    .withCredentials(null, current.refreshToken())
+                    .withUser(null),
+                pending -> pending.withControllers(application.createSecurityController(this), null, pending.rmController())
+            );
+            this.secretController = null;
         }
-        setUserPermissions(getDefaultPermissions());
-        this.smCredentials = null;
-        this.user = null;
-        this.securityController = application.createSecurityController(this);
-        this.adminSecurityController = null;
-        this.secretController = null;
     }
 
     @NotNull
-    public synchronized SMController getSecurityController() {
-        return securityController;
+    public SMController getSecurityController() {
+        return state.securityController();
     }
 
     @Nullable
     @Override
-    public synchronized SMCredentials getActiveUserCredentials() {
-        return smCredentials;
+    public SMCredentials getActiveUserCredentials() {
+        if (Thread.holdsLock(refreshLock) && pendingState != null) {
+            // Controllers called while the state is built must use its credentials
+            return pendingState.smCredentials();
+        }
+        return state.smCredentials();
     }
 
-    public synchronized boolean isAuthorizedInSecurityManager() {
-        return smCredentials != null;
+    public boolean isAuthorizedInSecurityManager() {
+        return state.smCredentials() != null;
     }
 
-    public synchronized boolean isNonAnonymousUserAuthorizedInSM() {
-        return isAuthorizedInSecurityManager() && getUser() != null;
+    public boolean isNonAnonymousUserAuthorizedInSM() {
+        return state.isNonAnonymousUserAuthorized();
     }
 
     @Nullable
-    public synchronized WebUser getUser() {
-        return user;
+    public WebUser getUser() {
+        return state.user();
     }
 
-    public synchronized String getUserId() {
-        return user == null ? null : user.getUserId();
+    public String getUserId() {
+        return state.getUserId();
     }
 
-    protected synchronized void setUser(@Nullable WebUser user) {
-        this.user = user;
+    protected void setUser(@Nullable WebUser user) {
+        synchronized (refreshLock) {
+            state = state.withUser(user);
+        }
     }
 
-    public synchronized SMAdminController getAdminSecurityController() {
-        return adminSecurityController;
+    public SMAdminController getAdminSecurityController() {
+        return state.adminSecurityController();
     }
 
-    public synchronized Set<String> getUserPermissions() {
-        return userPermissions;
+    public Set<String> getUserPermissions() {
+        return state.userPermissions();
     }
 
     /**
-     * reread the current user's permissions
+     * reread the current user's permissions.
+     * Concurrent calls share the same read.
      */
-    public synchronized void refreshPermissions() throws DBException {
-        if (isAuthorizedInSecurityManager()) {
-            log.debug("refresh permissions " + getUserId() + " " + getSmSessionId()); // 此处错误
-            setUserPermissions(securityController.getTokenPermissions().getPermissions());
-        } else {
-            setUserPermissions(getDefaultPermissions());
-        }
+    public void refreshPermissions() throws DBException {
+        permissionsRefresh.run(this::readPermissions);
     }
 
-    private void setUserPermissions(Set<String> permissions) {
-        this.userPermissions = permissions;
+    private void readPermissions() throws DBException {
+        synchronized (refreshLock) {
+            State current = state;
+            if (current.smCredentials() != null) {
+                log.debug("refresh permissions " + current.getUserId() + " " + current.smSessionId());
+                state = current.withUserPermissions(current.securityController().getTokenPermissions().getPermissions());
+            } else {
+                state = current.withUserPermissions(getDefaultPermissions());
+            }
+        }
     }
 
     public DBSSecretController getSecretController() throws DBException {
-        if (this.securityController == null) {
+        if (state.securityController() == null) {
             this.secretController = application.getSecretController(this, workspace.getAuthContext());
         }
         return secretController;
     }
 
-    public synchronized String getSmSessionId() {
-        return smSessionId;
+    public String getSmSessionId() {
+        return state.smSessionId();
+    }
+
+    /**
+     * Completes the new state which is published by the caller as a whole.
+     * Must be called under the refresh lock.
+     */
+    @NotNull
+    private State buildState(@NotNull State pending, @NotNull StateBuilder builder) throws DBException {
+        pendingState = pending;
+        try {
+            return builder.build(pending);
+        } finally {
+            pendingState = null;
+        }
     }
 
     private Set<String> getDefaultPermissions() {
@@ -243,23 +316,167 @@ public class WebUserContext implements SMCredentialsProvider {
     }
 
     public RMController getRmController() {
-        return rmController;
+        return state.rmController();
     }
 
     public DBFileController getFileController() {
         return fileController;
     }
 
+    /**
+     * Returns projects accessible by the user. The set is replaced on refresh,
+     * so the returned set may be modified concurrently with reads.
+     */
     @NotNull
     public Set<String> getAccessibleProjectIds() {
         return accessibleProjectIds;
     }
 
-    private void setRefreshToken(@Nullable String refreshToken) {
-        this.refreshToken = refreshToken;
-    }
-
     public WebSessionPreferenceStore getPreferenceStore() {
         return preferenceStore;
     }
+
+    /**
+     * Immutable user state
+     */
+    private record State(
+        @Nullable WebUser user,
+        @Nullable Set<String> userPermissions,
+        @Nullable SMCredentials smCredentials,
+        @Nullable String smSessionId,
+        @Nullable String refreshToken,
+        SMController securityController,
+        @Nullable SMAdminController adminSecurityController,
+        RMController rmController
+    ) {
+        @Nullable
+        String getUserId() {
+            return user == null ? null : user.getUserId();
+        }
+
+        boolean isNonAnonymousUserAuthorized() {
+            return smCredentials != null && user != null;
+        }
+
+        State withUser(@Nullable WebUser user) {
+            return new State(user, userPermissions, smCredentials, smSessionId, refreshToken,
+                securityController, adminSecurityController, rmController);
+        }
+
+        State withUserPermissions(@Nullable Set<String> userPermissions) {
+            return new State(user, userPermissions, smCredentials, smSessionId, refreshToken,
+                securityController, adminSecurityController, rmController);
+        }
+
+        State withCredentials(@Nullable SMCredentials smCredentials, @Nullable String refreshToken) {
+            return new State(user, userPermissions, smCredentials, smSessionId, refreshToken,
+                securityController, adminSecurityController, rmController);
+        }
+
+        State withSession(@Nullable String smSessionId, @Nullable WebUser user) {
+            return new State(user, userPermissions, smCredentials, smSessionId, refreshToken,
+                securityController, adminSecurityController, rmController);
+        }
+
+        State withControllers(
+            SMController securityController,
+            @Nullable SMAdminController adminSecurityController,
+            RMController rmController
+        ) {
+            return new State(user, userPermissions, smCredentials, smSessionId, refreshToken,
+                securityController, adminSecurityController, rmController);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StateBuilder {
+        State build(@NotNull State pending) throws DBException;
+    }
+
+    @FunctionalInterface
+    private interface RefreshAction {
+        void run() throws DBException;
+    }
+
+    /**
+     * Single-flight refresh.
+     * Caller which comes while the refresh is running doesn't start its own one, it waits for the next refresh
+     * which is shared by all such callers. So the result is never older than the call,
+     * and the number of reads doesn't depend on the number of concurrent callers.
+     */
+    private static class RefreshTask {
+        private final Object lock = new Object();
+        @Nullable
+        private CompletableFuture<Void> running;
+        @Nullable
+        private CompletableFuture<Void> scheduled;
+
+        void run(@NotNull RefreshAction action) throws DBException {
+            CompletableFuture<Void> sharedRefresh = null;
+            synchronized (lock) {
+                if (running == null) {
+                    running = new CompletableFuture<>();
+                } else {
+                    if (scheduled == null) {
+                        scheduled = new CompletableFuture<>();
+                    }
+                    sharedRefresh = scheduled;
+                }
+            }
+            if (sharedRefresh != null) {
+                await(sharedRefresh);
+                return;
+            }
+            // This caller owns the refresh and runs the scheduled ones as well
+            Throwable ownError = null;
+            boolean ownRefresh = true;
+            CompletableFuture<Void> future;
+            synchronized (lock) {
+                future = running;
+            }
+            while (future != null) {
+                try {
+                    action.run();
+                    future.complete(null);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                    if (ownRefresh) {
+                        ownError = e;
+                    }
+                }
+                ownRefresh = false;
+                synchronized (lock) {
+                    running = future = scheduled;
+                    scheduled = null;
+                }
+            }
+            if (ownError != null) {
+                throwError(ownError);
+            }
+        }
+
+        private static void await(@NotNull CompletableFuture<Void> future) throws DBException {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DBException("Refresh interrupted");
+            } catch (ExecutionException e) {
+                throwError(e.getCause());
+            }
+        }
+
+        private static void throwError(@NotNull Throwable error) throws DBException {
+            if (error instanceof DBException dbe) {
+                throw dbe;
+            }
+            if (error instanceof RuntimeException re) {
+                throw re;
+            }
+            if (error instanceof Error err) {
+                throw err;
+            }
+            throw new DBException("Refresh failed", error);
+        }
+    }
 }
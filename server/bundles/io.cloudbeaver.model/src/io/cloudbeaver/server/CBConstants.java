@@ -88,6 +88,7 @@ public class CBConstants {
     public static final String APPLICATION_JSON = "application/json";
 
     public static final String QUOTA_PROP_FILE_LIMIT = "dataExportFileSizeLimit";
+    public static final String QUOTA_PROP_UPLOAD_FILE_SIZE_LIMIT = "uploadFileSizeLimit";
     public static final String ADMIN_AUTO_GRANT = "auto-grant";
     public static final String HOST_LOCALHOST = "localhost";
     public static final String HOST_127_0_0_1 = "127.0.0.1";
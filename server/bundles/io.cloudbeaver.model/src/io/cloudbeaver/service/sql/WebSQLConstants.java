@@ -27,6 +27,9 @@ public class WebSQLConstants {
     public static final String QUOTA_PROP_TEXT_PREVIEW_MAX_LENGTH = "sqlTextPreviewMaxLength";
     public static final String QUOTA_PROP_BINARY_PREVIEW_MAX_LENGTH = "sqlBinaryPreviewMaxLength";
     public static final String QUOTA_PROP_RM_FILE_SIZE_LIMIT = "resourceManagerFileSizeLimit";
+    public static final String QUOTA_PROP_MAX_RESULT_SETS = "sqlMaxResultSets";
+    public static final String QUOTA_PROP_MAX_RESULT_SETS_ATTRIBUTES = "sqlMaxResultSetsAttributes";
+    public static final String QUOTA_PROP_RESULT_SET_IDLE_TIMEOUT = "sqlResultSetIdleTimeout";
 
     public static final int TEXT_PREVIEW_MAX_LENGTH = 4 * 1024;
     public static final int BINARY_PREVIEW_MAX_LENGTH = 255 * 1024;
@@ -92,7 +92,19 @@ public class WebEventUtils {
         String nodePath,
         WSConstants.EventAction eventAction
     ) {
-        if (project == null) {
+        addNavigatorNodesUpdatedEvent(project, session, List.of(nodePath), eventAction);
+    }
+
+    /**
+     * Sends a single folder event for all nodes
+     */
+    public static void addNavigatorNodesUpdatedEvent(
+        DBPProject project,
+        WebSession session,
+        List<String> nodePaths,
+        WSConstants.EventAction eventAction
+    ) {
+        if (project == null || nodePaths.isEmpty()) {
             return;
         }
         WSEvent event = null;
@@ -102,7 +114,7 @@ public class WebEventUtils {
                     session.getUserContext().getSmSessionId(),
                     session.getUserId(),
                     project.getId(),
-                    List.of(nodePath)
+                    nodePaths
                 );
                 break;
             case DELETE:
@@ -110,7 +122,7 @@ public class WebEventUtils {
                     session.getUserContext().getSmSessionId(),
                     session.getUserId(),
                     project.getId(),
-                    List.of(nodePath)
+                    nodePaths
                 );
                 break;
             case UPDATE:
@@ -118,7 +130,7 @@ public class WebEventUtils {
                     session.getUserContext().getSmSessionId(),
                     session.getUserId(),
                     project.getId(),
-                    List.of(nodePath)
+                    nodePaths
                 );
                 break;
         }
@@ -20,6 +20,9 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.websocket.event.WSEvent;
 
 public interface CBWebSessionEventHandler {
+    /**
+     * Handles the session event. Called by the event publisher thread, so must not block on network I/O.
+     */
     void handleWebSessionEvent(WSEvent event) throws DBException;
 
     void close();
@@ -62,6 +62,12 @@ public class CBServerConfig implements WebServerConfiguration {
     @SerializedName("editordatabase")
     private EditorDatabaseConfig editordatabaseConfiguration = new EditorDatabaseConfig();
 
+    @SerializedName("graphql")
+    private WebGraphQLConfig graphQLConfiguration = new WebGraphQLConfig();
+
+    @SerializedName("http")
+    private WebHttpConfig httpConfiguration = new WebHttpConfig();
+
     private String staticContent = "";
     public DatasourceDatabaseConfig getDbdatabaseConfiguration() {
         return dbdatabaseConfiguration;
@@ -87,6 +93,24 @@ public class CBServerConfig implements WebServerConfiguration {
         this.editordatabaseConfiguration = editordatabaseConfiguration;
     }
 
+    @NotNull
+    public WebGraphQLConfig getGraphQLConfiguration() {
+        return graphQLConfiguration;
+    }
+
+    public void setGraphQLConfiguration(WebGraphQLConfig graphQLConfiguration) {
+        this.graphQLConfiguration = graphQLConfiguration;
+    }
+
+    @NotNull
+    public WebHttpConfig getHttpConfiguration() {
+        return httpConfiguration;
+    }
+
+    public void setHttpConfiguration(WebHttpConfig httpConfiguration) {
+        this.httpConfiguration = httpConfiguration;
+    }
+
     public String getServerURL() {
         return serverURL;
     }
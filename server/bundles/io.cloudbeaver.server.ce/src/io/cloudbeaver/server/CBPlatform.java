@@ -41,6 +41,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -58,6 +59,8 @@ public class CBPlatform extends BaseWebPlatform {
 
     private WebServerPreferenceStore preferenceStore;
     protected final List<DBPDriver> applicableDrivers = new ArrayList<>();
+    // Replaced on each refresh, so callers may use it as a version of the driver list
+    private volatile Set<String> applicableDriverIds = Set.of();
 
     public static CBPlatform getInstance() {
         return (CBPlatform) DBWorkbench.getPlatform();
@@ -128,6 +131,12 @@ public class CBPlatform extends BaseWebPlatform {
         return applicableDrivers;
     }
 
+    @NotNull
+    @Override
+    public Set<String> getApplicableDriverIds() {
+        return applicableDriverIds;
+    }
+
 
     @NotNull
     @Override
@@ -169,6 +178,7 @@ public class CBPlatform extends BaseWebPlatform {
                 }
             }
         }
+        applicableDriverIds = applicableDrivers.stream().map(DBPDriver::getId).collect(Collectors.toUnmodifiableSet());
         log.info("Available drivers: " + applicableDrivers.stream().map(DBPDriver::getFullName).collect(Collectors.joining(",")));
     }
 
@@ -17,6 +17,7 @@
 package io.cloudbeaver.server.jetty;
 
 import io.cloudbeaver.model.config.CBServerConfig;
+import io.cloudbeaver.model.config.WebHttpConfig;
 import io.cloudbeaver.registry.WebServiceRegistry;
 import io.cloudbeaver.server.CBApplication;
 import io.cloudbeaver.server.CBConstants;
@@ -37,7 +38,11 @@ import org.eclipse.jetty.ee10.servlet.ServletHolder;
 import org.eclipse.jetty.ee10.servlet.ServletMapping;
 import org.eclipse.jetty.ee10.websocket.jakarta.server.config.JakartaWebSocketServletContainerInitializer;
 import org.eclipse.jetty.server.*;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.resource.ResourceFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.xml.XmlConfiguration;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
@@ -45,7 +50,6 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.utils.CommonUtils;
 
-import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -60,8 +64,11 @@ public class CBJettyServer {
         System.setProperty("org.eclipse.jetty.LEVEL", "WARN");
     }
 
+    private static final String HTTP2C_CONNECTION_FACTORY = "org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory";
+
     private final CBApplication<?> application;
     private Server server;
+    private ServletContextHandler servletContextHandler;
 
     public CBJettyServer(@NotNull CBApplication<?> application) {
         this.application = application;
@@ -72,11 +79,12 @@ public class CBJettyServer {
             CBServerConfig serverConfiguration = application.getServerConfiguration();
             int serverPort = serverConfiguration.getServerPort();
             String serverHost = serverConfiguration.getServerHost();
+            WebHttpConfig httpConfig = serverConfiguration.getHttpConfiguration();
             Path sslPath = getSslConfigurationPath();
 
             boolean sslConfigurationExists = sslPath != null && Files.exists(sslPath);
             if (sslConfigurationExists) {
-                server = new Server();
+                server = new Server(createThreadPool(httpConfig));
                 XmlConfiguration sslConfiguration = new XmlConfiguration(ResourceFactory.of(server).newResource(sslPath));
                 ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
                 // method sslConfiguration.configure() does not see the context class of the Loader,
@@ -85,18 +93,19 @@ public class CBJettyServer {
                 sslConfiguration.configure(server);
                 Thread.currentThread().setContextClassLoader(classLoader);
             } else {
-                if (CommonUtils.isEmpty(serverHost)) {
-                    server = new Server(serverPort);
-                } else {
-                    server = new Server(
-                        InetSocketAddress.createUnresolved(serverHost, serverPort));
+                server = new Server(createThreadPool(httpConfig));
+                ServerConnector connector = new ServerConnector(server);
+                if (!CommonUtils.isEmpty(serverHost)) {
+                    connector.setHost(serverHost);
                 }
+                connector.setPort(serverPort);
+                server.addConnector(connector);
             }
 
             {
                 // Handler configuration
                 Path contentRootPath = Path.of(serverConfiguration.getContentRoot());
-                ServletContextHandler servletContextHandler = new ServletContextHandler(ServletContextHandler.SESSIONS);
+                servletContextHandler = new ServletContextHandler(ServletContextHandler.SESSIONS);
                 servletContextHandler.setBaseResourceAsPath(contentRootPath);
                 String rootURI = serverConfiguration.getRootURI();
                 servletContextHandler.setContextPath(rootURI);
@@ -120,7 +129,7 @@ public class CBJettyServer {
                 //新增
                 servletContextHandler.addServlet(new ServletHolder("indaas", new WebLicenseServlet()), "/indaas/*");
 
-                servletContextHandler.addServlet(new ServletHolder("graphql", new GraphQLEndpoint()), serverConfiguration.getServicesURI() + "gql/*");
+                servletContextHandler.addServlet(new ServletHolder("graphql", new GraphQLEndpoint(serverConfiguration.getGraphQLConfiguration())), serverConfiguration.getServicesURI() + "gql/*");
                 servletContextHandler.addEventListener(new CBServerContextListener(application));
                 //新增
                 EnumSet<DispatcherType> dispatches = EnumSet.of(DispatcherType.REQUEST);
@@ -172,7 +181,11 @@ public class CBJettyServer {
                     servletContextHandler
                 );
 
-                server.setHandler(servletContextHandler);
+                if (httpConfig.isCompressionEnabled()) {
+                    server.setHandler(createGzipHandler(httpConfig, servletContextHandler));
+                } else {
+                    server.setHandler(servletContextHandler);
+                }
 
                 ErrorPageErrorHandler errorHandler = new ErrorPageErrorHandler();
                 //errorHandler.addErrorPage(404, "/missing.html");
@@ -204,6 +217,9 @@ public class CBJettyServer {
                         }
                     }
                 }
+                if (httpConfig.isHttp2Enabled()) {
+                    enableHttp2(server);
+                }
             }
             refreshJettyConfig();
             server.start();
@@ -213,6 +229,83 @@ public class CBJettyServer {
         }
     }
 
+    @NotNull
+    private static QueuedThreadPool createThreadPool(@NotNull WebHttpConfig httpConfig) {
+        int maxThreads = Math.max(httpConfig.getMaxThreads(), 1);
+        int minThreads = Math.min(Math.max(httpConfig.getMinThreads(), 1), maxThreads);
+        QueuedThreadPool threadPool;
+        if (httpConfig.getMaxQueuedRequests() > 0) {
+            // Requests above the queue limit are rejected instead of waiting for a thread
+            int queueCapacity = httpConfig.getMaxQueuedRequests();
+            int initialCapacity = Math.min(queueCapacity, 1024);
+            threadPool = new QueuedThreadPool(
+                maxThreads,
+                minThreads,
+                httpConfig.getThreadIdleTimeout(),
+                new BlockingArrayQueue<>(initialCapacity, initialCapacity, queueCapacity)
+            );
+        } else {
+            threadPool = new QueuedThreadPool(maxThreads, minThreads, httpConfig.getThreadIdleTimeout());
+        }
+        threadPool.setName("cb-http");
+        if (httpConfig.isVirtualThreads()) {
+            if (VirtualThreads.areSupported()) {
+                threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+            } else {
+                log.warn("Virtual threads are not supported by the JVM " + System.getProperty("java.version") +
+                    ", platform threads will be used");
+            }
+        }
+        return threadPool;
+    }
+
+    @NotNull
+    private static GzipHandler createGzipHandler(@NotNull WebHttpConfig httpConfig, @NotNull Handler handler) {
+        GzipHandler gzipHandler = new GzipHandler();
+        gzipHandler.setMinGzipSize(httpConfig.getCompressionMinSize());
+        // GraphQL requests are POSTs
+        gzipHandler.setIncludedMethods("GET", "POST");
+        String[] mimeTypes = httpConfig.getCompressionMimeTypes();
+        gzipHandler.setIncludedMimeTypes(
+            CommonUtils.isEmpty(mimeTypes) ? WebHttpConfig.DEFAULT_COMPRESSION_MIME_TYPES : mimeTypes
+        );
+        gzipHandler.setHandler(handler);
+        return gzipHandler;
+    }
+
+    /**
+     * Adds cleartext HTTP/2 to plain HTTP connectors.
+     * HTTP/2 over TLS needs ALPN, so it is configured in the SSL configuration file together with the TLS connector.
+     */
+    private static void enableHttp2(@NotNull Server server) {
+        for (Connector connector : server.getConnectors()) {
+            if (!(connector instanceof ServerConnector serverConnector)
+                || serverConnector.getConnectionFactory(SslConnectionFactory.class) != null
+            ) {
+                continue;
+            }
+            HttpConnectionFactory httpConnectionFactory = serverConnector.getConnectionFactory(HttpConnectionFactory.class);
+            if (httpConnectionFactory == null) {
+                continue;
+            }
+            try {
+                // Jetty HTTP/2 server package is an optional import, it is wired only if some bundle exports it
+                ConnectionFactory http2Factory = (ConnectionFactory) Class.forName(HTTP2C_CONNECTION_FACTORY)
+                    .getConstructor(HttpConfiguration.class)
+                    .newInstance(httpConnectionFactory.getHttpConfiguration());
+                serverConnector.addConnectionFactory(http2Factory);
+                log.info("HTTP/2 (h2c) enabled on port " + serverConnector.getPort());
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                log.error("HTTP/2 is enabled in configuration, but package org.eclipse.jetty.http2.server " +
+                    "is not available. Server uses HTTP/1.1 only");
+                return;
+            } catch (ReflectiveOperationException e) {
+                log.error("Error enabling HTTP/2", e);
+                return;
+            }
+        }
+    }
+
     @Nullable
     private Path getSslConfigurationPath() {
         var sslConfigurationPath = application.getServerConfiguration().getSslConfigurationPath();
@@ -228,7 +321,7 @@ public class CBJettyServer {
             return;
         }
         log.info("Refreshing Jetty configuration");
-        if (server.getHandler() instanceof ServletContextHandler servletContextHandler
+        if (servletContextHandler != null
             && servletContextHandler.getSessionHandler() instanceof CBSessionHandler cbSessionHandler
         ) {
             cbSessionHandler.setMaxCookieAge((int) (application.getMaxSessionIdleTime() / 1000));
@@ -0,0 +1,330 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.server.jetty;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * GraphQL request which knows its operation name.
+ * <p>
+ * Operation name is taken from the request parameter or found by scanning the beginning of the JSON body.
+ * Only the scanned part of the body is buffered, then the body is served to the endpoint from the start.
+ */
+class GraphQLOperationRequest extends HttpServletRequestWrapper {
+
+    static final String PARAM_OPERATION_NAME = "operationName";
+
+    private static final int MAX_SCAN_BYTES = 64 * 1024;
+    private static final byte[] OPERATION_NAME_KEY = PARAM_OPERATION_NAME.getBytes(StandardCharsets.US_ASCII);
+
+    @Nullable
+    private final String operationName;
+    @Nullable
+    private final BufferedInputStream bodyStream;
+    @Nullable
+    private ServletInputStream servletInputStream;
+    @Nullable
+    private BufferedReader reader;
+
+    GraphQLOperationRequest(@NotNull HttpServletRequest request) throws IOException {
+        super(request);
+        String paramName = request.getQueryString() == null ? null : request.getParameter(PARAM_OPERATION_NAME);
+        if (!CommonUtils.isEmpty(paramName) || !"POST".equals(request.getMethod())) {
+            this.operationName = paramName;
+            this.bodyStream = null;
+        } else {
+            this.bodyStream = new BufferedInputStream(request.getInputStream(), 8192);
+            bodyStream.mark(MAX_SCAN_BYTES);
+            String scannedName;
+            try {
+                scannedName = new OperationNameScanner(bodyStream, MAX_SCAN_BYTES).scan();
+            } finally {
+                bodyStream.reset();
+            }
+            this.operationName = scannedName;
+        }
+    }
+
+    /**
+     * Returns operation name of the request, or null if it is not specified or not found in the scanned part
+     * of the body. Batched requests (JSON arrays) have no single operation name.
+     */
+    @Nullable
+    String getOperationName() {
+        return operationName;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (bodyStream == null) {
+            return super.getInputStream();
+        }
+        if (reader != null) {
+            throw new IllegalStateException("getReader() has already been called");
+        }
+        if (servletInputStream == null) {
+            servletInputStream = new BufferedServletInputStream(bodyStream);
+        }
+        return servletInputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (bodyStream == null) {
+            return super.getReader();
+        }
+        if (servletInputStream != null) {
+            throw new IllegalStateException("getInputStream() has already been called");
+        }
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            reader = new BufferedReader(new InputStreamReader(bodyStream, charset));
+        }
+        return reader;
+    }
+
+    /**
+     * Finds the string value of the top level "operationName" key.
+     * Doesn't build any JSON tree, nested values and strings are skipped byte by byte.
+     */
+    static class OperationNameScanner {
+        @NotNull
+        private final InputStream in;
+        private final int maxBytes;
+        private int bytesRead;
+        private int pushedBack = -1;
+
+        OperationNameScanner(@NotNull InputStream in, int maxBytes) {
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        @Nullable
+        String scan() throws IOException {
+            if (nextToken() != '{') {
+                return null;
+            }
+            while (true) {
+                int c = nextToken();
+                if (c != '"') {
+                    return null;
+                }
+                boolean operationNameKey = matchKey();
+                if (nextToken() != ':') {
+                    return null;
+                }
+                c = nextToken();
+                if (operationNameKey) {
+                    return c == '"' ? readString() : null;
+                }
+                if (!skipValue(c)) {
+                    return null;
+                }
+                c = nextToken();
+                if (c != ',') {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Reads the key string (opening quote is consumed already) and checks if it is the operation name key.
+         */
+        private boolean matchKey() throws IOException {
+            int pos = 0;
+            boolean matches = true;
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    return false;
+                }
+                if (c == '"') {
+                    return matches && pos == OPERATION_NAME_KEY.length;
+                }
+                if (c == '\\') {
+                    // Escaped key is never the one we need
+                    read();
+                    matches = false;
+                    continue;
+                }
+                if (pos >= OPERATION_NAME_KEY.length || OPERATION_NAME_KEY[pos] != c) {
+                    matches = false;
+                }
+                pos++;
+            }
+        }
+
+        @Nullable
+        private String readString() throws IOException {
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\' || c >= 0x80) {
+                    // GraphQL operation names are ASCII identifiers
+                    return null;
+                }
+                value.append((char) c);
+            }
+        }
+
+        private boolean skipValue(int c) throws IOException {
+            if (c == '"') {
+                return skipString();
+            }
+            if (c == '{' || c == '[') {
+                int depth = 1;
+                while (depth > 0) {
+                    c = read();
+                    if (c == -1) {
+                        return false;
+                    } else if (c == '"') {
+                        if (!skipString()) {
+                            return false;
+                        }
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                    }
+                }
+                return true;
+            }
+            // number, true, false or null
+            while (true) {
+                c = read();
+                if (c == -1) {
+                    return false;
+                }
+                if (c == ',' || c == '}' || isWhitespace(c)) {
+                    pushedBack = c;
+                    return true;
+                }
+            }
+        }
+
+        private boolean skipString() throws IOException {
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    return false;
+                }
+                if (c == '\\') {
+                    if (read() == -1) {
+                        return false;
+                    }
+                } else if (c == '"') {
+                    return true;
+                }
+            }
+        }
+
+        private int nextToken() throws IOException {
+            while (true) {
+                int c = read();
+                if (c == -1 || !isWhitespace(c)) {
+                    return c;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -1) {
+                int c = pushedBack;
+                pushedBack = -1;
+                return c;
+            }
+            if (bytesRead >= maxBytes) {
+                return -1;
+            }
+            bytesRead++;
+            return in.read();
+        }
+
+        private static boolean isWhitespace(int c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+        }
+    }
+
+    private static class BufferedServletInputStream extends ServletInputStream {
+        @NotNull
+        private final InputStream in;
+        private boolean finished;
+
+        BufferedServletInputStream(@NotNull InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Async read is not supported");
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                finished = true;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = in.read(b, off, len);
+            if (count == -1) {
+                finished = true;
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+    }
+}
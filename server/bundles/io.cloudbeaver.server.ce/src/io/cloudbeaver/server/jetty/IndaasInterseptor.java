@@ -2,27 +2,22 @@ package io.cloudbeaver.server.jetty;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import io.cloudbeaver.DBWebException;
-import io.cloudbeaver.model.session.BaseWebSession;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.model.session.WebSessionAuthProcessor;
 import io.cloudbeaver.server.CBApplication;
 import io.cloudbeaver.server.WebAppUtils;
 import io.cloudbeaver.service.security.indaas.LoginPorcess;
 import jakarta.servlet.*;
-import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.auth.SMAuthInfo;
 import org.jkiss.dbeaver.model.security.SMController;
-import org.jkiss.utils.IOUtils;
 
 import java.io.IOException;
 import java.net.URLDecoder;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,11 +33,7 @@ public class IndaasInterseptor implements Filter {
         Filter.super.init(filterConfig);
     }
 
-    public static void main(String[] args) {
-
-    }
-
-    private boolean checkIfSkip(String operName) {
+    private boolean checkIfSkip(@Nullable String operName) {
         return "authLogout".equalsIgnoreCase(operName);
     }
     @Override
@@ -51,22 +42,9 @@ public class IndaasInterseptor implements Filter {
         // 强制转换为 HttpServletResponse 类型
         HttpServletRequest httpServletRequest = (HttpServletRequest) request;
         HttpServletResponse httpServletresponse = (HttpServletResponse) response;
-        // 创建可缓存的请求包装对象
-        boolean isSkip = false;
-        CachedBodyHttpServletRequest wrappedRequest = new CachedBodyHttpServletRequest(httpServletRequest);
-        try {
-            // 从包装后的请求中读取缓存体（无需再次调用getReader）
-            String postBody = wrappedRequest.getBody(); // 假设CachedBodyHttpServletRequest提供getBody方法
-            JsonElement json = gson.fromJson(postBody, JsonElement.class);
-            if (json instanceof JsonObject) {
-                String operNameJSON = ((JsonObject) json).get("operationName").getAsString();
-                // 检查需要跳过的操作名
-//                log.info("operNameJSON===="+operNameJSON);
-                isSkip = checkIfSkip(operNameJSON);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // 只缓冲请求体的开头部分用于查找operationName，请求体原样交给GraphQLEndpoint解析
+        GraphQLOperationRequest wrappedRequest = new GraphQLOperationRequest(httpServletRequest);
+        boolean isSkip = checkIfSkip(wrappedRequest.getOperationName());
         // 跳过对指定请求的验证
         if (isSkip){
             chain.doFilter(wrappedRequest, response);
@@ -76,27 +54,9 @@ public class IndaasInterseptor implements Filter {
             String mdcPid = null;
             String cookieHeader = httpServletRequest.getHeader("Cookie");
             if (cookieHeader != null) {
-                cookieHeader = cookieHeader.trim();
-                String[] cookies = cookieHeader.split(";");
-                String tmpdriUser = Arrays.stream(cookies)
-                        .filter(name -> name.contains("DRI-USER"))
-                        .findFirst().orElse("");
-                if (tmpdriUser != null){
-                    String[] split = tmpdriUser.split("=");
-                    if (split.length == 2){
-                        driUserCookie = split[1];
-                    }
-                }
+                driUserCookie = getCookieValue(cookieHeader, "DRI-USER");
                 // 获取mdc独立登录时的pid
-                String tmpmdcPid = Arrays.stream(cookies)
-                        .filter(name -> name.contains("pID"))
-                        .findFirst().orElse("");
-                if (tmpmdcPid != null){
-                    String[] split = tmpmdcPid.split("=");
-                    if (split.length == 2){
-                        mdcPid = split[1];
-                    }
-                }
+                mdcPid = getCookieValue(cookieHeader, "pID");
             }
             String pid = null;
             //mdc单独登录时，获取不到pid,所以pid为null时，需要再验证mdc单独设置的逻辑
@@ -169,6 +129,31 @@ public class IndaasInterseptor implements Filter {
 
     }
 
+    /**
+     * Returns value of the first cookie which name contains the specified string.
+     */
+    @Nullable
+    private static String getCookieValue(@NotNull String cookieHeader, @NotNull String name) {
+        int start = 0;
+        int length = cookieHeader.length();
+        while (start < length) {
+            int end = cookieHeader.indexOf(';', start);
+            if (end == -1) {
+                end = length;
+            }
+            int divPos = cookieHeader.indexOf('=', start);
+            if (divPos != -1 && divPos < end) {
+                String cookieName = cookieHeader.substring(start, divPos);
+                if (cookieName.contains(name)) {
+                    String value = cookieHeader.substring(divPos + 1, end).trim();
+                    return value.isEmpty() ? null : value;
+                }
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
     @Override
     public void destroy() {
         Filter.super.destroy();
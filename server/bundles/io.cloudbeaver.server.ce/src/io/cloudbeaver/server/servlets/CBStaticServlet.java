@@ -36,6 +36,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.ee10.servlet.DefaultServlet;
 import org.eclipse.jetty.http.HttpHeader;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.auth.SMAuthInfo;
@@ -43,15 +44,17 @@ import org.jkiss.dbeaver.model.auth.SMAuthProvider;
 import org.jkiss.dbeaver.model.security.SMAuthProviderCustomConfiguration;
 import org.jkiss.dbeaver.utils.MimeTypes;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.IOUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @WebServlet(urlPatterns = "/")
 public class CBStaticServlet extends DefaultServlet {
@@ -63,6 +66,7 @@ public class CBStaticServlet extends DefaultServlet {
 
     @NotNull
     private final Path contentRoot;
+    private final Map<String, PatchedPage> patchedPages = new ConcurrentHashMap<>();
 
     public CBStaticServlet(@NotNull Path contentRoot) {
         this.contentRoot = contentRoot;
@@ -79,6 +83,12 @@ public class CBStaticServlet extends DefaultServlet {
                 log.warn("Servlet handler '" + handler.getId() + "' failed", e);
             }
         }
+        String pagePath = getPatchedPagePath(request);
+        if (pagePath == null) {
+            // Static assets do not depend on the session
+            super.doGet(request, response);
+            return;
+        }
         String uri = request.getPathInfo();
         try {
             WebSession webSession = CBApplication.getInstance().getSessionManager().getWebSession(
@@ -97,7 +107,7 @@ public class CBStaticServlet extends DefaultServlet {
         } catch (DBWebException e) {
             log.error("Error reading websession", e);
         }
-        patchStaticContentIfNeeded(request, response);
+        patchStaticContent(request, response, pagePath);
     }
 
     private void performAutoLoginIfNeeded(HttpServletRequest request, WebSession webSession) {
@@ -194,7 +204,11 @@ public class CBStaticServlet extends DefaultServlet {
     public static void main(String[] args) {
 
     }
-    private void patchStaticContentIfNeeded(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+    /**
+     * Returns path of the page which content must be patched or null for other static content.
+     */
+    @Nullable
+    private static String getPatchedPagePath(@NotNull HttpServletRequest request) {
         String pathInContext = request.getServletPath();
 
         if ("/".equals(pathInContext)) {
@@ -208,12 +222,21 @@ public class CBStaticServlet extends DefaultServlet {
             && !pathInContext.endsWith("sso.html")
             && !pathInContext.endsWith("ssoError.html")
         ) {
-            super.doGet(request, response);
-            return;
+            return null;
         }
+        if (pathInContext.startsWith("/")) {
+            pathInContext = pathInContext.substring(1);
+        }
+        return pathInContext;
+    }
 
+    private void patchStaticContent(
+        @NotNull HttpServletRequest request,
+        @NotNull HttpServletResponse response,
+        @NotNull String pagePath
+    ) throws IOException {
         // 如果是 visualmodel.html 页面，则跳转到登录页
-        if (pathInContext.endsWith("visualmodel.html")){
+        if (pagePath.endsWith("visualmodel.html")){
             try{
                 WebSession webSession = CBApplication.getInstance().getSessionManager().getWebSession(
                         request, response, false);
@@ -230,26 +253,95 @@ public class CBStaticServlet extends DefaultServlet {
 
         }
 
-        if (pathInContext.startsWith("/")) {
-            pathInContext = pathInContext.substring(1);
-        }
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        var filePath = contentRoot.resolve(pathInContext);
-        try (InputStream fis = Files.newInputStream(filePath)) {
-            IOUtils.copyStream(fis, baos);
+        PatchedPage page = getPatchedPage(pagePath);
+
+        // Do not cache pages without revalidation, they depend on the server configuration
+        response.setHeader(HttpHeader.CACHE_CONTROL.toString(), "no-cache");
+        response.setHeader(HttpHeader.EXPIRES.toString(), "0");
+        response.setHeader(HttpHeader.ETAG.toString(), page.etag());
+        response.setDateHeader(HttpHeader.LAST_MODIFIED.toString(), page.lastModified());
+        if (isNotModified(request, page)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
         }
-        String indexContents = baos.toString(StandardCharsets.UTF_8);
+        response.setHeader(HttpHeader.CONTENT_TYPE.toString(), MimeTypes.TEXT_HTML);
+        response.setContentLength(page.content().length);
+        response.getOutputStream().write(page.content());
+    }
+
+    /**
+     * Returns the patched page content. Page is patched again only when the file or the server configuration changes.
+     */
+    @NotNull
+    private PatchedPage getPatchedPage(@NotNull String pagePath) throws IOException {
+        Path filePath = contentRoot.resolve(pagePath);
+        FileTime fileModified = Files.getLastModifiedTime(filePath);
         CBServerConfig serverConfig = CBApplication.getInstance().getServerConfiguration();
-        indexContents = indexContents
-            .replace("{ROOT_URI}", serverConfig.getRootURI())
-            .replace("{STATIC_CONTENT}", serverConfig.getStaticContent());
-        byte[] indexBytes = indexContents.getBytes(StandardCharsets.UTF_8);
+        String rootURI = serverConfig.getRootURI();
+        String staticContent = serverConfig.getStaticContent();
 
-        // Disable cache for index.html
-        response.setHeader(HttpHeader.CACHE_CONTROL.toString(), "no-cache, no-store, must-revalidate");
-        response.setHeader(HttpHeader.CONTENT_TYPE.toString(), MimeTypes.TEXT_HTML);
-        response.setHeader(HttpHeader.EXPIRES.toString(), "0");
-        response.getOutputStream().write(indexBytes);
+        PatchedPage page = patchedPages.get(pagePath);
+        if (page != null && page.isValid(fileModified, rootURI, staticContent)) {
+            return page;
+        }
+        String contents = Files.readString(filePath, StandardCharsets.UTF_8)
+            .replace("{ROOT_URI}", rootURI)
+            .replace("{STATIC_CONTENT}", staticContent);
+        byte[] contentBytes = contents.getBytes(StandardCharsets.UTF_8);
+        // Page depends on the configuration too, so the patch time is used instead of the file time
+        long lastModified = System.currentTimeMillis() / 1000 * 1000;
+        page = new PatchedPage(fileModified, rootURI, staticContent, contentBytes, getETag(contentBytes), lastModified);
+        patchedPages.put(pagePath, page);
+        return page;
+    }
+
+    private static boolean isNotModified(@NotNull HttpServletRequest request, @NotNull PatchedPage page) {
+        String ifNoneMatch = request.getHeader(HttpHeader.IF_NONE_MATCH.toString());
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since
+            for (String etag : ifNoneMatch.split(",")) {
+                etag = etag.trim();
+                if (etag.startsWith("W/")) {
+                    etag = etag.substring(2);
+                }
+                if (etag.equals("*") || etag.equals(page.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeader.IF_MODIFIED_SINCE.toString());
+            return ifModifiedSince != -1 && page.lastModified() <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            // Malformed date
+            return false;
+        }
+    }
+
+    @NotNull
+    private static String getETag(@NotNull byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return "\"" + HexFormat.of().formatHex(digest.digest(content), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not supported", e);
+        }
+    }
+
+    private record PatchedPage(
+        @NotNull FileTime fileModified,
+        @NotNull String rootURI,
+        @NotNull String staticContent,
+        @NotNull byte[] content,
+        @NotNull String etag,
+        long lastModified
+    ) {
+        boolean isValid(@NotNull FileTime fileModified, @NotNull String rootURI, @NotNull String staticContent) {
+            return this.fileModified.equals(fileModified)
+                && this.rootURI.equals(rootURI)
+                && this.staticContent.equals(staticContent);
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -39,6 +39,9 @@ import org.jkiss.dbeaver.model.websocket.event.session.WSSessionStateEvent;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -49,7 +52,9 @@ public class CBSessionManager implements WebAppSessionManager {
     private static final Log log = Log.getLog(CBSessionManager.class);
 
     private final CBApplication application;
-    private final Map<String, BaseWebSession> sessionMap = new HashMap<>();
+    private final Map<String, BaseWebSession> sessionMap = new ConcurrentHashMap<>();
+    // Sessions which are being created or restored right now
+    private final Map<String, CompletableFuture<BaseWebSession>> pendingSessions = new ConcurrentHashMap<>();
 
     public CBSessionManager(CBApplication application) {
         this.application = application;
@@ -62,10 +67,7 @@ public class CBSessionManager implements WebAppSessionManager {
     public BaseWebSession closeSession(@NotNull HttpServletRequest request) {
         HttpSession session = request.getSession();
         if (session != null) {
-            BaseWebSession webSession;
-            synchronized (sessionMap) {
-                webSession = sessionMap.remove(session.getId());
-            }
+            BaseWebSession webSession = sessionMap.remove(session.getId());
             if (webSession != null) {
                 log.debug("> Close session '" + session.getId() + "'");
                 webSession.close();
@@ -109,21 +111,17 @@ public class CBSessionManager implements WebAppSessionManager {
     ) throws DBWebException {
         HttpSession httpSession = request.getSession(true);
         String sessionId = httpSession.getId();
-        WebSession webSession;
-        synchronized (sessionMap) {
-            var baseWebSession = sessionMap.get(sessionId);
-            if (baseWebSession == null && CBApplication.getInstance().isConfigurationMode()) {
+        BaseWebSession baseWebSession;
+        try {
+            baseWebSession = getOrCreateSession(sessionId, () -> {
+                WebSession webSession;
                 try {
                     webSession = createWebSessionImpl(new WebHttpRequestInfo(request));
                 } catch (DBException e) {
                     throw new DBWebException("Failed to create web session", e);
                 }
-                sessionMap.put(sessionId, webSession);
-            } else if (baseWebSession == null) {
-                try {
-                    webSession = createWebSessionImpl(new WebHttpRequestInfo(request));
-                } catch (DBException e) {
-                    throw new DBWebException("Failed to create web session", e);
+                if (CBApplication.getInstance().isConfigurationMode()) {
+                    return webSession;
                 }
 
                 boolean restored = false;
@@ -140,16 +138,17 @@ public class CBSessionManager implements WebAppSessionManager {
                 log.debug((restored ? "Restored " : "New ") + "web session '" + webSession.getSessionId() + "'");
 
                 webSession.setCacheExpired(!httpSession.isNew());
-
-                sessionMap.put(sessionId, webSession);
-            } else {
-                if (!(baseWebSession instanceof WebSession)) {
-                    throw new DBWebException("Unexpected session type: " + baseWebSession.getClass().getName());
-                }
-                webSession = (WebSession) baseWebSession;
-            }
+                return webSession;
+            });
+        } catch (DBWebException e) {
+            throw e;
+        } catch (DBException e) {
+            throw new DBWebException("Failed to create web session", e);
+        }
+        if (!(baseWebSession instanceof WebSession webSession)) {
+            throw new DBWebException("Unexpected session type: " +
+                (baseWebSession == null ? null : baseWebSession.getClass().getName()));
         }
-
         return webSession;
     }
 
@@ -165,33 +164,82 @@ public class CBSessionManager implements WebAppSessionManager {
             log.debug("Http session is null. No Web Session returned");
             return null;
         }
-        WebSession webSession;
-        synchronized (sessionMap) {
-            if (sessionMap.containsKey(sessionId)) {
-                var cachedWebSession = sessionMap.get(sessionId);
-                if (!(cachedWebSession instanceof WebSession)) {
-                    log.warn("Unexpected session type: " + cachedWebSession.getClass().getName());
+        BaseWebSession session;
+        try {
+            session = getOrCreateSession(sessionId, () -> {
+                var oldAuthInfo = getApplication().getSecurityController().restoreUserSession(sessionId);
+                if (oldAuthInfo == null) {
+                    log.debug("Couldn't restore previous user session '" + sessionId + "'");
                     return null;
                 }
-                return (WebSession) cachedWebSession;
-            } else {
-                try {
-                    var oldAuthInfo = getApplication().getSecurityController().restoreUserSession(sessionId);
-                    if (oldAuthInfo == null) {
-                        log.debug("Couldn't restore previous user session '" + sessionId + "'");
-                        return null;
-                    }
 
-                    webSession = createWebSessionImpl(requestInfo);
-                    restorePreviousUserSession(webSession, oldAuthInfo);
+                WebSession webSession = createWebSessionImpl(requestInfo);
+                restorePreviousUserSession(webSession, oldAuthInfo);
+                log.debug("Web session restored");
+                return webSession;
+            });
+        } catch (DBException e) {
+            log.error("Failed to restore previous user session", e);
+            return null;
+        }
+        if (session != null && !(session instanceof WebSession)) {
+            log.warn("Unexpected session type: " + session.getClass().getName());
+            return null;
+        }
+        return (WebSession) session;
+    }
 
-                    sessionMap.put(sessionId, webSession);
-                    log.debug("Web session restored");
-                    return webSession;
-                } catch (DBException e) {
-                    log.error("Failed to restore previous user session", e);
-                    return null;
+    /**
+     * Returns cached session or creates a new one with the specified factory.
+     * Factory is called at most once per session id at a time: concurrent requests of the same session
+     * wait for the creation result while requests of other sessions are not blocked.
+     *
+     * @return session or null if factory didn't create it
+     */
+    @Nullable
+    private BaseWebSession getOrCreateSession(
+        @NotNull String sessionId,
+        @NotNull SessionFactory sessionFactory
+    ) throws DBException {
+        while (true) {
+            BaseWebSession session = sessionMap.get(sessionId);
+            if (session != null) {
+                return session;
+            }
+            CompletableFuture<BaseWebSession> creation = new CompletableFuture<>();
+            CompletableFuture<BaseWebSession> pending = pendingSessions.putIfAbsent(sessionId, creation);
+            if (pending != null) {
+                try {
+                    session = pending.get();
+                    if (session != null) {
+                        return session;
+                    }
+                    // Session wasn't created by other caller. Try to create it with our factory.
+                } catch (ExecutionException e) {
+                    // Creation failed in other thread, its caller gets the error. Try to create session again.
+                    log.debug("Concurrent creation of web session '" + sessionId + "' failed, retrying");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DBException("Interrupted while waiting for web session '" + sessionId + "'", e);
                 }
+                continue;
+            }
+            try {
+                // Session could be added right before we registered pending creation
+                session = sessionMap.get(sessionId);
+                if (session == null) {
+                    session = sessionFactory.createSession();
+                    if (session != null) {
+                        sessionMap.put(sessionId, session);
+                    }
+                }
+                creation.complete(session);
+                return session;
+            } catch (Throwable e) {
+                creation.completeExceptionally(e);
+                throw e;
+            } finally {
+                pendingSessions.remove(sessionId, creation);
             }
         }
     }
@@ -230,22 +278,18 @@ public class CBSessionManager implements WebAppSessionManager {
     @Override
     @Nullable
     public BaseWebSession getSession(@NotNull String sessionId) {
-        synchronized (sessionMap) {
-            return sessionMap.get(sessionId);
-        }
+        return sessionMap.get(sessionId);
     }
 
     @Override
     @Nullable
     public WebSession findWebSession(HttpServletRequest request) {
         String sessionId = request.getSession().getId();
-        synchronized (sessionMap) {
-            var session = sessionMap.get(sessionId);
-            if (session instanceof WebSession) {
-                return (WebSession) session;
-            }
-            return null;
+        var session = sessionMap.get(sessionId);
+        if (session instanceof WebSession) {
+            return (WebSession) session;
         }
+        return null;
     }
 
     @Override
@@ -264,14 +308,11 @@ public class CBSessionManager implements WebAppSessionManager {
         long maxSessionIdleTime = application.getMaxSessionIdleTime();
 
         List<BaseWebSession> expiredList = new ArrayList<>();
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                long idleMillis = System.currentTimeMillis() - session.getLastAccessTimeMillis();
-                if (idleMillis >= maxSessionIdleTime) {
-                    iterator.remove();
-                    expiredList.add(session);
-                }
+        for (Map.Entry<String, BaseWebSession> entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            long idleMillis = System.currentTimeMillis() - session.getLastAccessTimeMillis();
+            if (idleMillis >= maxSessionIdleTime && sessionMap.remove(entry.getKey(), session)) {
+                expiredList.add(session);
             }
         }
 
@@ -283,9 +324,7 @@ public class CBSessionManager implements WebAppSessionManager {
 
     @Override
     public Collection<BaseWebSession> getAllActiveSessions() {
-        synchronized (sessionMap) {
-            return new ArrayList<>(sessionMap.values());
-        }
+        return new ArrayList<>(sessionMap.values());
     }
 
     @Nullable
@@ -297,99 +336,92 @@ public class CBSessionManager implements WebAppSessionManager {
         if (CommonUtils.isEmpty(smAccessToken)) {
             return null;
         }
-        synchronized (sessionMap) {
-            var tempCredProvider = new SMTokenCredentialProvider(smAccessToken);
-            SMAuthPermissions authPermissions = application.createSecurityController(tempCredProvider).getTokenPermissions();
-            var sessionId = requestInfo.getId() != null ? requestInfo.getId()
-                : authPermissions.getSessionId();
-
-            var existSession = sessionMap.get(sessionId);
-
-            if (existSession instanceof WebHeadlessSession) {
-                var creds = existSession.getUserContext().getActiveUserCredentials();
-                if (creds == null || !smAccessToken.equals(creds.getSmAccessToken())) {
-                    existSession.getUserContext().refresh(
-                        smAccessToken,
-                        null,
-                        authPermissions
-                    );
-                }
-                return (WebHeadlessSession) existSession;
-            }
-            if (existSession != null) {
-                //session exist but it not headless session
-                return null;
-            }
-            if (!create) {
-                return null;
+        // Token permissions are read from the security database, do not block other sessions while reading them
+        var tempCredProvider = new SMTokenCredentialProvider(smAccessToken);
+        SMAuthPermissions authPermissions = application.createSecurityController(tempCredProvider).getTokenPermissions();
+        var sessionId = requestInfo.getId() != null ? requestInfo.getId()
+            : authPermissions.getSessionId();
+
+        BaseWebSession existSession;
+        if (create) {
+            existSession = getOrCreateSession(sessionId, () -> {
+                var headlessSession = new WebHeadlessSession(
+                    sessionId,
+                    application
+                );
+                headlessSession.getUserContext().refresh(
+                    smAccessToken,
+                    null,
+                    authPermissions
+                );
+                return headlessSession;
+            });
+        } else {
+            existSession = sessionMap.get(sessionId);
+        }
+
+        if (existSession instanceof WebHeadlessSession headlessSession) {
+            var creds = headlessSession.getUserContext().getActiveUserCredentials();
+            if (creds == null || !smAccessToken.equals(creds.getSmAccessToken())) {
+                headlessSession.getUserContext().refresh(
+                    smAccessToken,
+                    null,
+                    authPermissions
+                );
             }
-            var headlessSession = new WebHeadlessSession(
-                sessionId,
-                application
-            );
-            headlessSession.getUserContext().refresh(
-                smAccessToken,
-                null,
-                authPermissions
-            );
-            sessionMap.put(sessionId, headlessSession);
             return headlessSession;
         }
+        //session doesn't exist or it is not headless session
+        return null;
     }
 
     /**
      * Send session state with remaining alive time to all cached session
      */
     public void sendSessionsStates() {
-        synchronized (sessionMap) {
-            sessionMap.values()
-                .parallelStream()
-                .filter(session -> {
-                    if (session instanceof WebSession webSession) {
-                        return webSession.isAuthorizedInSecurityManager();
-                    }
-                    return false;
-                })
-                .forEach(session -> {
-                    try {
-                        session.addSessionEvent(new WSSessionStateEvent(
-                            session.getLastAccessTimeMillis(),
-                            session.getRemainingTime(),
-                            session.isValid(),
-                            ((WebSession) session).isCacheExpired(),
-                            ((WebSession) session).getLocale(),
-                            ((WebSession) session).getActionParameters()));
-                    } catch (Exception e) {
-                        log.error("Failed to refresh session state: " + session.getSessionId(), e);
-                    }
-                });
-        }
+        sessionMap.values()
+            .parallelStream()
+            .filter(session -> {
+                if (session instanceof WebSession webSession) {
+                    return webSession.isAuthorizedInSecurityManager();
+                }
+                return false;
+            })
+            .forEach(session -> {
+                try {
+                    session.addSessionEvent(new WSSessionStateEvent(
+                        session.getLastAccessTimeMillis(),
+                        session.getRemainingTime(),
+                        session.isValid(),
+                        ((WebSession) session).isCacheExpired(),
+                        ((WebSession) session).getLocale(),
+                        ((WebSession) session).getActionParameters()));
+                } catch (Exception e) {
+                    log.error("Failed to refresh session state: " + session.getSessionId(), e);
+                }
+            });
     }
 
     public void closeUserSession(@NotNull WSUserDeletedEvent userDeletedEvent) {
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                if (CommonUtils.equalObjects(session.getUserContext().getUserId(),
-                    userDeletedEvent.getDeletedUserId())) {
-                    if (session instanceof WebHeadlessSession headlessSession) {
-                        headlessSession.addSessionEvent(userDeletedEvent);
-                    }
-                    iterator.remove();
-                    session.close();
+        // User of the session may change on login/logout, so sessions are matched by their current user
+        for (Map.Entry<String, BaseWebSession> entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            if (CommonUtils.equalObjects(session.getUserContext().getUserId(),
+                userDeletedEvent.getDeletedUserId()) && sessionMap.remove(entry.getKey(), session)) {
+                if (session instanceof WebHeadlessSession headlessSession) {
+                    headlessSession.addSessionEvent(userDeletedEvent);
                 }
+                session.close();
             }
         }
     }
 
     public void closeSessions(@NotNull List<String> smSessionsId) {
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                if (smSessionsId.contains(session.getUserContext().getSmSessionId())) {
-                    iterator.remove();
-                    session.close(false, true);
-                }
+        for (Map.Entry<String, BaseWebSession> entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            if (smSessionsId.contains(session.getUserContext().getSmSessionId())
+                && sessionMap.remove(entry.getKey(), session)) {
+                session.close(false, true);
             }
         }
     }
@@ -398,12 +430,17 @@ public class CBSessionManager implements WebAppSessionManager {
      * Closes all sessions in session manager.
      */
     public void closeAllSessions(@Nullable String initiatorSessionId) {
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                iterator.remove();
+        for (Map.Entry<String, BaseWebSession> entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            if (sessionMap.remove(entry.getKey(), session)) {
                 session.close(false, !WSWebUtils.isSessionIdEquals(session, initiatorSessionId));
             }
         }
     }
+
+    @FunctionalInterface
+    private interface SessionFactory {
+        @Nullable
+        BaseWebSession createSession() throws DBException;
+    }
 }
@@ -65,7 +65,6 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.InputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Various constants
@@ -361,13 +360,11 @@ public class WebServiceUtils extends WebCommonUtils {
     }
 
     /**
-     * Returns set of applicable ids of drivers.
+     * Returns set of applicable ids of drivers. The set is cached until the driver configuration is changed.
      */
     @NotNull
     public static Set<String> getApplicableDriversIds() {
-        return WebAppUtils.getWebPlatform().getApplicableDrivers().stream()
-            .map(DBPDriver::getId)
-            .collect(Collectors.toSet());
+        return WebAppUtils.getWebPlatform().getApplicableDriverIds();
     }
 
     /**
@@ -42,6 +42,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 public abstract class BaseWebPlatform extends BasePlatformImpl {
     private static final Log log = Log.getLog(BaseWebPlatform.class);
@@ -167,4 +168,10 @@ public abstract class BaseWebPlatform extends BasePlatformImpl {
     }
 
     public abstract List<DBPDriver> getApplicableDrivers();
+
+    /**
+     * Returns ids of applicable drivers. The set is cached and replaced when the driver list is refreshed.
+     */
+    @NotNull
+    public abstract Set<String> getApplicableDriverIds();
 }
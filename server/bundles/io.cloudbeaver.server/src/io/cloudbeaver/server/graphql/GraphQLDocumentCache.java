@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.server.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of parsed and validated GraphQL documents.
+ * Documents are keyed by SHA-256 hash of the query text, so the same hash may be used as a persisted query id.
+ */
+public class GraphQLDocumentCache implements PreparsedDocumentProvider {
+
+    private final int maxSize;
+    private final Map<String, CachedDocument> documents;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public GraphQLDocumentCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.documents = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDocument> eldest) {
+                if (size() > GraphQLDocumentCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        @NotNull ExecutionInput executionInput,
+        @NotNull Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        String query = executionInput.getQuery();
+        String queryHash = getQueryHash(query);
+        CachedDocument cached;
+        synchronized (documents) {
+            cached = documents.get(queryHash);
+        }
+        if (cached != null && cached.query().equals(query)) {
+            hitCount.incrementAndGet();
+            return CompletableFuture.completedFuture(cached.entry());
+        }
+        missCount.incrementAndGet();
+        PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors()) {
+            // Do not keep invalid queries, they are not sent by the web UI
+            synchronized (documents) {
+                documents.put(queryHash, new CachedDocument(query, entry));
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    /**
+     * Returns text of the previously executed query with the specified hash or null if it is not in cache.
+     */
+    @Nullable
+    public String findQuery(@NotNull String queryHash) {
+        CachedDocument cached;
+        synchronized (documents) {
+            cached = documents.get(queryHash);
+        }
+        return cached == null ? null : cached.query();
+    }
+
+    @NotNull
+    public Statistics getStatistics() {
+        int size;
+        synchronized (documents) {
+            size = documents.size();
+        }
+        return new Statistics(size, maxSize, hitCount.get(), missCount.get(), evictionCount.get());
+    }
+
+    public void clear() {
+        synchronized (documents) {
+            documents.clear();
+        }
+    }
+
+    /**
+     * Returns lower-case hex SHA-256 hash of the query text (the same as Apollo persisted queries hash).
+     */
+    @NotNull
+    public static String getQueryHash(@NotNull String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not supported", e);
+        }
+    }
+
+    private record CachedDocument(@NotNull String query, @NotNull PreparsedDocumentEntry entry) {
+    }
+
+    public record Statistics(int size, int maxSize, long hitCount, long missCount, long evictionCount) {
+        @Override
+        public String toString() {
+            return "size=" + size + "/" + maxSize + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package io.cloudbeaver.server.graphql;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 import graphql.*;
 import graphql.execution.*;
 import graphql.execution.instrumentation.SimplePerformantInstrumentation;
@@ -29,6 +30,7 @@ import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.WebServiceUtils;
+import io.cloudbeaver.model.config.WebGraphQLConfig;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.registry.WebServiceRegistry;
 import io.cloudbeaver.server.HttpConstants;
@@ -41,6 +43,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.utils.CommonUtils;
@@ -66,24 +70,57 @@ public class GraphQLEndpoint extends HttpServlet {
     private static final String HEADER_ACCESS_CONTROL_ALLOW_CREDENTIALS = "Access-Control-Allow-Credentials";
 
     private static final String CORE_SCHEMA_FILE_NAME = "schema/schema.graphqls";
+
+    private static final String EXTENSION_PERSISTED_QUERY = "persistedQuery";
+    private static final String EXTENSION_PERSISTED_QUERY_HASH = "sha256Hash";
+    private static final String ERROR_PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+    private static final String ERROR_CODE_PERSISTED_QUERY_NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND";
+
     private final GraphQL graphQL;
+    @Nullable
+    private final GraphQLDocumentCache documentCache;
+    private final boolean persistedQueries;
 
     private static final Gson gson = new GsonBuilder()
         .serializeNulls()
-        .setPrettyPrinting()
         .create();
     private GraphQLBindingContext bindingContext;
 
     public GraphQLEndpoint() {
+        this(new WebGraphQLConfig());
+    }
+
+    public GraphQLEndpoint(@NotNull WebGraphQLConfig config) {
         GraphQLSchema schema = buildSchema();
 
         PropertyDataFetcherHelper.setUseLambdaFactory(false);
-        graphQL = GraphQL
+        GraphQL.Builder graphQLBuilder = GraphQL
             .newGraphQL(schema)
             .instrumentation(new SimplePerformantInstrumentation())
             .queryExecutionStrategy(new WebExecutionStrategy())
-            .mutationExecutionStrategy(new WebExecutionStrategy())
-            .build();
+            .mutationExecutionStrategy(new WebExecutionStrategy());
+        if (config.getDocumentCacheSize() > 0) {
+            documentCache = new GraphQLDocumentCache(config.getDocumentCacheSize());
+            graphQLBuilder.preparsedDocumentProvider(documentCache);
+        } else {
+            documentCache = null;
+        }
+        persistedQueries = documentCache != null && config.isPersistedQueries();
+        graphQL = graphQLBuilder.build();
+    }
+
+    @Override
+    public void destroy() {
+        if (documentCache != null) {
+            log.debug("GraphQL document cache statistics: " + documentCache.getStatistics());
+            documentCache.clear();
+        }
+        super.destroy();
+    }
+
+    @Nullable
+    public GraphQLDocumentCache getDocumentCache() {
+        return documentCache;
     }
 
     private GraphQLSchema buildSchema() {
@@ -168,8 +205,14 @@ public class GraphQLEndpoint extends HttpServlet {
         if (!b){
             return;
         }
-        String postBody = IOUtils.readToString(request.getReader());
-        JsonElement json = gson.fromJson(postBody, JsonElement.class);
+        // Parse the body right from the request reader, without copying it into a string
+        JsonElement json;
+        try {
+            json = gson.fromJson(request.getReader(), JsonElement.class);
+        } catch (JsonParseException e) {
+            response.sendError(400, "Bad JSON request");
+            return;
+        }
         if (json instanceof JsonArray array) {
             setDevelHeaders(request, response);
             response.setContentType(GraphQLConstants.CONTENT_TYPE_JSON_UTF8);
@@ -196,7 +239,27 @@ public class GraphQLEndpoint extends HttpServlet {
     }
 
     private void executeSingleQuery(HttpServletRequest request, HttpServletResponse response, JsonObject reqObject) throws IOException {
-        JsonElement query = reqObject.get("query");
+        JsonElement queryJSON = reqObject.get("query");
+        String query = queryJSON == null || queryJSON instanceof JsonNull ? null : queryJSON.getAsString();
+        String queryHash = persistedQueries ? getPersistedQueryHash(reqObject) : null;
+        if (queryHash != null) {
+            if (query == null) {
+                query = documentCache.findQuery(queryHash);
+                if (query == null) {
+                    // Client must resend the request with the full query text
+                    writeResult(request, response, ExecutionResultImpl.newExecutionResult()
+                        .addError(GraphqlErrorBuilder.newError()
+                            .message(ERROR_PERSISTED_QUERY_NOT_FOUND)
+                            .extensions(Map.of("code", ERROR_CODE_PERSISTED_QUERY_NOT_FOUND))
+                            .build())
+                        .build());
+                    return;
+                }
+            } else if (!queryHash.equalsIgnoreCase(GraphQLDocumentCache.getQueryHash(query))) {
+                response.sendError(400, "Persisted query hash doesn't match query text");
+                return;
+            }
+        }
         if (query == null) {
             response.sendError(400, "Query not specified");
             return;
@@ -206,7 +269,18 @@ public class GraphQLEndpoint extends HttpServlet {
 
         JsonElement operNameJSON = reqObject.get("operationName");
 
-        executeQuery(request, response, query.getAsString(), variables, operNameJSON == null || operNameJSON instanceof JsonNull ? null : operNameJSON.getAsString());
+        executeQuery(request, response, query, variables, operNameJSON == null || operNameJSON instanceof JsonNull ? null : operNameJSON.getAsString());
+    }
+
+    @Nullable
+    private static String getPersistedQueryHash(@NotNull JsonObject reqObject) {
+        if (reqObject.get("extensions") instanceof JsonObject extensions
+            && extensions.get(EXTENSION_PERSISTED_QUERY) instanceof JsonObject persistedQuery
+            && persistedQuery.get(EXTENSION_PERSISTED_QUERY_HASH) instanceof JsonPrimitive hash
+        ) {
+            return hash.getAsString();
+        }
+        return null;
     }
 
     @Override
@@ -266,12 +340,24 @@ public class GraphQLEndpoint extends HttpServlet {
         }
         ExecutionInput executionInput = contextBuilder.build();
         ExecutionResult executionResult = graphQL.execute(executionInput);
+        writeResult(request, response, executionResult);
+    }
 
+    private void writeResult(HttpServletRequest request, HttpServletResponse response, ExecutionResult executionResult) throws IOException {
         Map<String, Object> resJSON = executionResult.toSpecification();
-        String resString = gson.toJson(resJSON);
         setDevelHeaders(request, response);
         response.setContentType(GraphQLConstants.CONTENT_TYPE_JSON_UTF8);
-        response.getWriter().print(resString);
+        // Serialize result tree directly into the response writer.
+        // Do not close json writer: batch requests write several results into the same response.
+        JsonWriter jsonWriter = new JsonWriter(response.getWriter());
+        if (ServletAppUtils.getServletApplication().getServerConfiguration().isDevelMode()) {
+            jsonWriter.setIndent("  ");
+        }
+        try {
+            gson.toJson(resJSON, resJSON.getClass(), jsonWriter);
+        } catch (JsonIOException e) {
+            throw e.getCause() instanceof IOException ioException ? ioException : new IOException(e);
+        }
     }
 
     private static class WebExecutionStrategy extends AsyncExecutionStrategy {
@@ -0,0 +1,179 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.server.servlets;
+
+import io.cloudbeaver.DBWebException;
+import io.cloudbeaver.WebServiceUtils;
+import io.cloudbeaver.WebSessionProjectImpl;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.utils.WebConnectionFolderUtils;
+import io.cloudbeaver.utils.WebEventUtils;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceFolder;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.navigator.DBNLocalFolder;
+import org.jkiss.dbeaver.model.rm.RMController;
+import org.jkiss.dbeaver.model.rm.RMResource;
+import org.jkiss.dbeaver.model.websocket.WSConstants;
+import org.jkiss.dbeaver.model.websocket.event.resource.WSResourceProperty;
+
+import java.util.*;
+
+/**
+ * Synchronizes business domain tree with connection folders and resource folders of the project.
+ * <p>
+ * Existing folders are read once and only missing folders are created.
+ * Data source configuration is saved once for all created connection folders.
+ */
+class WebBusinessDomainSynchronizer {
+
+    private static final Log log = Log.getLog(WebBusinessDomainSynchronizer.class);
+
+    @NotNull
+    private final WebSession session;
+    @NotNull
+    private final String projectId;
+
+    WebBusinessDomainSynchronizer(@NotNull WebSession session, @NotNull String projectId) {
+        this.session = session;
+        this.projectId = projectId;
+    }
+
+    /**
+     * Creates missing connection folders.
+     *
+     * @param folderParents parent folder path by folder name, parents must go before their children
+     * @return number of created folders
+     */
+    int syncConnectionFolders(@NotNull Map<String, String> folderParents) throws DBException {
+        WebSessionProjectImpl project = getProject();
+        DBPDataSourceRegistry registry = project.getDataSourceRegistry();
+        List<String> createdPaths = new ArrayList<>();
+        for (Map.Entry<String, String> entry : folderParents.entrySet()) {
+            String folderName = entry.getKey();
+            String parentPath = entry.getValue();
+            if (parentPath == null || parentPath.equals(folderName)) {
+                parentPath = null;
+            }
+            try {
+                WebConnectionFolderUtils.validateConnectionFolder(folderName);
+            } catch (DBWebException e) {
+                log.warn(e.getMessage());
+                continue;
+            }
+            DBPDataSourceFolder parentFolder = null;
+            if (parentPath != null) {
+                parentFolder = registry.getFolder(parentPath);
+                if (parentFolder == null) {
+                    log.warn("Parent folder '" + parentPath + "' of '" + folderName + "' not found");
+                    continue;
+                }
+            }
+            if (registry.getFolder(parentPath == null ? folderName : parentPath + "/" + folderName) != null) {
+                continue;
+            }
+            DBPDataSourceFolder newFolder = registry.addFolder(parentFolder, folderName);
+            createdPaths.add(DBNLocalFolder.makeLocalFolderItemPath(newFolder));
+        }
+        if (createdPaths.isEmpty()) {
+            return 0;
+        }
+        session.addInfoMessage("Create new folders");
+        WebServiceUtils.updateConfigAndRefreshDatabases(session, projectId);
+        WebEventUtils.addNavigatorNodesUpdatedEvent(project, session, createdPaths, WSConstants.EventAction.CREATE);
+        return createdPaths.size();
+    }
+
+    /**
+     * Creates missing resource folders.
+     *
+     * @param folderPaths paths of folders relative to the project root
+     * @return number of created folders
+     */
+    int syncResourceFolders(@NotNull Collection<String> folderPaths) throws DBException {
+        RMController rmController = session.getRmController();
+        Set<String> existingPaths = new HashSet<>();
+        collectResourcePaths(rmController.listResources(projectId, null, null, false, false, true), null, existingPaths);
+
+        Set<String> missingPaths = new LinkedHashSet<>();
+        for (String folderPath : folderPaths) {
+            if (!existingPaths.contains(folderPath)) {
+                missingPaths.add(folderPath);
+            }
+        }
+        // Parent folders are created together with their children
+        Set<String> missingParents = new HashSet<>();
+        for (String folderPath : missingPaths) {
+            for (String parentPath = getParentPath(folderPath); parentPath != null; parentPath = getParentPath(parentPath)) {
+                missingParents.add(parentPath);
+            }
+        }
+        int createdCount = 0;
+        for (String folderPath : missingPaths) {
+            if (missingParents.contains(folderPath)) {
+                continue;
+            }
+            try {
+                rmController.createResource(projectId, folderPath, true);
+                createdCount++;
+            } catch (DBException e) {
+                log.warn("Error creating resource folder '" + folderPath + "': " + e.getMessage());
+            }
+        }
+        for (String folderPath : missingPaths) {
+            // The topmost created folders are enough for the client to refresh the tree
+            if (!missingPaths.contains(getParentPath(folderPath))) {
+                WebEventUtils.addRmResourceUpdatedEvent(
+                    projectId,
+                    session,
+                    folderPath,
+                    WSConstants.EventAction.CREATE,
+                    WSResourceProperty.NAME);
+            }
+        }
+        return createdCount;
+    }
+
+    @NotNull
+    private WebSessionProjectImpl getProject() throws DBWebException {
+        WebSessionProjectImpl project = session.getProjectById(projectId);
+        if (project == null) {
+            throw new DBWebException("Project '" + projectId + "' not found");
+        }
+        return project;
+    }
+
+    private static void collectResourcePaths(@Nullable RMResource[] resources, @Nullable String parentPath, @NotNull Set<String> paths) {
+        if (resources == null) {
+            return;
+        }
+        for (RMResource resource : resources) {
+            String path = parentPath == null ? resource.getName() : parentPath + "/" + resource.getName();
+            paths.add(path);
+            collectResourcePaths(resource.getChildren(), path, paths);
+        }
+    }
+
+    @Nullable
+    private static String getParentPath(@NotNull String path) {
+        int divPos = path.lastIndexOf('/');
+        return divPos == -1 ? null : path.substring(0, divPos);
+    }
+}
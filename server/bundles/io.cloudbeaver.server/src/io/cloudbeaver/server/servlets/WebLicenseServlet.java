@@ -19,35 +19,21 @@ package io.cloudbeaver.server.servlets;
 import com.google.gson.Gson;
 import com.google.gson.stream.JsonWriter;
 import io.cloudbeaver.DBWebException;
-import io.cloudbeaver.WebProjectImpl;
-import io.cloudbeaver.WebServiceUtils;
-import io.cloudbeaver.WebSessionProjectImpl;
-import io.cloudbeaver.model.WebConnectionFolderInfo;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.CBConstants;
 import io.cloudbeaver.server.WebAppUtils;
 import io.cloudbeaver.service.security.LicenseService;
 import io.cloudbeaver.service.security.indaas.DatabaseDto;
 import io.cloudbeaver.service.security.indaas.DriDatasourceService;
-import io.cloudbeaver.utils.WebConnectionFolderUtils;
-import io.cloudbeaver.utils.WebEventUtils;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.ee10.servlet.DefaultServlet;
-import org.jkiss.code.NotNull;
-import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.DBPDataSourceFolder;
-import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
-import org.jkiss.dbeaver.model.navigator.DBNLocalFolder;
-import org.jkiss.dbeaver.model.rm.RMController;
-import org.jkiss.dbeaver.model.websocket.WSConstants;
-import org.jkiss.dbeaver.model.websocket.event.resource.WSResourceProperty;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.io.IOException;
@@ -93,15 +79,16 @@ public class WebLicenseServlet extends DefaultServlet {
                 if(requestURI.endsWith("syncbusiness")){
                     WebSession webSession = WebAppUtils.getWebApplication().getSessionManager().getWebSession(request,response);
                     String userId = webSession.getUserId();
-                    RMController rmController = webSession.getRmController();
                     if (userId != null){
                         Map<String, String> stringStringMap = DriDatasourceService.flattenTree();
                         stringStringMap.remove("全部业务域");
                         stringStringMap = replaceValue(stringStringMap,"全部业务域/","");
-                        stringStringMap.forEach((key, value) ->{
-                                    createConnectionFolder(webSession,"g_GlobalConfiguration",value,key);
-//                                    System.out.println(key + ": " + value);
-                                });
+                        try {
+                            new WebBusinessDomainSynchronizer(webSession, "g_GlobalConfiguration")
+                                .syncConnectionFolders(stringStringMap);
+                        } catch (DBException e) {
+                            log.error("Error synchronizing business domain folders", e);
+                        }
 
                         HashMap<String, Object> map = new HashMap<>();
                         map.put("message", "业务域目录同步完成！");
@@ -133,25 +120,16 @@ public class WebLicenseServlet extends DefaultServlet {
                 } else if (requestURI.endsWith("syncresource")){
                     WebSession webSession = WebAppUtils.getWebApplication().getSessionManager().getWebSession(request,response);
                     String userId = webSession.getUserId();
-                    RMController rmController = webSession.getRmController();
                     if (userId != null){
                         Map<String, String> stringStringMap = DriDatasourceService.flattenTree();
                         stringStringMap.remove("全部业务域");
                         stringStringMap = resourceReplaceValue(stringStringMap,"全部业务域/","");
-                        stringStringMap.forEach((key, value) ->{
-                            try {
-                                rmController.createResource("g_GlobalConfiguration",value,true);
-                                WebEventUtils.addRmResourceUpdatedEvent(
-                                        "g_GlobalConfiguration",
-                                        webSession,
-                                        value,
-                                        WSConstants.EventAction.CREATE,
-                                        WSResourceProperty.NAME);
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                            }
-//                                    System.out.println(key + ": " + value);
-                        });
+                        try {
+                            new WebBusinessDomainSynchronizer(webSession, "g_GlobalConfiguration")
+                                .syncResourceFolders(stringStringMap.values());
+                        } catch (DBException e) {
+                            log.error("Error synchronizing business domain resources", e);
+                        }
 
                         HashMap<String, Object> map = new HashMap<>();
                         map.put("message", "业务域目录同步完成！");
@@ -179,49 +157,6 @@ public class WebLicenseServlet extends DefaultServlet {
 
     }
 
-    public void createConnectionFolder(
-            @NotNull WebSession session,
-            @Nullable String projectId,
-            @Nullable String parentPath,
-            @NotNull String folderName
-    ) {
-
-        try {
-            WebConnectionFolderUtils.validateConnectionFolder(folderName);
-            session.addInfoMessage("Create new folder");
-            WebConnectionFolderInfo parentNode = null;
-            if (parentPath.equals(folderName)){
-                parentPath = null;
-            }
-            if (parentPath != null) {
-                parentNode = WebConnectionFolderUtils.getFolderInfo(session, projectId, parentPath);
-            }
-            WebProjectImpl project = getProjectById(session, projectId);
-            DBPDataSourceRegistry sessionRegistry = project.getDataSourceRegistry();
-            DBPDataSourceFolder newFolder = WebConnectionFolderUtils.createFolder(parentNode,
-                    folderName,
-                    sessionRegistry);
-            WebConnectionFolderInfo folderInfo = new WebConnectionFolderInfo(session, newFolder);
-            WebServiceUtils.updateConfigAndRefreshDatabases(session, projectId);
-            WebEventUtils.addNavigatorNodeUpdatedEvent(
-                    session.getProjectById(projectId),
-                    session,
-                    DBNLocalFolder.makeLocalFolderItemPath(newFolder),
-                    WSConstants.EventAction.CREATE
-            );
-        } catch (Exception e) {
-            log.error(e.getMessage());
-        }
-    }
-
-    private WebSessionProjectImpl getProjectById(WebSession webSession, String projectId) throws DBWebException {
-        WebSessionProjectImpl project = webSession.getProjectById(projectId);
-        if (project == null) {
-            throw new DBWebException("Project '" + projectId + "' not found");
-        }
-        return project;
-    }
-
     /**
      * 替换 Map 中所有 value 的指定字符串
      *
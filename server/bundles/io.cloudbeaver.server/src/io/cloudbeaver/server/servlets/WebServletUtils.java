@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.server.servlets;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Helpers for servlets which send files: byte ranges and content coding negotiation.
+ */
+public class WebServletUtils {
+
+    private static final String BYTES_RANGE_PREFIX = "bytes=";
+    private static final String QUALITY_PARAM = "q=";
+    private static final String ANY_CODING = "*";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes part of the file to the output stream through the fixed size buffer
+     */
+    public static void writeFileRange(
+        @NotNull Path file,
+        @NotNull OutputStream out,
+        long start,
+        long length
+    ) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+            channel.position(start);
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            long remaining = length;
+            while (remaining > 0) {
+                byteBuffer.clear();
+                if (remaining < buffer.length) {
+                    byteBuffer.limit((int) remaining);
+                }
+                int count = channel.read(byteBuffer);
+                if (count < 0) {
+                    throw new EOFException("Unexpected end of file " + file);
+                }
+                out.write(buffer, 0, count);
+                remaining -= count;
+            }
+        }
+    }
+
+    /**
+     * Parses single byte range of the Range header (RFC 9110).
+     *
+     * @return null if the whole file must be returned (no header, unsupported or multiple ranges)
+     */
+    @Nullable
+    public static ByteRange parseRange(@Nullable String rangeHeader, long fileSize) {
+        if (rangeHeader == null || !rangeHeader.startsWith(BYTES_RANGE_PREFIX) || rangeHeader.indexOf(',') != -1) {
+            return null;
+        }
+        String rangeSpec = rangeHeader.substring(BYTES_RANGE_PREFIX.length()).trim();
+        int dashPos = rangeSpec.indexOf('-');
+        if (dashPos < 0) {
+            return null;
+        }
+        try {
+            String startSpec = rangeSpec.substring(0, dashPos).trim();
+            String endSpec = rangeSpec.substring(dashPos + 1).trim();
+            if (startSpec.isEmpty()) {
+                // Suffix range: last N bytes
+                long suffixLength = Long.parseLong(endSpec);
+                if (suffixLength <= 0 || fileSize == 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                long length = Math.min(suffixLength, fileSize);
+                return new ByteRange(fileSize - length, length);
+            }
+            long start = Long.parseLong(startSpec);
+            long end = endSpec.isEmpty() ? fileSize - 1 : Math.min(Long.parseLong(endSpec), fileSize - 1);
+            if (start < 0 || start >= fileSize) {
+                return ByteRange.UNSATISFIABLE;
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, end - start + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the content coding is acceptable by the Accept-Encoding header (RFC 9110).
+     * Codings with zero quality are not acceptable, the coding itself takes precedence over the wildcard.
+     */
+    public static boolean isEncodingAccepted(@Nullable String acceptEncoding, @NotNull String coding) {
+        if (CommonUtils.isEmpty(acceptEncoding)) {
+            return false;
+        }
+        Boolean anyCodingAccepted = null;
+        for (String codingSpec : acceptEncoding.split(",")) {
+            String[] params = codingSpec.split(";");
+            String codingName = params[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = getQuality(params) > 0;
+            if (codingName.equals(coding.toLowerCase(Locale.ROOT))) {
+                return accepted;
+            } else if (codingName.equals(ANY_CODING)) {
+                anyCodingAccepted = accepted;
+            }
+        }
+        return anyCodingAccepted != null && anyCodingAccepted;
+    }
+
+    private static double getQuality(@NotNull String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim().toLowerCase(Locale.ROOT);
+            if (param.startsWith(QUALITY_PARAM)) {
+                try {
+                    return Double.parseDouble(param.substring(QUALITY_PARAM.length()).trim());
+                } catch (NumberFormatException e) {
+                    // Malformed weight, don't use this coding
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public record ByteRange(long start, long length) {
+        static final ByteRange UNSATISFIABLE = new ByteRange(0, 0);
+
+        public boolean isSatisfiable() {
+            return length > 0;
+        }
+    }
+}
@@ -17,60 +17,234 @@
 package io.cloudbeaver.server.websockets;
 
 import com.google.gson.Gson;
+import jakarta.websocket.CloseReason;
 import jakarta.websocket.Endpoint;
 import jakarta.websocket.EndpointConfig;
 import jakarta.websocket.Session;
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.websocket.WSUtils;
 import org.jkiss.dbeaver.model.websocket.event.WSEvent;
+import org.jkiss.dbeaver.model.websocket.event.datasource.WSDataSourceEvent;
 
+import java.util.*;
+
+/**
+ * Base web socket endpoint.
+ * <p>
+ * Events are not sent by the publisher thread. They are put in the outbound queue of the socket
+ * and sent asynchronously one after another, so a slow client never blocks the publisher.
+ * Client which can't read events as fast as they are published is disconnected.
+ */
 public abstract class CBAbstractWebSocket extends Endpoint {
     private static final Log log = Log.getLog(CBAbstractWebSocket.class);
     protected static final Gson gson = WSUtils.clientGson;
 
+    private static final int MAX_PENDING_MESSAGES = 1000;
+
+    // The same event is usually sent to all user sessions, so it is serialized once
+    private static final Map<WSEvent, String> serializedEvents = Collections.synchronizedMap(new WeakHashMap<>());
+
     @Nullable
-    private Session webSocketSession;
+    private volatile Session webSocketSession;
+
+    private final Object queueLock = new Object();
+    private final Deque<OutboundMessage> pendingMessages = new ArrayDeque<>();
+    private final Map<String, OutboundMessage> pendingMessagesByKey = new HashMap<>();
+    private boolean sending;
+    private boolean closeRequested;
 
     @Override
     public void onOpen(Session session, EndpointConfig config) {
         this.webSocketSession = session;
     }
 
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        synchronized (queueLock) {
+            closeRequested = true;
+            clearQueue();
+        }
+    }
+
     public void handleEvent(WSEvent event) {
         if (!isOpen()) {
             return;
         }
+        String message;
         try {
-            webSocketSession.getBasicRemote().sendText(
-                gson.toJson(event)
-            );
+            message = serializeEvent(event);
         } catch (Exception e) {
             handleEventException(e);
+            return;
+        }
+        String coalesceKey = getCoalesceKey(event);
+        OutboundMessage nextMessage;
+        synchronized (queueLock) {
+            if (closeRequested) {
+                return;
+            }
+            if (coalesceKey != null) {
+                OutboundMessage pendingMessage = pendingMessagesByKey.get(coalesceKey);
+                if (pendingMessage != null) {
+                    // The same event is still waiting in the queue, send the latest one instead
+                    pendingMessage.text = message;
+                    return;
+                }
+            }
+            if (pendingMessages.size() >= MAX_PENDING_MESSAGES) {
+                closeRequested = true;
+                clearQueue();
+                nextMessage = null;
+            } else {
+                OutboundMessage outboundMessage = new OutboundMessage(coalesceKey, message);
+                pendingMessages.add(outboundMessage);
+                if (coalesceKey != null) {
+                    pendingMessagesByKey.put(coalesceKey, outboundMessage);
+                }
+                if (sending) {
+                    return;
+                }
+                sending = true;
+                nextMessage = pollMessage();
+            }
         }
+        if (nextMessage == null) {
+            log.warn("Websocket client doesn't read events, " + MAX_PENDING_MESSAGES + " events are pending. Disconnecting.");
+            closeSession(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many pending events"));
+            return;
+        }
+        sendMessage(nextMessage);
+    }
+
+    /**
+     * Returns the key of events which replace each other while they wait in the queue,
+     * or null if each event must be delivered.
+     */
+    @Nullable
+    protected String getCoalesceKey(@NotNull WSEvent event) {
+        if (event instanceof WSDataSourceEvent dataSourceEvent && WSDataSourceEvent.UPDATED.equals(dataSourceEvent.getId())) {
+            return dataSourceEvent.getId() + ":" + dataSourceEvent.getProjectId() + ":" + dataSourceEvent.getDataSourceIds();
+        }
+        return null;
     }
 
     protected boolean isOpen() {
-        return webSocketSession != null && webSocketSession.isOpen();
+        Session session = webSocketSession;
+        return session != null && session.isOpen();
     }
 
     protected void handleEventException(Throwable e) {
         log.error("Failed to send websocket message", e);
     }
 
+    /**
+     * Closes the socket after all pending events are sent.
+     */
     public void close() {
+        synchronized (queueLock) {
+            closeRequested = true;
+            if (sending) {
+                return;
+            }
+        }
+        closeSession(null);
+    }
+
+    @Nullable
+    public Session getSession() {
+        return webSocketSession;
+    }
+
+    @NotNull
+    private static String serializeEvent(@NotNull WSEvent event) {
+        String message = serializedEvents.get(event);
+        if (message == null) {
+            message = gson.toJson(event);
+            serializedEvents.put(event, message);
+        }
+        return message;
+    }
+
+    private void sendMessage(@NotNull OutboundMessage message) {
+        Session session = webSocketSession;
+        if (session == null || !session.isOpen()) {
+            onMessageSent(null);
+            return;
+        }
+        try {
+            session.getAsyncRemote().sendText(
+                message.text,
+                result -> onMessageSent(result.isOK() ? null : result.getException())
+            );
+        } catch (Exception e) {
+            onMessageSent(e);
+        }
+    }
+
+    private void onMessageSent(@Nullable Throwable error) {
+        if (error != null) {
+            handleEventException(error);
+        }
+        OutboundMessage nextMessage;
+        boolean closeSocket = false;
+        synchronized (queueLock) {
+            if (!isOpen()) {
+                clearQueue();
+            }
+            nextMessage = pollMessage();
+            if (nextMessage == null) {
+                sending = false;
+                closeSocket = closeRequested;
+            }
+        }
+        if (nextMessage != null) {
+            sendMessage(nextMessage);
+        } else if (closeSocket) {
+            closeSession(null);
+        }
+    }
+
+    @Nullable
+    private OutboundMessage pollMessage() {
+        OutboundMessage message = pendingMessages.poll();
+        if (message != null && message.coalesceKey != null) {
+            // Message is being sent, the next event with the same key must be sent too
+            pendingMessagesByKey.remove(message.coalesceKey);
+        }
+        return message;
+    }
+
+    private void clearQueue() {
+        pendingMessages.clear();
+        pendingMessagesByKey.clear();
+    }
+
+    private void closeSession(@Nullable CloseReason closeReason) {
         if (isOpen()) {
             try {
-                getSession().close();
+                if (closeReason == null) {
+                    getSession().close();
+                } else {
+                    getSession().close(closeReason);
+                }
             } catch (Exception e) {
                 log.error("Failed to close websocket", e);
             }
         }
     }
 
-    @Nullable
-    public Session getSession() {
-        return webSocketSession;
+    private static class OutboundMessage {
+        @Nullable
+        private final String coalesceKey;
+        @NotNull
+        private String text;
+
+        OutboundMessage(@Nullable String coalesceKey, @NotNull String text) {
+            this.coalesceKey = coalesceKey;
+            this.text = text;
+        }
     }
 
 }
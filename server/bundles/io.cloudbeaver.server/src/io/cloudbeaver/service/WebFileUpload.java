@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service;
+
+import io.cloudbeaver.DBWebException;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.server.CBConstants;
+import io.cloudbeaver.server.WebAppUtils;
+import jakarta.servlet.MultipartConfigElement;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.eclipse.jetty.ee10.servlet.ServletContextRequest;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.sql.DBQuotaException;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Multipart file upload into the session temp folder.
+ * <p>
+ * Multipart parser writes file parts to the session temp folder while it reads the request,
+ * so the uploaded file is never kept in heap. Upload size quota is checked by the request content length
+ * before parsing, and by the parser while the file is read. Session temp folders are deleted when the session expires.
+ */
+public class WebFileUpload {
+
+    public static final String PART_FILE_DATA = "fileData";
+
+    // Parts smaller than this are kept in memory
+    private static final int FILE_SIZE_THRESHOLD = 64 * 1024;
+    // Multipart boundaries, headers and form fields sent with the file
+    private static final long MAX_FORM_OVERHEAD = 64 * 1024;
+
+    @NotNull
+    private final HttpServletRequest request;
+    @NotNull
+    private final Path sessionFolder;
+    @Nullable
+    private final Long sizeLimit;
+
+    private WebFileUpload(@NotNull HttpServletRequest request, @NotNull Path sessionFolder, @Nullable Long sizeLimit) {
+        this.request = request;
+        this.sessionFolder = sessionFolder;
+        this.sizeLimit = sizeLimit;
+    }
+
+    /**
+     * Prepares the request for the upload. Must be called before the request parameters are read.
+     *
+     * @param tempFolderName platform temp folder, the upload is stored in its session sub-folder
+     * @return upload or null if the request was rejected, the error is already sent to the client in this case
+     */
+    @Nullable
+    public static WebFileUpload startUpload(
+        @NotNull WebSession session,
+        @NotNull HttpServletRequest request,
+        @NotNull HttpServletResponse response,
+        @NotNull String tempFolderName
+    ) throws IOException {
+        Long sizeLimit = getUploadSizeLimit();
+        long requestSizeLimit = sizeLimit == null ? -1 : sizeLimit + MAX_FORM_OVERHEAD;
+        if (requestSizeLimit > 0 && request.getContentLengthLong() > requestSizeLimit) {
+            // Don't read the request at all
+            response.sendError(
+                HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Uploaded file size exceeds the limit of " + sizeLimit + " bytes"
+            );
+            return null;
+        }
+
+        Path sessionFolder = WebAppUtils.getWebPlatform()
+            .getTempFolder(session.getProgressMonitor(), tempFolderName)
+            .resolve(session.getSessionId());
+        Files.createDirectories(sessionFolder);
+
+        request.setAttribute(
+            ServletContextRequest.MULTIPART_CONFIG_ELEMENT,
+            new MultipartConfigElement(
+                sessionFolder.toString(),
+                sizeLimit == null ? -1 : sizeLimit,
+                requestSizeLimit,
+                FILE_SIZE_THRESHOLD
+            )
+        );
+        return new WebFileUpload(request, sessionFolder, sizeLimit);
+    }
+
+    @NotNull
+    public Path getSessionFolder() {
+        return sessionFolder;
+    }
+
+    /**
+     * Stores the uploaded file part in the session folder.
+     *
+     * @param fileName file name in the session folder
+     * @return stored file
+     */
+    @NotNull
+    public Path receiveFile(@NotNull String partName, @NotNull String fileName) throws DBException {
+        Path file = sessionFolder.resolve(fileName).normalize();
+        if (!file.startsWith(sessionFolder)) {
+            throw new DBWebException("Invalid file name '" + fileName + "'");
+        }
+        Part part;
+        try {
+            part = request.getPart(partName);
+        } catch (ServletException | IOException | IllegalStateException e) {
+            // Parser stops reading the request if the file is too large
+            throw new DBWebException("Error reading uploaded file: " + CommonUtils.getRootCause(e).getMessage(), e);
+        }
+        if (part == null) {
+            throw new DBWebException("Uploaded file '" + partName + "' not found in request");
+        }
+        try {
+            if (sizeLimit != null && part.getSize() > sizeLimit) {
+                throw new DBQuotaException(
+                    "Uploaded file size exceeds the limit", CBConstants.QUOTA_PROP_UPLOAD_FILE_SIZE_LIMIT, sizeLimit, part.getSize());
+            }
+            Files.deleteIfExists(file);
+            // Part which is already on disk is moved to the target file, not copied.
+            // Temporary parts which were not moved are removed by the container after the request.
+            part.write(file.toAbsolutePath().toString());
+        } catch (IOException e) {
+            throw new DBWebException("Error saving uploaded file", e);
+        }
+        return file;
+    }
+
+    @Nullable
+    private static Long getUploadSizeLimit() {
+        Number sizeLimit = WebAppUtils.getWebApplication().getAppConfiguration()
+            .getResourceQuota(CBConstants.QUOTA_PROP_UPLOAD_FILE_SIZE_LIMIT);
+        return sizeLimit == null || sizeLimit.longValue() <= 0 ? null : sizeLimit.longValue();
+    }
+}
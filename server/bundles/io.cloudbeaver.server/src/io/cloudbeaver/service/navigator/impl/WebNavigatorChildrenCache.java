@@ -0,0 +1,150 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.navigator.impl;
+
+import io.cloudbeaver.model.session.WebSession;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.DBNNode;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session cache of filtered navigator node children.
+ * <p>
+ * Keeps the list of children which passed navigator filters, so a page of children can be returned
+ * without filtering all of them again. Snapshot is valid while the parent node returns the same children array
+ * and the applicable driver set is the same. Node refresh, navigator events and driver configuration changes
+ * replace them, so snapshot is never used after them.
+ */
+class WebNavigatorChildrenCache implements INavigatorListener {
+
+    private static final String ATTR_CHILDREN_CACHE = "navigatorChildrenCache";
+    private static final int MAX_SNAPSHOTS = 100;
+
+    private final Map<SnapshotKey, ChildrenSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SnapshotKey, ChildrenSnapshot> eldest) {
+            return size() > MAX_SNAPSHOTS;
+        }
+    };
+    @Nullable
+    private DBNModel navigatorModel;
+
+    @NotNull
+    static WebNavigatorChildrenCache getInstance(@NotNull WebSession session) {
+        return session.getAttribute(
+            ATTR_CHILDREN_CACHE,
+            x -> new WebNavigatorChildrenCache(),
+            cache -> {
+                cache.dispose();
+                return null;
+            });
+    }
+
+    /**
+     * Returns filtered children of the node if they were not changed since the last call.
+     */
+    @Nullable
+    synchronized List<DBNNode> getChildren(
+        @NotNull DBNModel model,
+        @NotNull DBNNode parentNode,
+        boolean onlyFolders,
+        @Nullable DBNNode[] sourceChildren,
+        @NotNull Set<String> applicableDrivers
+    ) {
+        if (model != navigatorModel || sourceChildren == null) {
+            return null;
+        }
+        ChildrenSnapshot snapshot = snapshots.get(new SnapshotKey(parentNode, onlyFolders));
+        if (snapshot == null || snapshot.sourceChildren() != sourceChildren || snapshot.applicableDrivers() != applicableDrivers) {
+            return null;
+        }
+        return snapshot.children();
+    }
+
+    synchronized void putChildren(
+        @NotNull DBNModel model,
+        @NotNull DBNNode parentNode,
+        boolean onlyFolders,
+        @Nullable DBNNode[] sourceChildren,
+        @NotNull Set<String> applicableDrivers,
+        @NotNull List<DBNNode> children
+    ) {
+        if (sourceChildren == null) {
+            // Children array is not cached by the node, nothing to compare with
+            return;
+        }
+        if (model != navigatorModel) {
+            // Navigator model is recreated on user login/logout
+            dispose();
+            navigatorModel = model;
+            model.addListener(this);
+        }
+        snapshots.put(new SnapshotKey(parentNode, onlyFolders), new ChildrenSnapshot(sourceChildren, applicableDrivers, children));
+    }
+
+    synchronized void invalidate() {
+        snapshots.clear();
+    }
+
+    @Override
+    public synchronized void nodeChanged(DBNEvent event) {
+        DBNNode node = event.getNode();
+        if (node == null) {
+            snapshots.clear();
+            return;
+        }
+        // Changed node may be either the parent or one of the children
+        DBNNode parentNode = node.getParentNode();
+        snapshots.keySet().removeIf(key -> key.parentNode() == node || key.parentNode() == parentNode);
+    }
+
+    private synchronized void dispose() {
+        if (navigatorModel != null) {
+            navigatorModel.removeListener(this);
+            navigatorModel = null;
+        }
+        snapshots.clear();
+    }
+
+    private record SnapshotKey(@NotNull DBNNode parentNode, boolean onlyFolders) {
+        // Nodes are compared by identity
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SnapshotKey key && key.parentNode == parentNode && key.onlyFolders == onlyFolders;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(parentNode) * 31 + Boolean.hashCode(onlyFolders);
+        }
+    }
+
+    private record ChildrenSnapshot(
+        @NotNull DBNNode[] sourceChildren,
+        @NotNull Set<String> applicableDrivers,
+        @NotNull List<DBNNode> children
+    ) {
+    }
+}
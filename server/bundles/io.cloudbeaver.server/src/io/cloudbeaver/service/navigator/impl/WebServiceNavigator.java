@@ -102,16 +102,15 @@ public class WebServiceNavigator implements DBWServiceNavigator {
 //            }
             DBRProgressMonitor monitor = session.getProgressMonitor();
 
-            DBNNode[] nodeChildren;
             boolean isRootPath = CommonUtils.isEmpty(parentPath) || "/".equals(parentPath) || ROOT_DATABASES.equals(parentPath);
             DBNModel navigatorModel = session.getNavigatorModelOrThrow();
             // 获取所有驱动
             Set<String> applicableDrivers = WebServiceUtils.getApplicableDriversIds();
+            DBNNode parentNode;
             if (isRootPath) {
-                DBNRoot rootNode = navigatorModel.getRoot();
-                nodeChildren = DBNUtils.getNodeChildrenFiltered(monitor, rootNode, true);
+                parentNode = navigatorModel.getRoot();
             } else {
-                DBNNode parentNode = navigatorModel.getNodeByPath(monitor, parentPath);
+                parentNode = navigatorModel.getNodeByPath(monitor, parentPath);
                 if (parentNode == null) {
                     throw new DBWebException("Node '" + parentPath + "' not found");
                 }
@@ -121,52 +120,78 @@ public class WebServiceNavigator implements DBWServiceNavigator {
                 if (parentNode instanceof DBNProject projectNode) {
                     parentNode = projectNode.getDatabases();
                 }
-                nodeChildren = DBNUtils.getNodeChildrenFiltered(monitor, parentNode, false);
             }
-            if (nodeChildren == null) {
-                return EMPTY_NODE_LIST;
+            boolean folders = CommonUtils.toBoolean(onlyFolders);
+            WebNavigatorChildrenCache childrenCache = WebNavigatorChildrenCache.getInstance(session);
+            DBNNode[] sourceChildren = parentNode.getChildren(monitor);
+            List<DBNNode> children = childrenCache.getChildren(navigatorModel, parentNode, folders, sourceChildren, applicableDrivers);
+            if (children == null) {
+                children = filterNodeChildren(session, parentPath, parentNode, isRootPath, folders, applicableDrivers);
+                if (children == null) {
+                    return EMPTY_NODE_LIST;
+                }
+                childrenCache.putChildren(navigatorModel, parentNode, folders, sourceChildren, applicableDrivers, children);
+            }
+            // Wrap only nodes of the requested range
+            int fromIndex = 0;
+            int toIndex = children.size();
+            if (offset != null && limit != null) {
+                fromIndex = Math.min(Math.max(offset, 0), children.size());
+                toIndex = (int) Math.min((long) fromIndex + Math.max(limit, 0), children.size());
             }
-            List<WebNavigatorNodeInfo> result = new ArrayList<>();
-            Set<String> nodeIds = new HashSet<>(); // filter duplicate node ids
+            List<WebNavigatorNodeInfo> result = new ArrayList<>(toIndex - fromIndex);
+            for (DBNNode node : children.subList(fromIndex, toIndex)) {
+                result.add(new WebNavigatorNodeInfo(session, node));
+            }
+            return result;
+        } catch (DBException e) {
+            throw new DBWebException(e.getMessage(), e);
+        }
+    }
 
-            for (DBNNode node : nodeChildren) {
-                if (node instanceof DBNDatabaseFolder folderNode && CommonUtils.isEmpty(folderNode.getMeta().getChildren(null))) {
-                    // Skip empty folders. Folder may become empty if their nested elements are provided by UI plugins.
-                    continue;
-                }
-                if (!CommonUtils.toBoolean(onlyFolders) || node instanceof DBNContainer) {
-                    // Skip connections which are not supported in CB
-                    if (node instanceof DBNDataSource dataSourceNode) {
-                        DBPDataSourceContainer container = dataSourceNode.getDataSourceContainer();
-                        // compare by id because driver object can be recreated if it was custom or disabled
-                        if (!applicableDrivers.contains(container.getDriver().getId())) {
-                            continue;
-                        }
-                    }
-                    var nodeId = node.getNodeUri();
-                    if (nodeIds.contains(nodeId)) {
-                        session.addWarningMessage(
-                            MessageFormat.format("Duplicate child node ''{0}'' was found in parent node ''{1}''",
-                                nodeId,
-                                parentPath)
-                        );
+    @Nullable
+    private List<DBNNode> filterNodeChildren(
+        @NotNull WebSession session,
+        @Nullable String parentPath,
+        @NotNull DBNNode parentNode,
+        boolean isRootPath,
+        boolean onlyFolders,
+        @NotNull Set<String> applicableDrivers
+    ) throws DBException {
+        DBNNode[] nodeChildren = DBNUtils.getNodeChildrenFiltered(session.getProgressMonitor(), parentNode, isRootPath);
+        if (nodeChildren == null) {
+            return null;
+        }
+        List<DBNNode> result = new ArrayList<>(nodeChildren.length);
+        Set<String> nodeIds = new HashSet<>(); // filter duplicate node ids
+
+        for (DBNNode node : nodeChildren) {
+            if (node instanceof DBNDatabaseFolder folderNode && CommonUtils.isEmpty(folderNode.getMeta().getChildren(null))) {
+                // Skip empty folders. Folder may become empty if their nested elements are provided by UI plugins.
+                continue;
+            }
+            if (!onlyFolders || node instanceof DBNContainer) {
+                // Skip connections which are not supported in CB
+                if (node instanceof DBNDataSource dataSourceNode) {
+                    DBPDataSourceContainer container = dataSourceNode.getDataSourceContainer();
+                    // compare by id because driver object can be recreated if it was custom or disabled
+                    if (!applicableDrivers.contains(container.getDriver().getId())) {
                         continue;
                     }
-                    nodeIds.add(node.getNodeUri());
-                    result.add(new WebNavigatorNodeInfo(session, node));
                 }
+                var nodeId = node.getNodeUri();
+                if (!nodeIds.add(nodeId)) {
+                    session.addWarningMessage(
+                        MessageFormat.format("Duplicate child node ''{0}'' was found in parent node ''{1}''",
+                            nodeId,
+                            parentPath)
+                    );
+                    continue;
+                }
+                result.add(node);
             }
-            // Checks the range of the expected result
-            if (offset == null || limit == null || (offset == 0 && limit >= result.size())) {
-                return result;
-            } else if (offset + limit <= result.size()) {
-                return result.subList(offset, offset + limit);
-            } else  {
-                return result.subList(offset, result.size());
-            }
-        } catch (DBException e) {
-            throw new DBWebException(e.getMessage(), e);
         }
+        return result;
     }
 
     @Override
@@ -250,6 +275,7 @@ public class WebServiceNavigator implements DBWServiceNavigator {
                 filter.setExclude(exclude);
             }
             filter.setEnabled(true);
+            WebNavigatorChildrenCache.getInstance(webSession).invalidate();
             if (node instanceof DBNDatabaseNode dbNode) {
                 DBXTreeItem itemsMeta = DBNUtils.getValidItemsMeta(webSession.getProgressMonitor(), dbNode);
                 dbNode.setNodeFilter(itemsMeta, filter, true);
@@ -299,6 +325,7 @@ public class WebServiceNavigator implements DBWServiceNavigator {
             } else {
                 node.refreshNode(monitor, this);
             }
+            WebNavigatorChildrenCache.getInstance(session).invalidate();
             return new WebNavigatorNodeInfo(session, node);
         } catch (DBException e) {
             throw new DBWebException("Error refreshing navigator node '"  + nodePath + "'", e);
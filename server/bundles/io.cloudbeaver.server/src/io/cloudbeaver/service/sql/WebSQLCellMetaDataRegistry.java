@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.meta.MetaData;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of {@link MetaData} annotated accessors of cell value classes.
+ * Accessors are resolved once per value class and invoked through precompiled method handles.
+ */
+public class WebSQLCellMetaDataRegistry {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MetaDataAccessor[] NO_ACCESSORS = new MetaDataAccessor[0];
+
+    private static final ClassValue<MetaDataAccessor[]> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MetaDataAccessor[] computeValue(Class<?> type) {
+            return resolveAccessors(type);
+        }
+    };
+
+    private WebSQLCellMetaDataRegistry() {
+    }
+
+    /**
+     * Reads metadata of the specified cell value and puts it in the target map.
+     * Creates a new map if the value has metadata and the target map is null.
+     *
+     * @return target map (or a new map) or null if the value has no metadata
+     */
+    @Nullable
+    public static Map<String, Object> collectMetaData(
+        @Nullable Object cellValue,
+        @Nullable Map<String, Object> metaDataMap
+    ) throws Throwable {
+        if (cellValue == null) {
+            return metaDataMap;
+        }
+        MetaDataAccessor[] accessors = ACCESSORS.get(cellValue.getClass());
+        if (accessors.length == 0) {
+            return metaDataMap;
+        }
+        if (metaDataMap == null) {
+            metaDataMap = new HashMap<>();
+        }
+        for (MetaDataAccessor accessor : accessors) {
+            metaDataMap.put(accessor.name(), accessor.handle().invokeExact(cellValue));
+        }
+        return metaDataMap;
+    }
+
+    @NotNull
+    private static MetaDataAccessor[] resolveAccessors(@NotNull Class<?> type) {
+        List<MetaDataAccessor> accessors = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            MetaData metaData = method.getAnnotation(MetaData.class);
+            if (metaData == null) {
+                continue;
+            }
+            accessors.add(new MetaDataAccessor(metaData.name(), unreflect(method)));
+        }
+        return accessors.isEmpty() ? NO_ACCESSORS : accessors.toArray(NO_ACCESSORS);
+    }
+
+    @NotNull
+    private static MethodHandle unreflect(@NotNull Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // Public method declared in a non-public class
+            try {
+                method.trySetAccessible();
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Can't access metadata accessor " + method, ex);
+            }
+        }
+        return handle.asType(ACCESSOR_TYPE);
+    }
+
+    private record MetaDataAccessor(@NotNull String name, @NotNull MethodHandle handle) {
+    }
+}
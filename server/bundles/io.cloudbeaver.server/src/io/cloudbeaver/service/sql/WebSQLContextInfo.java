@@ -20,10 +20,12 @@ import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.WebAction;
 import io.cloudbeaver.WebProjectImpl;
 import io.cloudbeaver.model.WebAsyncTaskInfo;
+import io.cloudbeaver.model.app.ServletAppConfiguration;
 import io.cloudbeaver.model.session.WebAsyncTaskProcessor;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.model.session.WebSessionProvider;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -41,8 +43,6 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -52,10 +52,13 @@ public class WebSQLContextInfo implements WebSessionProvider {
 
     private static final Log log = Log.getLog(WebSQLContextInfo.class);
 
+    private static final int DEFAULT_MAX_RESULT_SETS = 100;
+    private static final long DEFAULT_MAX_RESULT_SETS_ATTRIBUTES = 20000;
+
     private final transient WebSQLProcessor processor;
     private final String id;
     private final String projectId;
-    private final Map<String, WebSQLResultsInfo> resultInfoMap = new HashMap<>();
+    private final WebSQLResultsRegistry resultsRegistry;
 
     private final AtomicInteger resultId = new AtomicInteger();
 
@@ -71,6 +74,7 @@ public class WebSQLContextInfo implements WebSessionProvider {
         }
 
         this.projectId = project.getId();
+        this.resultsRegistry = createResultsRegistry(processor.getWebSession().getApplication().getAppConfiguration());
 
         if (!CommonUtils.isEmpty(catalogName) || !CommonUtils.isEmpty(schemaName)) {
             try {
@@ -158,13 +162,18 @@ public class WebSQLContextInfo implements WebSessionProvider {
         );
         resultInfo.setAttributes(attributes);
         resultInfo.setTrace(trace);
-        resultInfoMap.put(resultInfo.getId(), resultInfo);
+        resultsRegistry.put(resultInfo);
         return resultInfo;
     }
 
+    /**
+     * Returns saved results info.
+     *
+     * @throws DBWebException if results are not found or were evicted from cache
+     */
     @NotNull
     public WebSQLResultsInfo getResults(@NotNull String resultId) throws DBWebException {
-        WebSQLResultsInfo resultsInfo = resultInfoMap.get(resultId);
+        WebSQLResultsInfo resultsInfo = resultsRegistry.get(resultId);
         if (resultsInfo == null) {
             throw new DBWebException("Results '" + resultId + "' not found in context '" + getId() + "'@'" + processor.getConnection().getId() + "'");
         }
@@ -172,14 +181,39 @@ public class WebSQLContextInfo implements WebSessionProvider {
     }
 
     public boolean closeResult(@NotNull String resultId) {
-        return resultInfoMap.remove(resultId) != null;
+        return resultsRegistry.remove(resultId);
+    }
+
+    @NotNull
+    public WebSQLResultsRegistry.Statistics getResultsStatistics() {
+        return resultsRegistry.getStatistics();
+    }
+
+    @NotNull
+    private static WebSQLResultsRegistry createResultsRegistry(@NotNull ServletAppConfiguration appConfiguration) {
+        Number maxResultSets = appConfiguration.getResourceQuota(WebSQLConstants.QUOTA_PROP_MAX_RESULT_SETS);
+        Number maxAttributes = appConfiguration.getResourceQuota(WebSQLConstants.QUOTA_PROP_MAX_RESULT_SETS_ATTRIBUTES);
+        Number idleTimeout = appConfiguration.getResourceQuota(WebSQLConstants.QUOTA_PROP_RESULT_SET_IDLE_TIMEOUT);
+        return new WebSQLResultsRegistry(
+            maxResultSets == null ? DEFAULT_MAX_RESULT_SETS : Math.max(maxResultSets.intValue(), 1),
+            maxAttributes == null ? DEFAULT_MAX_RESULT_SETS_ATTRIBUTES : Math.max(maxAttributes.longValue(), 1),
+            getIdleTimeoutMillis(idleTimeout)
+        );
+    }
+
+    private static long getIdleTimeoutMillis(@Nullable Number idleTimeout) {
+        // Timeout is configured in seconds
+        return idleTimeout == null || idleTimeout.doubleValue() <= 0 ? 0 : (long) (idleTimeout.doubleValue() * 1000);
     }
 
     ///////////////////////////////////////////////////////
     // Async model
 
     void dispose() {
-        resultInfoMap.clear();
+        if (log.isDebugEnabled()) {
+            log.debug("SQL context '" + id + "' results: " + resultsRegistry.getStatistics());
+        }
+        resultsRegistry.clear();
     }
 
     @Override
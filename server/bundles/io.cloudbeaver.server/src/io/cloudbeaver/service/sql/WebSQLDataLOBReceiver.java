@@ -19,8 +19,14 @@ package io.cloudbeaver.service.sql;
 import io.cloudbeaver.server.CBConstants;
 import io.cloudbeaver.server.WebAppUtils;
 import io.cloudbeaver.utils.ServletAppUtils;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.sql.DBQuotaException;
@@ -28,17 +34,29 @@ import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class WebSQLDataLOBReceiver extends WebSQLCellValueReceiver {
     private static final Log log = Log.getLog(WebSQLDataLOBReceiver.class);
     public static final Path DATA_EXPORT_FOLDER = WebAppUtils.getWebPlatform().getTempFolder(new VoidProgressMonitor(), "sql-lob" +
         "-files");
+    public static final int BUFFER_SIZE = 64 * 1024;
+    // Files which were not downloaded completely (e.g. downloaded by ranges or aborted) are removed after this period
+    private static final long LOB_FILE_TTL = 60 * 60 * 1000; // 1 hour
+
+    // LOB file -> creation time
+    private static final Map<Path, Long> lobFiles = new ConcurrentHashMap<>();
+
     private final String tableName;
+    private String lobFileName;
 
     WebSQLDataLOBReceiver(String tableName, DBSDataContainer dataContainer, int rowIndex) {
         super(dataContainer, rowIndex);
@@ -53,7 +71,23 @@ public class WebSQLDataLOBReceiver extends WebSQLCellValueReceiver {
 
     }
 
+    @Override
+    public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        super.fetchRow(session, resultSet);
+        // LOB content can be read only while the result set is open, so it is streamed to the file right away
+        lobFileName = writeLobFile(session.getProgressMonitor());
+    }
+
     public String createLobFile(DBRProgressMonitor monitor) throws DBCException, IOException {
+        if (lobFileName == null) {
+            throw new DBCException("Lob value is null");
+        }
+        return lobFileName;
+    }
+
+    @NotNull
+    private String writeLobFile(@NotNull DBRProgressMonitor monitor) throws DBCException {
+        deleteExpiredLobFiles();
         String exportFileName = CommonUtils.truncateString(tableName, 32);
         StringBuilder fileName = new StringBuilder(exportFileName);
         fileName.append("_")
@@ -63,20 +97,87 @@ public class WebSQLDataLOBReceiver extends WebSQLCellValueReceiver {
         String s = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(ts);
         fileName.append(s);
         exportFileName = CommonUtils.escapeFileName(fileName.toString());
-        byte[] binaryValue = getBinaryValue(monitor);
         Number fileSizeLimit = ServletAppUtils.getServletApplication()
             .getAppConfiguration()
             .getResourceQuota(CBConstants.QUOTA_PROP_FILE_LIMIT);
-        if (fileSizeLimit != null && binaryValue.length > fileSizeLimit.longValue()) {
-            throw new DBQuotaException(
-                "Data export quota exceeded \n Please increase the resourceQuotas parameter in configuration",
-                CBConstants.QUOTA_PROP_FILE_LIMIT, fileSizeLimit.longValue(), binaryValue.length
-            );
-        }
+        Long maxSize = fileSizeLimit == null ? null : fileSizeLimit.longValue();
         Path file = WebSQLDataLOBReceiver.DATA_EXPORT_FOLDER.resolve(exportFileName);
-        Files.write(file, binaryValue);
+        try {
+            DBDContentStorage contentStorage = value instanceof DBDContent content ? content.getContents(monitor) : null;
+            if (contentStorage != null) {
+                if (maxSize != null && contentStorage.getContentLength() > maxSize) {
+                    throw createQuotaException(maxSize, contentStorage.getContentLength());
+                }
+                try (InputStream contentStream = contentStorage.getContentStream()) {
+                    writeLobContent(contentStream, file, maxSize);
+                }
+            } else {
+                // Inline value
+                byte[] binaryValue = getBinaryValue(monitor);
+                if (maxSize != null && binaryValue.length > maxSize) {
+                    throw createQuotaException(maxSize, binaryValue.length);
+                }
+                Files.write(file, binaryValue);
+            }
+        } catch (IOException e) {
+            deleteLobFile(file);
+            throw new DBCException("Error writing LOB file", e);
+        }
+        lobFiles.put(file, System.currentTimeMillis());
         return exportFileName;
     }
 
+    /**
+     * Copies LOB content into the file through the fixed size buffer.
+     * The file is removed if the content exceeds the size limit.
+     */
+    public static void writeLobContent(
+        @NotNull InputStream contentStream,
+        @NotNull Path file,
+        @Nullable Long maxSize
+    ) throws IOException, DBQuotaException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long totalSize = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int count; (count = contentStream.read(buffer)) != -1; ) {
+                totalSize += count;
+                if (maxSize != null && totalSize > maxSize) {
+                    throw createQuotaException(maxSize, totalSize);
+                }
+                out.write(buffer, 0, count);
+            }
+        } catch (IOException | DBQuotaException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes downloaded LOB file
+     */
+    public static void deleteLobFile(@NotNull Path file) {
+        lobFiles.remove(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Error deleting LOB file " + file, e);
+        }
+    }
 
+    private static void deleteExpiredLobFiles() {
+        long expireTime = System.currentTimeMillis() - LOB_FILE_TTL;
+        for (Map.Entry<Path, Long> entry : lobFiles.entrySet()) {
+            if (entry.getValue() < expireTime) {
+                deleteLobFile(entry.getKey());
+            }
+        }
+    }
+
+    @NotNull
+    private static DBQuotaException createQuotaException(long maxSize, long actualSize) {
+        return new DBQuotaException(
+            "Data export quota exceeded \n Please increase the resourceQuotas parameter in configuration",
+            CBConstants.QUOTA_PROP_FILE_LIMIT, maxSize, actualSize
+        );
+    }
 }
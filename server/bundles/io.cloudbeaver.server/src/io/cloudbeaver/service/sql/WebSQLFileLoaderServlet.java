@@ -22,36 +22,27 @@ import com.google.gson.reflect.TypeToken;
 import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.model.app.ServletApplication;
 import io.cloudbeaver.model.session.WebSession;
-import io.cloudbeaver.server.WebAppUtils;
+import io.cloudbeaver.server.BaseWebPlatform;
+import io.cloudbeaver.service.WebFileUpload;
 import io.cloudbeaver.service.WebServiceServletBase;
-import jakarta.servlet.MultipartConfigElement;
-import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.eclipse.jetty.ee10.servlet.ServletContextRequest;
 import org.jkiss.dbeaver.DBException;
-import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Map;
 import java.util.UUID;
 
 @MultipartConfig
 public class WebSQLFileLoaderServlet extends WebServiceServletBase {
 
-    private static final Log log = Log.getLog(WebSQLFileLoaderServlet.class);
-
     private static final Type MAP_STRING_OBJECT_TYPE = new TypeToken<Map<String, Object>>() {
     }.getType();
     private static final String REQUEST_PARAM_VARIABLES = "variables";
 
-    private static final String TEMP_FILE_FOLDER = "temp-sql-upload-files";
-
     private static final String FILE_ID = "fileId";
 
     private static final Gson gson = new GsonBuilder()
@@ -78,12 +69,10 @@ public class WebSQLFileLoaderServlet extends WebServiceServletBase {
             return;
         }
 
-        Path tempFolder = WebAppUtils.getWebPlatform()
-                .getTempFolder(session.getProgressMonitor(), TEMP_FILE_FOLDER)
-                .resolve(session.getSessionId());
-
-        MultipartConfigElement multiPartConfig = new MultipartConfigElement(tempFolder.toString());
-        request.setAttribute(ServletContextRequest.MULTIPART_CONFIG_ELEMENT, multiPartConfig);
+        WebFileUpload upload = WebFileUpload.startUpload(session, request, response, BaseWebPlatform.TEMP_FILE_FOLDER);
+        if (upload == null) {
+            return;
+        }
 
         Map<String, Object> variables = gson.fromJson(request.getParameter(REQUEST_PARAM_VARIABLES), MAP_STRING_OBJECT_TYPE);
 
@@ -97,12 +86,6 @@ public class WebSQLFileLoaderServlet extends WebServiceServletBase {
         } catch (IllegalArgumentException e) {
             throw new DBWebException("File ID is invalid");
         }
-        Path file = tempFolder.resolve(fileId);
-        try {
-            Files.write(file, request.getPart("fileData").getInputStream().readAllBytes());
-        } catch (ServletException e) {
-            log.error(e.getMessage());
-            throw new DBWebException(e.getMessage());
-        }
+        upload.receiveFile(WebFileUpload.PART_FILE_DATA, fileId);
     }
 }
\ No newline at end of file
@@ -28,13 +28,11 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
 import org.jkiss.dbeaver.model.exec.trace.DBCTraceDynamic;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
-import org.jkiss.dbeaver.model.meta.MetaData;
 import org.jkiss.dbeaver.model.sql.DBQuotaException;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.utils.CommonUtils;
 
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -93,19 +91,7 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
                     binding.getMetaAttribute(),
                     i);
                 row[i] = cellValue;
-                if (cellValue != null) {
-                    Method[] methods = cellValue.getClass().getMethods();
-                    for (Method method : methods) {
-                        if (method.isAnnotationPresent(MetaData.class)) {
-                            if (metaDataMap == null) {
-                                metaDataMap = new HashMap<>();
-                            }
-                            Object value = method.invoke(cellValue);
-                            metaDataMap.put(method.getAnnotation(MetaData.class).name(), value);
-                        }
-                    }
-                }
-
+                metaDataMap = WebSQLCellMetaDataRegistry.collectMetaData(cellValue, metaDataMap);
             } catch (Throwable e) {
                 row[i] = new DBDValueError(e);
             }
@@ -20,6 +20,7 @@ import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.model.app.ServletApplication;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.CBConstants;
+import io.cloudbeaver.server.servlets.WebServletUtils;
 import io.cloudbeaver.service.WebServiceServletBase;
 import jakarta.servlet.MultipartConfigElement;
 import jakarta.servlet.ServletException;
@@ -31,10 +32,8 @@ import org.eclipse.jetty.ee10.servlet.ServletContextRequest;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.IOUtils;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
@@ -83,18 +82,41 @@ public class WebSQLResultServlet extends WebServiceServletBase {
                 valuePath = valuePath.substring(1);
             }
 
-            Path dataFile = WebSQLDataLOBReceiver.DATA_EXPORT_FOLDER.resolve(valuePath);
-            session.addInfoMessage("Download LOB file ...");
+            Path dataFile = WebSQLDataLOBReceiver.DATA_EXPORT_FOLDER.resolve(valuePath).normalize();
+            if (!dataFile.startsWith(WebSQLDataLOBReceiver.DATA_EXPORT_FOLDER.normalize()) || !Files.isRegularFile(dataFile)) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "LOB file not found");
+                return;
+            }
+            long fileSize = Files.size(dataFile);
+            WebServletUtils.ByteRange range = WebServletUtils.parseRange(request.getHeader("Range"), fileSize);
+            response.setHeader("Accept-Ranges", "bytes");
+            if (range != null && !range.isSatisfiable()) {
+                response.setHeader("Content-Range", "bytes */" + fileSize);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range == null) {
+                session.addInfoMessage("Download LOB file ...");
+            }
             response.setHeader("Content-Type", "application/octet-stream");
             response.setHeader("Content-Disposition", "attachment; filename=\"" + dataFile.getFileName().toString() + "\"");
-            response.setHeader("Content-Length", String.valueOf(Files.size(dataFile)));
             response.setDateHeader("Expires", System.currentTimeMillis() + CBConstants.STATIC_CACHE_SECONDS * 1000);
             response.setHeader("Cache-Control", "public, max-age=" + CBConstants.STATIC_CACHE_SECONDS);
+            long start = 0;
+            long length = fileSize;
+            if (range != null) {
+                start = range.start();
+                length = range.length();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + (start + length - 1) + "/" + fileSize);
+            }
+            response.setContentLengthLong(length);
 
-            try (InputStream is = Files.newInputStream(dataFile)) {
-                IOUtils.copyStream(is, response.getOutputStream());
+            WebServletUtils.writeFileRange(dataFile, response.getOutputStream(), start, length);
+            if (range == null) {
+                // Ranged downloads may request other parts later, such files are removed after expiration
+                WebSQLDataLOBReceiver.deleteLobFile(dataFile);
             }
-            Files.deleteIfExists(dataFile);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import io.cloudbeaver.DBWebException;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded registry of the query results of the SQL context.
+ * <p>
+ * Results are evicted in LRU order when the number of results or their total weight exceeds the limit,
+ * and optionally after the idle timeout. Weight of a result is the number of its attribute bindings
+ * (including nested ones), as bindings and their metadata are the most of the memory used by the result info.
+ */
+public class WebSQLResultsRegistry {
+
+    // Remember evicted result ids to tell expired results from unknown ones
+    private static final int MAX_EVICTED_IDS = 1000;
+
+    private final int maxSize;
+    private final long maxWeight;
+    private final long idleTimeout;
+
+    private final Map<String, ResultsEntry> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> evictedIds = new LinkedHashSet<>();
+    private long totalWeight;
+
+    private long hitCount;
+    private long expiredCount;
+    private long evictionCount;
+
+    /**
+     * @param maxSize     maximum number of results
+     * @param maxWeight   maximum total weight of results
+     * @param idleTimeout results idle timeout in milliseconds, 0 means results do not expire
+     */
+    public WebSQLResultsRegistry(int maxSize, long maxWeight, long idleTimeout) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public synchronized void put(@NotNull WebSQLResultsInfo resultsInfo) {
+        long currentTime = System.currentTimeMillis();
+        ResultsEntry entry = new ResultsEntry(resultsInfo, getResultsWeight(resultsInfo), currentTime);
+        ResultsEntry oldEntry = results.put(resultsInfo.getId(), entry);
+        if (oldEntry != null) {
+            totalWeight -= oldEntry.weight;
+        }
+        totalWeight += entry.weight;
+        evictResults(currentTime);
+    }
+
+    /**
+     * Returns results by id.
+     *
+     * @throws DBWebException if results were evicted from the registry
+     */
+    @Nullable
+    public synchronized WebSQLResultsInfo get(@NotNull String resultsId) throws DBWebException {
+        long currentTime = System.currentTimeMillis();
+        ResultsEntry entry = results.get(resultsId);
+        if (entry != null && isExpired(entry, currentTime)) {
+            removeEntry(resultsId, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            if (evictedIds.contains(resultsId)) {
+                expiredCount++;
+                throw new DBWebException(
+                    "Results '" + resultsId + "' have expired. Execute the query again.",
+                    DBWebException.ERROR_CODE_RESULTS_EXPIRED
+                );
+            }
+            return null;
+        }
+        entry.lastAccessTime = currentTime;
+        hitCount++;
+        return entry.resultsInfo;
+    }
+
+    public synchronized boolean remove(@NotNull String resultsId) {
+        ResultsEntry entry = results.remove(resultsId);
+        if (entry == null) {
+            return false;
+        }
+        totalWeight -= entry.weight;
+        return true;
+    }
+
+    public synchronized void clear() {
+        results.clear();
+        evictedIds.clear();
+        totalWeight = 0;
+    }
+
+    @NotNull
+    public synchronized Statistics getStatistics() {
+        return new Statistics(results.size(), maxSize, totalWeight, maxWeight, hitCount, expiredCount, evictionCount);
+    }
+
+    private void evictResults(long currentTime) {
+        // The last added result is never evicted, even if it is heavier than the limit
+        Iterator<Map.Entry<String, ResultsEntry>> iterator = results.entrySet().iterator();
+        while (iterator.hasNext() && results.size() > 1) {
+            Map.Entry<String, ResultsEntry> eldest = iterator.next();
+            if (results.size() <= maxSize && totalWeight <= maxWeight && !isExpired(eldest.getValue(), currentTime)) {
+                break;
+            }
+            iterator.remove();
+            onEntryRemoved(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void removeEntry(@NotNull String resultsId, @NotNull ResultsEntry entry) {
+        results.remove(resultsId);
+        onEntryRemoved(resultsId, entry);
+    }
+
+    private void onEntryRemoved(@NotNull String resultsId, @NotNull ResultsEntry entry) {
+        totalWeight -= entry.weight;
+        evictionCount++;
+        evictedIds.add(resultsId);
+        if (evictedIds.size() > MAX_EVICTED_IDS) {
+            Iterator<String> iterator = evictedIds.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private boolean isExpired(@NotNull ResultsEntry entry, long currentTime) {
+        return idleTimeout > 0 && currentTime - entry.lastAccessTime > idleTimeout;
+    }
+
+    private static long getResultsWeight(@NotNull WebSQLResultsInfo resultsInfo) {
+        DBDAttributeBinding[] attributes = resultsInfo.getAttributes();
+        long weight = 1;
+        if (attributes != null) {
+            for (DBDAttributeBinding attribute : attributes) {
+                weight += getBindingWeight(attribute);
+            }
+        }
+        return weight;
+    }
+
+    private static long getBindingWeight(@NotNull DBDAttributeBinding binding) {
+        long weight = 1;
+        List<DBDAttributeBinding> nestedBindings = binding.getNestedBindings();
+        if (nestedBindings != null) {
+            for (DBDAttributeBinding nestedBinding : nestedBindings) {
+                weight += getBindingWeight(nestedBinding);
+            }
+        }
+        return weight;
+    }
+
+    private static class ResultsEntry {
+        @NotNull
+        private final WebSQLResultsInfo resultsInfo;
+        private final long weight;
+        private long lastAccessTime;
+
+        ResultsEntry(@NotNull WebSQLResultsInfo resultsInfo, long weight, long lastAccessTime) {
+            this.resultsInfo = resultsInfo;
+            this.weight = weight;
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+
+    public record Statistics(
+        int size,
+        int maxSize,
+        long weight,
+        long maxWeight,
+        long hitCount,
+        long expiredCount,
+        long evictionCount
+    ) {
+        @Override
+        public String toString() {
+            return "size=" + size + "/" + maxSize + ", weight=" + weight + "/" + maxWeight +
+                ", hits=" + hitCount + ", expired=" + expiredCount + ", evictions=" + evictionCount;
+        }
+    }
+}
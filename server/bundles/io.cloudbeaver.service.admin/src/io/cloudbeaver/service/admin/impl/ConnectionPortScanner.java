@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.admin.impl;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Checks which TCP ports accept connections.
+ * <p>
+ * All ports are probed concurrently with non-blocking connects in a single selector,
+ * so the scan takes about one connect timeout per {@code maxConcurrentProbes} ports.
+ */
+public class ConnectionPortScanner {
+
+    private static final Log log = Log.getLog(ConnectionPortScanner.class);
+
+    private final int maxConcurrentProbes;
+    private final long connectTimeout;
+
+    /**
+     * @param maxConcurrentProbes maximum number of simultaneous connection attempts
+     * @param connectTimeout      connect timeout in milliseconds
+     */
+    public ConnectionPortScanner(int maxConcurrentProbes, long connectTimeout) {
+        this.maxConcurrentProbes = Math.max(maxConcurrentProbes, 1);
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Probes all addresses. Open addresses are reported to the consumer as soon as the connection is established.
+     * Addresses must be resolved.
+     */
+    public void scan(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull Collection<InetSocketAddress> addresses,
+        @NotNull Consumer<InetSocketAddress> openPortConsumer
+    ) throws IOException {
+        Deque<InetSocketAddress> pendingAddresses = new ArrayDeque<>(addresses);
+        Selector selector = Selector.open();
+        try {
+            while (!monitor.isCanceled()) {
+                long currentTime = System.currentTimeMillis();
+                while (selector.keys().size() < maxConcurrentProbes && !pendingAddresses.isEmpty()) {
+                    startProbe(monitor, selector, pendingAddresses.poll(), currentTime, openPortConsumer);
+                }
+                if (selector.keys().isEmpty()) {
+                    break;
+                }
+                selector.select(getSelectTimeout(selector, currentTime));
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    Probe probe = (Probe) key.attachment();
+                    boolean connected;
+                    try {
+                        connected = ((SocketChannel) key.channel()).finishConnect();
+                    } catch (IOException e) {
+                        // Connection refused or host unreachable
+                        connected = false;
+                    }
+                    finishProbe(monitor, key);
+                    if (connected) {
+                        openPortConsumer.accept(probe.address());
+                    }
+                }
+
+                // Close probes which didn't connect in time
+                currentTime = System.currentTimeMillis();
+                for (SelectionKey key : selector.keys()) {
+                    if (key.isValid() && ((Probe) key.attachment()).deadline() <= currentTime) {
+                        finishProbe(monitor, key);
+                    }
+                }
+                // Cancelled keys are removed from the key set on the next select
+                selector.selectNow();
+            }
+        } finally {
+            // Closing the selector doesn't close registered channels
+            for (SelectionKey key : selector.keys()) {
+                closeChannel(key.channel());
+            }
+            selector.close();
+        }
+    }
+
+    private void startProbe(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull Selector selector,
+        @NotNull InetSocketAddress address,
+        long currentTime,
+        @NotNull Consumer<InetSocketAddress> openPortConsumer
+    ) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            if (channel.connect(address)) {
+                // Local connections may be established immediately
+                channel.close();
+                monitor.worked(1);
+                openPortConsumer.accept(address);
+                return;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, new Probe(address, currentTime + connectTimeout));
+        } catch (IOException e) {
+            log.trace("Error connecting to " + address, e);
+            closeChannel(channel);
+            monitor.worked(1);
+        }
+    }
+
+    private static void finishProbe(@NotNull DBRProgressMonitor monitor, @NotNull SelectionKey key) {
+        key.cancel();
+        closeChannel(key.channel());
+        monitor.worked(1);
+    }
+
+    private static long getSelectTimeout(@NotNull Selector selector, long currentTime) {
+        long nearestDeadline = Long.MAX_VALUE;
+        for (SelectionKey key : selector.keys()) {
+            nearestDeadline = Math.min(nearestDeadline, ((Probe) key.attachment()).deadline());
+        }
+        // 0 means no timeout for select
+        return Math.max(nearestDeadline - currentTime, 1);
+    }
+
+    private static void closeChannel(@Nullable Channel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private record Probe(@NotNull InetSocketAddress address, long deadline) {
+    }
+}
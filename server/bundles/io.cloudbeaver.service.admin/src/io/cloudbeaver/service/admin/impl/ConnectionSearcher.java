@@ -22,25 +22,29 @@ import io.cloudbeaver.model.utils.ConfigurationUtils;
 import io.cloudbeaver.server.CBApplication;
 import io.cloudbeaver.server.CBPlatform;
 import io.cloudbeaver.service.admin.AdminConnectionSearchInfo;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriver;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.net.SocketAddress;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.net.UnknownHostException;
+import java.util.*;
 
 /**
  * Connection search engine
  */
 public class ConnectionSearcher implements DBRRunnableWithProgress {
 
+    private static final Log log = Log.getLog(ConnectionSearcher.class);
+
+    private static final int MAX_CONCURRENT_PROBES = 256;
+    private static final long CONNECT_TIMEOUT = 150;
+
     private final WebSession webSession;
     private final String[] hostNames;
     private final List<AdminConnectionSearchInfo> foundConnections = new ArrayList<>();
@@ -75,89 +79,73 @@ public class ConnectionSearcher implements DBRRunnableWithProgress {
             }
         }
 
-        monitor.beginTask("Search connections", finalHostNames.size());
-        try {
-            ThreadGroup tg = new ThreadGroup("Connection search");
-            List<Thread> threadList = new ArrayList<>();
-            for (String hostName : finalHostNames) {
-                monitor.subTask("Search connections on '" + hostName + "'");
-                String localName = localHostNames.get(hostName);
-                if (localName == null) {
-                    localName = hostName;
-                }
-                String finalLocalName = localName;
-                Runnable searchFunc = () -> searchConnections(monitor, hostName, finalLocalName);
-                Thread t = new Thread(tg, searchFunc, "Search connection @" + hostName);
-                threadList.add(t);
-                t.start();
+        // Drivers by default port, the first driver is the default one
+        Map<Integer, List<String>> portDrivers = getPortDrivers();
+        // Several host names may resolve to the same address, keep all of them
+        Map<InetSocketAddress, List<SearchHost>> searchHosts = new LinkedHashMap<>();
+        for (String hostName : finalHostNames) {
+            String localName = localHostNames.get(hostName);
+            InetAddress hostAddress;
+            try {
+                hostAddress = InetAddress.getByName(hostName);
+            } catch (UnknownHostException e) {
+                log.debug("Unknown host '" + hostName + "'");
+                continue;
             }
-            for (Thread t : threadList) {
-                try {
-                    t.join();
-                } catch (InterruptedException e) {
-                    // ignore
-                }
+            SearchHost searchHost = new SearchHost(hostName, localName == null ? hostName : localName);
+            for (Integer port : portDrivers.keySet()) {
+                searchHosts.computeIfAbsent(new InetSocketAddress(hostAddress, port), address -> new ArrayList<>()).add(searchHost);
             }
+        }
+
+        monitor.beginTask("Search connections", searchHosts.size());
+        try {
+            new ConnectionPortScanner(MAX_CONCURRENT_PROBES, CONNECT_TIMEOUT).scan(
+                monitor,
+                searchHosts.keySet(),
+                address -> {
+                    for (SearchHost searchHost : searchHosts.get(address)) {
+                        addFoundConnection(searchHost, address.getPort(), portDrivers.get(address.getPort()));
+                    }
+                }
+            );
+        } catch (IOException e) {
+            log.error("Error searching connections", e);
         } finally {
             monitor.done();
         }
     }
 
-    private void searchConnections(DBRProgressMonitor monitor, String hostName, String displayName) {
-        int checkTimeout = 150;
-        Map<Integer, AdminConnectionSearchInfo> portCache = new HashMap<>();
-
-        for (DBPDriver driver : availableDrivers) {
-            monitor.subTask("Check '" + driver.getName() + "' on '" + hostName + "'");
-            if (!CommonUtils.isEmpty(driver.getDefaultPort()) && !isPortInBlockList(CommonUtils.toInt(driver.getDefaultPort()))) {
-                updatePortInfo(portCache, hostName, displayName, driver, checkTimeout);
+    private void addFoundConnection(@NotNull SearchHost host, int port, @NotNull List<String> driverIds) {
+        synchronized (foundConnections) {
+            if (foundConnections.stream().anyMatch(fsi -> fsi.getDisplayName().equals(host.displayName()) && fsi.getPort() == port)) {
+                return;
             }
-            monitor.worked(1);
-        }
-        for (AdminConnectionSearchInfo si : portCache.values()) {
-            if (si.getDefaultDriver() != null) {
-                synchronized (foundConnections) {
-                    if (foundConnections.stream().noneMatch(fsi -> fsi.getDisplayName().equals(displayName) && fsi.getPort() == si.getPort())) {
-                        foundConnections.add(si);
-                    }
-                }
+            AdminConnectionSearchInfo searchInfo = new AdminConnectionSearchInfo(host.displayName(), host.hostName(), port);
+            for (String driverId : driverIds) {
+                searchInfo.addDriver(driverId);
             }
+            foundConnections.add(searchInfo);
         }
     }
 
-    private void updatePortInfo(Map<Integer, AdminConnectionSearchInfo> portCache, String hostName, String displayName, DBPDriver driver, int timeout) {
+    @NotNull
+    private Map<Integer, List<String>> getPortDrivers() {
         CBAppConfig config = CBApplication.getInstance().getAppConfiguration();
-        if (!ConfigurationUtils.isDriverEnabled(
-            driver,
-            config.getEnabledDrivers(),
-            config.getDisabledDrivers())
-        ) {
-            return;
-        }
-        int driverPort = CommonUtils.toInt(driver.getDefaultPort());
-        if (driverPort <= 0) {
-            return;
-        }
-
-        AdminConnectionSearchInfo searchInfo = portCache.get(driverPort);
-        String driverId = driver.getFullId();
-        if (searchInfo != null) {
-            searchInfo.getPossibleDrivers().add(driverId);
-            return;
-        }
-        searchInfo = new AdminConnectionSearchInfo(displayName, hostName, driverPort);
-        portCache.put(driverPort, searchInfo);
-
-        try {
-            try (Socket s = new Socket()) {
-                s.setReuseAddress(true);
-                SocketAddress sa = new InetSocketAddress(hostName, driverPort);
-                s.connect(sa, timeout);
+        Map<Integer, List<String>> portDrivers = new LinkedHashMap<>();
+        for (DBPDriver driver : availableDrivers) {
+            if (CommonUtils.isEmpty(driver.getDefaultPort())
+                || !ConfigurationUtils.isDriverEnabled(driver, config.getEnabledDrivers(), config.getDisabledDrivers())
+            ) {
+                continue;
             }
-            searchInfo.addDriver(driverId);
-        } catch (Exception e) {
-            // Ignore
+            int driverPort = CommonUtils.toInt(driver.getDefaultPort());
+            if (driverPort <= 0 || isPortInBlockList(driverPort)) {
+                continue;
+            }
+            portDrivers.computeIfAbsent(driverPort, port -> new ArrayList<>()).add(driver.getFullId());
         }
+        return portDrivers;
     }
 
     private static boolean isPortInBlockList(int portNumber) {
@@ -174,4 +162,7 @@ public class ConnectionSearcher implements DBRRunnableWithProgress {
         return false;
     }
 
+    private record SearchHost(@NotNull String hostName, @NotNull String displayName) {
+    }
+
 }
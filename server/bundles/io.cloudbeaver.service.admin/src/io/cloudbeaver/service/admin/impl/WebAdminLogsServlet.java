@@ -4,25 +4,41 @@ import io.cloudbeaver.DBWConstants;
 import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.CBApplication;
+import io.cloudbeaver.server.servlets.WebServletUtils;
 import io.cloudbeaver.service.WebServiceServletBase;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.MimeTypes;
-import org.jkiss.utils.IOUtils;
+import org.jkiss.utils.CommonUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Server log download.
+ * <p>
+ * Supports single byte range requests, the last N lines of the log ({@code tail} parameter)
+ * and gzip compression of the whole log or its tail if the client accepts it.
+ */
 public class WebAdminLogsServlet extends WebServiceServletBase {
 
     private static final Log log = Log.getLog(WebAdminLogsServlet.class);
 
+    private static final String PARAM_TAIL = "tail";
+    private static final String GZIP_ENCODING = "gzip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     public WebAdminLogsServlet(CBApplication application) {
         super(application);
     }
@@ -46,6 +62,9 @@ public class WebAdminLogsServlet extends WebServiceServletBase {
         if (!Files.exists(logFile)) {
             throw new DBWebException("Log file '" + logFileName + "' not found");
         }
+        int tailLines = CommonUtils.toInt(request.getParameter(PARAM_TAIL), 0);
+        // Log keeps growing while we send it, so the response is limited to the current size
+        long fileSize = Files.size(logFile);
 
         response.setHeader("Content-Type", MimeTypes.TEXT_PLAIN);
         if (logFileName.equals(".log")) {
@@ -53,9 +72,68 @@ public class WebAdminLogsServlet extends WebServiceServletBase {
         }
         response.setHeader("Content-Disposition", "attachment; filename=\"" + logFileName + "\"");
 
-        try (InputStream is = Files.newInputStream(logFile)) {
-            IOUtils.copyStream(is, response.getOutputStream());
+        long start = 0;
+        if (tailLines > 0) {
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                start = findTailOffset(channel, fileSize, tailLines);
+            }
+        } else {
+            response.setHeader("Accept-Ranges", "bytes");
+            WebServletUtils.ByteRange range = WebServletUtils.parseRange(request.getHeader("Range"), fileSize);
+            if (range != null) {
+                if (!range.isSatisfiable()) {
+                    response.setHeader("Content-Range", "bytes */" + fileSize);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                // Ranges are sent as is, they address bytes of the log file and not of the compressed content
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + range.start() + "-" + (range.start() + range.length() - 1) + "/" + fileSize);
+                response.setContentLengthLong(range.length());
+                WebServletUtils.writeFileRange(logFile, response.getOutputStream(), range.start(), range.length());
+                return;
+            }
+        }
+
+        response.setHeader("Vary", "Accept-Encoding");
+        if (WebServletUtils.isEncodingAccepted(request.getHeader("Accept-Encoding"), GZIP_ENCODING)) {
+            response.setHeader("Content-Encoding", GZIP_ENCODING);
+            try (OutputStream out = new GZIPOutputStream(response.getOutputStream(), BUFFER_SIZE)) {
+                WebServletUtils.writeFileRange(logFile, out, start, fileSize - start);
+            }
+        } else {
+            response.setContentLengthLong(fileSize - start);
+            WebServletUtils.writeFileRange(logFile, response.getOutputStream(), start, fileSize - start);
+        }
+    }
+
+    /**
+     * Finds the start of the last lines of the file. Reads the file backwards, so only the tail is read.
+     *
+     * @return offset of the first byte of the tail
+     */
+    public static long findTailOffset(@NotNull FileChannel channel, long fileSize, int lineCount) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long blockStart = fileSize;
+        int lineBreaks = 0;
+        while (blockStart > 0) {
+            int blockSize = (int) Math.min(BUFFER_SIZE, blockStart);
+            blockStart -= blockSize;
+            buffer.clear().limit(blockSize);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, blockStart + buffer.position()) < 0) {
+                    throw new IOException("Log file was truncated");
+                }
+            }
+            for (int i = blockSize - 1; i >= 0; i--) {
+                long offset = blockStart + i;
+                // Line break at the end of the file terminates the last line
+                if (buffer.get(i) == '\n' && offset != fileSize - 1 && ++lineBreaks == lineCount) {
+                    return offset + 1;
+                }
+            }
         }
+        return 0;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.data.transfer.impl;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.sql.DBQuotaException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Pipe between the export producer and the download request of a streaming export.
+ * <p>
+ * Producer writes the export file and the download request sends the file content to the client while it grows.
+ * Producer is paused when the client falls behind for more than {@link #MAX_UNSENT_BYTES},
+ * so the slow client slows down the database fetch instead of filling the disk.
+ */
+public class WebDataTransferExportStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_UNSENT_BYTES = 8 * 1024 * 1024;
+    private static final long DATA_WAIT_TIMEOUT = 50;
+    private static final long READER_WAIT_TIMEOUT = 1000;
+
+    private final Object lock = new Object();
+
+    private long bytesSent;
+    // Reader has sent everything which is on the disk, the rest is buffered by the producer
+    private boolean readerStarving;
+    private boolean finished;
+    private boolean cancelled;
+    @Nullable
+    private Throwable error;
+
+    /**
+     * Called by the producer after each row. Blocks while the client is too far behind.
+     */
+    void awaitReader(long bytesWritten) throws DBCException {
+        synchronized (lock) {
+            while (!cancelled && !readerStarving && bytesWritten - bytesSent > MAX_UNSENT_BYTES) {
+                try {
+                    lock.wait(READER_WAIT_TIMEOUT);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DBCException("Streaming export interrupted");
+                }
+            }
+            if (cancelled) {
+                throw new DBCException("Streaming export download cancelled");
+            }
+        }
+    }
+
+    /**
+     * Called by the producer when export is completed or failed.
+     */
+    void finish(@Nullable Throwable error) {
+        synchronized (lock) {
+            this.finished = true;
+            this.error = error;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Called by the download request when the client has gone or download failed.
+     */
+    void cancel() {
+        synchronized (lock) {
+            cancelled = true;
+            lock.notifyAll();
+        }
+    }
+
+    boolean awaitFinished(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (lock) {
+            while (!finished) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sends the export file content to the output stream until the producer finishes.
+     *
+     * @param sizeLimit maximum number of bytes which may be sent
+     */
+    void transferTo(
+        @NotNull Path exportFile,
+        @NotNull OutputStream out,
+        @Nullable Long sizeLimit
+    ) throws DBException, IOException {
+        InputStream in = null;
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (true) {
+                // Read the flag before reading the file, so the content written before finish is never lost
+                boolean producerFinished = isFinished();
+                if (in == null) {
+                    in = openExportFile(exportFile);
+                }
+                int count = in == null ? -1 : in.read(buffer);
+                if (count > 0) {
+                    onBytesSent(count, sizeLimit);
+                    out.write(buffer, 0, count);
+                    continue;
+                }
+                if (producerFinished) {
+                    break;
+                }
+                // Send everything we have to the client while the producer fetches the next rows
+                out.flush();
+                waitForData();
+            }
+        } finally {
+            if (in != null) {
+                in.close();
+            }
+        }
+        synchronized (lock) {
+            if (error != null) {
+                if (error instanceof DBException dbe) {
+                    throw dbe;
+                }
+                throw new DBException("Error exporting data", error);
+            }
+        }
+        out.flush();
+    }
+
+    private boolean isFinished() {
+        synchronized (lock) {
+            return finished;
+        }
+    }
+
+    @Nullable
+    private static InputStream openExportFile(@NotNull Path exportFile) throws IOException {
+        try {
+            return Files.newInputStream(exportFile);
+        } catch (NoSuchFileException e) {
+            // Producer hasn't created the file yet
+            return null;
+        }
+    }
+
+    private void onBytesSent(int count, @Nullable Long sizeLimit) throws DBQuotaException {
+        synchronized (lock) {
+            bytesSent += count;
+            readerStarving = false;
+            lock.notifyAll();
+            if (sizeLimit != null && bytesSent > sizeLimit) {
+                throw new DBQuotaException(
+                    "Data export quota exceeded \n Please increase the resourceQuotas parameter in configuration",
+                    WebServiceDataTransfer.QUOTA_PROP_FILE_LIMIT, sizeLimit, bytesSent
+                );
+            }
+        }
+    }
+
+    private void waitForData() throws IOException {
+        synchronized (lock) {
+            if (finished) {
+                return;
+            }
+            readerStarving = true;
+            lock.notifyAll();
+            try {
+                // Producer doesn't notify about each written block, so poll the file
+                lock.wait(DATA_WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Streaming export interrupted");
+            }
+        }
+    }
+}
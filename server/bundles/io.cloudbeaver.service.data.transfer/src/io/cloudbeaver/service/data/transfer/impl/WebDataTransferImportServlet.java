@@ -23,25 +23,22 @@ import io.cloudbeaver.model.WebConnectionInfo;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.BaseWebPlatform;
 import io.cloudbeaver.server.CBConstants;
-import io.cloudbeaver.server.WebAppUtils;
 import io.cloudbeaver.server.WebApplication;
+import io.cloudbeaver.service.WebFileUpload;
 import io.cloudbeaver.service.WebServiceServletBase;
 import io.cloudbeaver.service.data.transfer.DBWServiceDataTransfer;
 import io.cloudbeaver.service.sql.WebSQLContextInfo;
 import io.cloudbeaver.service.sql.WebSQLProcessor;
 import io.cloudbeaver.service.sql.WebSQLResultsInfo;
 import io.cloudbeaver.service.sql.WebServiceBindingSQL;
-import jakarta.servlet.MultipartConfigElement;
-import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -51,7 +48,6 @@ import java.util.UUID;
 public class WebDataTransferImportServlet extends WebServiceServletBase {
 
     private static final Log log = Log.getLog(WebDataTransferImportServlet.class);
-    public static final String ECLIPSE_JETTY_MULTIPART_CONFIG = "org.eclipse.jetty.multipartConfig";
 
     DBWServiceDataTransfer dbwServiceDataTransfer;
 
@@ -66,17 +62,17 @@ public class WebDataTransferImportServlet extends WebServiceServletBase {
             WebSession session,
             HttpServletRequest request,
             HttpServletResponse response
-    ) throws IOException, DBWebException {
+    ) throws IOException, DBException {
         if (!session.isAuthorizedInSecurityManager()) {
             response.sendError(HttpServletResponse.SC_FORBIDDEN, "Import for users only");
             return;
         }
         if ("POST".equalsIgnoreCase(request.getMethod())) {
-            Path tempFolder = WebAppUtils.getWebPlatform().getTempFolder(session.getProgressMonitor(),
-                BaseWebPlatform.TEMP_FILE_IMPORT_FOLDER);
-            MultipartConfigElement MULTI_PART_CONFIG = new MultipartConfigElement(tempFolder.toString());
-
-            request.setAttribute(ECLIPSE_JETTY_MULTIPART_CONFIG, MULTI_PART_CONFIG);
+            // Import files are stored in the session folder, so they are removed with the session
+            WebFileUpload upload = WebFileUpload.startUpload(session, request, response, BaseWebPlatform.TEMP_FILE_IMPORT_FOLDER);
+            if (upload == null) {
+                return;
+            }
 
             Map<String, Object> variables = getVariables(request);
 
@@ -99,15 +95,7 @@ public class WebDataTransferImportServlet extends WebServiceServletBase {
             }
 
             WebSQLResultsInfo webSQLResultsInfo = webSQLContextInfo.getResults(resultId);
-            Path filePath;
-
-            try {
-                InputStream file = request.getPart("fileData").getInputStream();
-                filePath = tempFolder.resolve(UUID.randomUUID().toString());
-                Files.write(filePath, file.readAllBytes());
-            } catch (ServletException e) {
-                throw new DBWebException(e.getMessage());
-            }
+            Path filePath = upload.receiveFile(WebFileUpload.PART_FILE_DATA, UUID.randomUUID().toString());
 
             WebAsyncTaskInfo asyncImportDataContainer =
                     dbwServiceDataTransfer.asyncImportDataContainer(processorId, filePath, webSQLResultsInfo, session);
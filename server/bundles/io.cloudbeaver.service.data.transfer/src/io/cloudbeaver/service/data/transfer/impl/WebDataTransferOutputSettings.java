@@ -26,6 +26,7 @@ public class WebDataTransferOutputSettings {
     private final String timestampPattern;
     private final boolean compress;
     private final String fileName;
+    private final boolean streaming;
 
     public WebDataTransferOutputSettings(Map<String, Object> outputSettings) {
         this.insertBom = JSONUtils.getBoolean(outputSettings, "insertBom", false);
@@ -33,6 +34,7 @@ public class WebDataTransferOutputSettings {
         this.timestampPattern = JSONUtils.getString(outputSettings, "timestampPattern");
         this.compress =  JSONUtils.getBoolean(outputSettings, "compress", false);
         this.fileName = JSONUtils.getString(outputSettings, "fileName");
+        this.streaming = JSONUtils.getBoolean(outputSettings, "streaming", false);
     }
 
     public WebDataTransferOutputSettings(boolean insertBom, String encoding, String timestampPattern, boolean compress, String fileName) {
@@ -41,6 +43,7 @@ public class WebDataTransferOutputSettings {
         this.timestampPattern = timestampPattern;
         this.compress = compress;
         this.fileName = fileName;
+        this.streaming = false;
     }
 
     public boolean isInsertBom() {
@@ -62,4 +65,11 @@ public class WebDataTransferOutputSettings {
     public String getFileName() {
         return fileName;
     }
+
+    /**
+     * Export is executed by the download request and sent to the client while rows are fetched
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
 }
@@ -18,13 +18,19 @@ package io.cloudbeaver.service.data.transfer.impl;
 
 import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.server.CBApplication;
 import io.cloudbeaver.server.WebApplication;
 import io.cloudbeaver.service.WebServiceServletBase;
 import io.cloudbeaver.service.data.transfer.DBWServiceDataTransfer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferRegistry;
 import org.jkiss.utils.CommonUtils;
@@ -34,12 +40,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
 
 public class WebDataTransferServlet extends WebServiceServletBase {
 
     private static final Log log = Log.getLog(WebDataTransferServlet.class);
 
+    private static final long EXPORT_CANCEL_TIMEOUT = 10000;
+
     private final DBWServiceDataTransfer dtManager;
 
     public WebDataTransferServlet(WebApplication application, DBWServiceDataTransfer dtManager) {
@@ -77,15 +84,67 @@ public class WebDataTransferServlet extends WebServiceServletBase {
         session.addInfoMessage("Download data ...");
         response.setHeader("Content-Type", processor.getContentType());
         response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+
+        if (taskInfo.isStreaming()) {
+            WebDataTransferTaskConfig.StreamingExporter exporter = taskInfo.startStreaming();
+            if (exporter == null) {
+                throw new DBWebException("Data file '" + dataFileId + "' is already being downloaded");
+            }
+            try {
+                streamExport(taskInfo, exporter, response);
+            } finally {
+                // Streaming export can't be downloaded twice
+                dtConfig.removeTask(taskInfo);
+            }
+            return;
+        }
         response.setHeader("Content-Length", String.valueOf(Files.size(dataFile)));
 
         try (InputStream is = Files.newInputStream(dataFile)) {
             IOUtils.copyStream(is, response.getOutputStream());
         }
+        // Export file is kept until it is removed by the client (dataTransferRemoveDataFile) or session expires
+    }
+
+    private void streamExport(
+        @NotNull WebDataTransferTaskConfig taskInfo,
+        @NotNull WebDataTransferTaskConfig.StreamingExporter exporter,
+        @NotNull HttpServletResponse response
+    ) throws DBException, IOException {
+        Number fileSizeLimit = CBApplication.getInstance().getAppConfiguration()
+            .getResourceQuota(WebServiceDataTransfer.QUOTA_PROP_FILE_LIMIT);
+
+        WebDataTransferExportStream exportStream = new WebDataTransferExportStream();
+        AbstractJob exportJob = new AbstractJob("Streaming data export") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    exporter.exportData(monitor, exportStream);
+                    exportStream.finish(null);
+                } catch (Throwable e) {
+                    exportStream.finish(e);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        exportJob.schedule();
 
-        // TODO: cleanup export files ASAP?
-        if (false) {
-            dtConfig.removeTask(taskInfo);
+        // No Content-Length, so the response is sent chunked while rows are fetched
+        boolean completed = false;
+        try {
+            exportStream.transferTo(
+                taskInfo.getDataFile(),
+                response.getOutputStream(),
+                fileSizeLimit == null ? null : fileSizeLimit.longValue());
+            completed = true;
+        } finally {
+            if (!completed) {
+                exportStream.cancel();
+                exportJob.cancel();
+                if (!exportStream.awaitFinished(EXPORT_CANCEL_TIMEOUT)) {
+                    log.warn("Streaming export of '" + taskInfo.getDataFileId() + "' wasn't stopped in time");
+                }
+            }
         }
     }
 
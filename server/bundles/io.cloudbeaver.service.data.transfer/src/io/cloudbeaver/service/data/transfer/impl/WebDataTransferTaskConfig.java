@@ -16,7 +16,11 @@
  */
 package io.cloudbeaver.service.data.transfer.impl;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -29,10 +33,22 @@ public class WebDataTransferTaskConfig {
     private Path dataFile;
     private WebDataTransferParameters parameters;
     private String exportFileName;
+    @Nullable
+    private final StreamingExporter streamingExporter;
+    private boolean streamingStarted;
 
     public WebDataTransferTaskConfig(Path dataFile, WebDataTransferParameters parameters) {
+        this(dataFile, parameters, null);
+    }
+
+    public WebDataTransferTaskConfig(
+        Path dataFile,
+        WebDataTransferParameters parameters,
+        @Nullable StreamingExporter streamingExporter
+    ) {
         this.dataFile = dataFile;
         this.parameters = parameters;
+        this.streamingExporter = streamingExporter;
     }
 
     public Path getDataFile() {
@@ -55,11 +71,38 @@ public class WebDataTransferTaskConfig {
         this.exportFileName = exportFileName;
     }
 
+    /**
+     * Streaming tasks have no data file until download starts, the export is executed by the download request.
+     */
+    public boolean isStreaming() {
+        return streamingExporter != null;
+    }
+
+    /**
+     * Returns exporter of the streaming task. Streaming export may be downloaded only once.
+     */
+    @Nullable
+    public synchronized StreamingExporter startStreaming() {
+        if (streamingExporter == null || streamingStarted) {
+            return null;
+        }
+        streamingStarted = true;
+        return streamingExporter;
+    }
+
     public void deleteFile() {
         try {
-            Files.delete(dataFile);
+            Files.deleteIfExists(dataFile);
         } catch (IOException e) {
             log.error("Error deleting export file " + dataFile.toAbsolutePath(), e);
         }
     }
-}
\ No newline at end of file
+
+    @FunctionalInterface
+    public interface StreamingExporter {
+        void exportData(
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull WebDataTransferExportStream exportStream
+        ) throws DBException, IOException;
+    }
+}
@@ -155,7 +155,7 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
         Path dataFile = taskInfo.getDataFile();
         if (dataFile != null) {
             try {
-                Files.delete(dataFile);
+                Files.deleteIfExists(dataFile);
             } catch (IOException e) {
                 log.warn("Error deleting data file '" + dataFile.toAbsolutePath() + "'", e);
             }
@@ -182,27 +182,24 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
                     monitor.subTask("Export data using " + processor.getName());
                     Path exportFile = dataExportFolder.resolve(
                             makeUniqueFileName(sqlProcessor, processor, parameters.getProcessorProperties()));
-                    try {
-                        exportData(monitor, processor, dataContainer, parameters, resultsInfo, exportFile);
-                    } catch (Exception e) {
-                        if (Files.exists(exportFile)) {
-                            try {
-                                Files.delete(exportFile);
-                            } catch (IOException ex) {
-                                log.error("Error deleting export file " + exportFile.toAbsolutePath(), e);
-                            }
-                        }
-                        if (e instanceof DBException) {
-                            throw e;
-                        }
-                        throw new DBException("Error exporting data", e);
-                    }
                     var outputSettings = parameters.getOutputSettings();
                     Path finallyExportFile = outputSettings.isCompress()
                         ? exportFile.resolveSibling(WebDataTransferUtils.normalizeFileName(
                             exportFile.getFileName().toString(), outputSettings))
                         : exportFile;
-                    WebDataTransferTaskConfig taskConfig = new WebDataTransferTaskConfig(finallyExportFile, parameters);
+                    WebDataTransferTaskConfig taskConfig;
+                    if (outputSettings.isStreaming()) {
+                        // Export will be executed by the download request
+                        taskConfig = new WebDataTransferTaskConfig(
+                            finallyExportFile,
+                            parameters,
+                            (exportMonitor, exportStream) -> exportData(
+                                exportMonitor, processor, dataContainer, parameters, resultsInfo, exportFile, exportStream)
+                        );
+                    } else {
+                        exportToFile(monitor, processor, dataContainer, parameters, resultsInfo, exportFile);
+                        taskConfig = new WebDataTransferTaskConfig(finallyExportFile, parameters);
+                    }
                     String exportFileName = CommonUtils.isEmpty(outputSettings.getFileName()) ?
                         CommonUtils.escapeFileName(CommonUtils.truncateString(dataContainer.getName(), 32)) :
                         outputSettings.getFileName();
@@ -220,6 +217,31 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
         return sqlProcessor.getWebSession().createAndRunAsyncTask("Data export", runnable);
     }
 
+    private void exportToFile(
+        DBRProgressMonitor monitor,
+        DataTransferProcessorDescriptor processor,
+        DBSDataContainer dataContainer,
+        WebDataTransferParameters parameters,
+        WebSQLResultsInfo resultsInfo,
+        Path exportFile) throws DBException
+    {
+        try {
+            exportData(monitor, processor, dataContainer, parameters, resultsInfo, exportFile, null);
+        } catch (Exception e) {
+            if (Files.exists(exportFile)) {
+                try {
+                    Files.delete(exportFile);
+                } catch (IOException ex) {
+                    log.error("Error deleting export file " + exportFile.toAbsolutePath(), e);
+                }
+            }
+            if (e instanceof DBException dbe) {
+                throw dbe;
+            }
+            throw new DBException("Error exporting data", e);
+        }
+    }
+
     public WebAsyncTaskInfo asyncImportDataContainer(@NotNull String processorId,
                                                      @NotNull Path path,
                                                      @NotNull WebSQLResultsInfo sqlContext,
@@ -263,7 +285,8 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
         DBSDataContainer dataContainer,
         WebDataTransferParameters parameters,
         WebSQLResultsInfo resultsInfo,
-        Path exportFile) throws DBException, IOException
+        Path exportFile,
+        @Nullable WebDataTransferExportStream exportStream) throws DBException, IOException
     {
         IDataTransferProcessor processorInstance = processor.getInstance();
         if (!(processorInstance instanceof IStreamDataExporter)) {
@@ -277,7 +300,10 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
             @Override
             public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
                 super.fetchRow(session, resultSet);
-                if (fileSizeLimit != null && getBytesWritten() > fileSizeLimit.longValue()) {
+                if (exportStream != null) {
+                    // Quota is checked by the download request
+                    exportStream.awaitReader(getBytesWritten());
+                } else if (fileSizeLimit != null && getBytesWritten() > fileSizeLimit.longValue()) {
                     throw new DBQuotaException(
                         "Data export quota exceeded \n Please increase the resourceQuotas parameter in configuration",
                         QUOTA_PROP_FILE_LIMIT, fileSizeLimit.longValue(), getBytesWritten()
@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.ldap.auth;
+
+import org.jkiss.code.NotNull;
+import org.osgi.framework.BundleActivator;
+import org.osgi.framework.BundleContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Closes pooled LDAP connections of the auth providers on server shutdown.
+ */
+public class LdapAuthActivator implements BundleActivator {
+
+    private static final Set<LdapAuthProvider> providers = Collections.newSetFromMap(new WeakHashMap<>());
+
+    static void addProvider(@NotNull LdapAuthProvider provider) {
+        synchronized (providers) {
+            providers.add(provider);
+        }
+    }
+
+    @Override
+    public void start(BundleContext context) {
+    }
+
+    @Override
+    public void stop(BundleContext context) {
+        List<LdapAuthProvider> activeProviders;
+        synchronized (providers) {
+            activeProviders = new ArrayList<>(providers);
+            providers.clear();
+        }
+        for (LdapAuthProvider provider : activeProviders) {
+            provider.resetCache();
+        }
+    }
+}
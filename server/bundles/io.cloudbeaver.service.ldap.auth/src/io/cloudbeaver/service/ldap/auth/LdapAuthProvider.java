@@ -46,7 +46,36 @@ import java.util.UUID;
 public class LdapAuthProvider implements SMAuthProviderExternal<SMSession>, SMBruteForceProtected {
     private static final Log log = Log.getLog(LdapAuthProvider.class);
 
+    private static final long CACHE_TTL = 5 * 60 * 1000;
+    private static final int MAX_CACHED_USERS = 10000;
+
+    @NotNull
+    private final LdapContextFactory contextFactory;
+    @NotNull
+    private final LdapServiceContextPool serviceContextPool;
+    // Cache key -> user DN found by login
+    @NotNull
+    private final LdapTtlCache<String, String> userDNCache;
+    // Cache key -> root DN of the directory
+    @NotNull
+    private final LdapTtlCache<String, String> baseDNCache;
+    // Provider configuration id -> settings the caches were filled with
+    @NotNull
+    private final Map<String, String> configurationKeys = new HashMap<>();
+
     public LdapAuthProvider() {
+        this(InitialDirContext::new, CACHE_TTL);
+    }
+
+    /**
+     * @param cacheTtl time to keep resolved DNs and idle service contexts, 0 disables caching
+     */
+    public LdapAuthProvider(@NotNull LdapContextFactory contextFactory, long cacheTtl) {
+        this.contextFactory = contextFactory;
+        this.serviceContextPool = new LdapServiceContextPool(contextFactory, cacheTtl);
+        this.userDNCache = new LdapTtlCache<>(MAX_CACHED_USERS, cacheTtl);
+        this.baseDNCache = new LdapTtlCache<>(100, cacheTtl);
+        LdapAuthActivator.addProvider(this);
     }
 
     @NotNull
@@ -69,7 +98,7 @@ public class LdapAuthProvider implements SMAuthProviderExternal<SMSession>, SMBr
         }
 
         LdapSettings ldapSettings = new LdapSettings(providerConfig);
-        Hashtable<String, String> environment = creteAuthEnvironment(ldapSettings);
+        checkConfigurationChanged(providerConfig.getId(), ldapSettings);
 
         Map<String, Object> userData = null;
         if (!isFullDN(userName) && CommonUtils.isNotEmpty(ldapSettings.getLoginAttribute())) {
@@ -79,70 +108,119 @@ public class LdapAuthProvider implements SMAuthProviderExternal<SMSession>, SMBr
         if (userData == null) {
             String fullUserDN = buildFullUserDN(userName, ldapSettings);
             validateUserAccess(fullUserDN, ldapSettings);
-            userData = authenticateLdap(fullUserDN, password, ldapSettings, null, environment);
+            userData = authenticateLdap(fullUserDN, password, ldapSettings, null);
         }
         return userData;
     }
+
+    /**
+     * Closes idle service contexts and forgets resolved DNs.
+     */
+    public void resetCache() {
+        serviceContextPool.dispose();
+        userDNCache.clear();
+        baseDNCache.clear();
+    }
+
+    /**
+     * Entries of the old settings are never used again, so they are dropped together with the idle connections.
+     */
+    private void checkConfigurationChanged(@NotNull String configurationId, @NotNull LdapSettings ldapSettings) {
+        String configurationKey = getCacheKey(ldapSettings, ldapSettings.getBindUserPassword());
+        boolean changed;
+        synchronized (configurationKeys) {
+            String prevKey = configurationKeys.put(configurationId, configurationKey);
+            changed = prevKey != null && !prevKey.equals(configurationKey);
+        }
+        if (changed) {
+            log.debug("LDAP configuration '" + configurationId + "' changed, resetting cache");
+            resetCache();
+        }
+    }
+
     /**
-     * Find user and validate in ldap by uniq parameter from identityProviders
-     *
+     * Find user and validate in ldap by uniq parameter from identityProviders.
+     * User DN found by the service user is cached, so the next login doesn't search the directory.
+     * The filter is checked on each login, the user may be removed from the filter group at any moment.
      */
     private Map<String, Object> validateAndLoginUserAccessByUsername(
         @NotNull String login,
         @NotNull String password,
         @NotNull LdapSettings ldapSettings
     ) throws DBException {
-        if (
-            CommonUtils.isEmpty(ldapSettings.getBindUserDN())
-            || CommonUtils.isEmpty(ldapSettings.getBindUserPassword())
-        ) {
+        if (!hasBindUser(ldapSettings)) {
             return null;
         }
-        Hashtable<String, String> serviceUserContext = creteAuthEnvironment(ldapSettings);
-        serviceUserContext.put(Context.SECURITY_PRINCIPAL, ldapSettings.getBindUserDN());
-        serviceUserContext.put(Context.SECURITY_CREDENTIALS, ldapSettings.getBindUserPassword());
-        DirContext serviceContext;
-
-        try {
-            serviceContext = new InitialDirContext(serviceUserContext);
-            String userDN = findUserDN(serviceContext, ldapSettings, login);
-            if (userDN == null) {
-                return null;
+        String cacheKey = getCacheKey(ldapSettings, login);
+        String cachedUserDN = userDNCache.get(cacheKey);
+        DBException cachedDNError = null;
+        if (cachedUserDN != null) {
+            try {
+                validateUserAccess(cachedUserDN, ldapSettings);
+            } catch (DBException e) {
+                userDNCache.remove(cacheKey);
+                throw e;
             }
-            return authenticateLdap(userDN, password, ldapSettings, login, creteAuthEnvironment(ldapSettings));
-        } catch (Exception e) {
-            throw new DBException("LDAP authentication failed: " + e.getMessage(), e);
+            try {
+                return authenticateLdap(cachedUserDN, password, ldapSettings, login);
+            } catch (DBException e) {
+                // Either the password is wrong or the user entry was moved or deleted, look for it again
+                userDNCache.remove(cacheKey);
+                cachedDNError = e;
+            }
+        }
+        String userDN;
+        try {
+            userDN = serviceContextPool.execute(
+                createServiceEnvironment(ldapSettings),
+                serviceContext -> findUserDN(serviceContext, ldapSettings, login)
+            );
+        } catch (NamingException e) {
+            throw new DBException("LDAP authentication failed: Error finding user DN: " + e.getMessage(), e);
         }
+        if (userDN == null) {
+            return null;
+        }
+        if (cachedDNError != null && userDN.equals(cachedUserDN)) {
+            // DN is still valid, it's the password which is wrong
+            userDNCache.put(cacheKey, userDN);
+            throw cachedDNError;
+        }
+        Map<String, Object> userData = authenticateLdap(userDN, password, ldapSettings, login);
+        userDNCache.put(cacheKey, userDN);
+        return userData;
     }
 
     /**
      * Find user and validate in ldap by fullUserDN
      */
     private void validateUserAccess(@NotNull String fullUserDN, @NotNull LdapSettings ldapSettings) throws DBException {
-        if (
-            CommonUtils.isEmpty(ldapSettings.getFilter())
-            || CommonUtils.isEmpty(ldapSettings.getBindUserDN())
-            || CommonUtils.isEmpty(ldapSettings.getBindUserPassword())
-        ) {
+        if (CommonUtils.isEmpty(ldapSettings.getFilter()) || !hasBindUser(ldapSettings)) {
             return;
         }
-
-        var environment = creteAuthEnvironment(ldapSettings);
-        environment.put(Context.SECURITY_PRINCIPAL, ldapSettings.getBindUserDN());
-        environment.put(Context.SECURITY_CREDENTIALS, ldapSettings.getBindUserPassword());
-        DirContext bindUserContext;
+        boolean accessAllowed;
         try {
-            bindUserContext = new InitialDirContext(environment);
-            SearchControls searchControls = createSearchControls();
-            var searchResult = bindUserContext.search(fullUserDN, ldapSettings.getFilter(), searchControls);
-            if (!searchResult.hasMore()) {
-                throw new DBException("Access denied");
-            }
-        } catch (DBException e) {
-            throw e;
+            accessAllowed = serviceContextPool.execute(createServiceEnvironment(ldapSettings), bindUserContext -> {
+                SearchControls searchControls = createSearchControls();
+                NamingEnumeration<SearchResult> searchResult =
+                    bindUserContext.search(fullUserDN, ldapSettings.getFilter(), searchControls);
+                try {
+                    return searchResult.hasMore();
+                } finally {
+                    searchResult.close();
+                }
+            });
         } catch (Exception e) {
             throw new DBException("LDAP user access validation by filter failed: " + e.getMessage(), e);
         }
+        if (!accessAllowed) {
+            throw new DBException("Access denied");
+        }
+    }
+
+    private static boolean hasBindUser(@NotNull LdapSettings ldapSettings) {
+        return CommonUtils.isNotEmpty(ldapSettings.getBindUserDN())
+            && CommonUtils.isNotEmpty(ldapSettings.getBindUserPassword());
     }
 
     @NotNull
@@ -155,30 +233,59 @@ public class LdapAuthProvider implements SMAuthProviderExternal<SMSession>, SMBr
         return environment;
     }
 
-    private String findUserDN(DirContext serviceContext, LdapSettings ldapSettings, String userIdentifier) throws DBException {
-        try {
-            String searchFilter = buildSearchFilter(ldapSettings, userIdentifier);
-            SearchControls searchControls = new SearchControls();
-            searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
-            searchControls.setReturningAttributes(new String[]{"distinguishedName"});
-            String baseDN = getBaseDN(serviceContext, ldapSettings);
+    @NotNull
+    private static Hashtable<String, String> createServiceEnvironment(LdapSettings ldapSettings) {
+        Hashtable<String, String> environment = creteAuthEnvironment(ldapSettings);
+        environment.put(Context.SECURITY_PRINCIPAL, ldapSettings.getBindUserDN());
+        environment.put(Context.SECURITY_CREDENTIALS, ldapSettings.getBindUserPassword());
+        return environment;
+    }
 
-            NamingEnumeration<SearchResult> results = serviceContext.search(baseDN, searchFilter, searchControls);
+    /**
+     * Lookup results depend on the directory, the service user and search settings.
+     */
+    @NotNull
+    private static String getCacheKey(@NotNull LdapSettings ldapSettings, @NotNull String name) {
+        return String.join("\n",
+            ldapSettings.getLdapProviderUrl(),
+            ldapSettings.getBindUserDN(),
+            ldapSettings.getBaseDN(),
+            ldapSettings.getLoginAttribute(),
+            ldapSettings.getFilter(),
+            name
+        );
+    }
+
+    @Nullable
+    private String findUserDN(DirContext serviceContext, LdapSettings ldapSettings, String userIdentifier) throws NamingException, DBException {
+        String searchFilter = buildSearchFilter(ldapSettings, userIdentifier);
+        SearchControls searchControls = new SearchControls();
+        searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchControls.setReturningAttributes(new String[]{"distinguishedName"});
+        String baseDN = getBaseDN(serviceContext, ldapSettings);
 
+        NamingEnumeration<SearchResult> results = serviceContext.search(baseDN, searchFilter, searchControls);
+        try {
             if (results.hasMore()) {
                 return results.next().getNameInNamespace();
             }
             return null;
-        } catch (Exception e) {
-            throw new DBException("Error finding user DN: " + e.getMessage(), e);
+        } finally {
+            results.close();
         }
     }
 
-    private String getBaseDN(DirContext serviceContext, LdapSettings ldapSettings) throws DBException {
-        if (CommonUtils.isEmpty(ldapSettings.getBaseDN())) {
-            return getRootDN(serviceContext);
+    private String getBaseDN(DirContext serviceContext, LdapSettings ldapSettings) throws NamingException, DBException {
+        if (!CommonUtils.isEmpty(ldapSettings.getBaseDN())) {
+            return ldapSettings.getBaseDN();
         }
-        return ldapSettings.getBaseDN();
+        String cacheKey = getCacheKey(ldapSettings, "");
+        String rootDN = baseDNCache.get(cacheKey);
+        if (rootDN == null) {
+            rootDN = getRootDN(serviceContext);
+            baseDNCache.put(cacheKey, rootDN);
+        }
+        return rootDN;
     }
 
     private String buildSearchFilter(LdapSettings ldapSettings, String userIdentifier) {
@@ -189,17 +296,14 @@ public class LdapAuthProvider implements SMAuthProviderExternal<SMSession>, SMBr
         return userFilter;
     }
 
-    private String getRootDN(DirContext adminContext) throws DBException {
-        try {
-            Attributes attributes = adminContext.getAttributes("", new String[]{"namingContexts"});
-            Attribute namingContexts = attributes.get("namingContexts");
-            if (namingContexts != null && namingContexts.size() > 0) {
-                return (String) namingContexts.get(0);
-            }
-            throw new DBException("Root DN not found in namingContexts");
-        } catch (Exception e) {
-            throw new DBException("Error retrieving root DN: " + e.getMessage(), e);
+    @NotNull
+    private String getRootDN(DirContext adminContext) throws NamingException, DBException {
+        Attributes attributes = adminContext.getAttributes("", new String[]{"namingContexts"});
+        Attribute namingContexts = attributes.get("namingContexts");
+        if (namingContexts != null && namingContexts.size() > 0) {
+            return (String) namingContexts.get(0);
         }
+        throw new DBException("Root DN not found in namingContexts");
     }
 
     @NotNull
@@ -321,14 +425,14 @@ public class LdapAuthProvider implements SMAuthProviderExternal<SMSession>, SMBr
         String userDN,
         String password,
         LdapSettings ldapSettings,
-        @Nullable String login,
-        Hashtable<String, String> environment
+        @Nullable String login
     ) throws DBException {
+        Hashtable<String, String> environment = creteAuthEnvironment(ldapSettings);
         environment.put(Context.SECURITY_PRINCIPAL, userDN);
         environment.put(Context.SECURITY_CREDENTIALS, password);
         DirContext userContext = null;
         try {
-            userContext = new InitialDirContext(environment);
+            userContext = contextFactory.createContext(environment);
             Map<String, Object> userData = new HashMap<>();
             userData.put(LdapConstants.CRED_USERNAME, findUserNameFromDN(userDN, ldapSettings));
             userData.put(LdapConstants.CRED_SESSION_ID, UUID.randomUUID());
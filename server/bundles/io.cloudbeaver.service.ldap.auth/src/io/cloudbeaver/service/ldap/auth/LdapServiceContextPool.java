@@ -0,0 +1,203 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.ldap.auth;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.DirContext;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pool of directory contexts bound as the service (bind) user.
+ * <p>
+ * Contexts are kept per provider URL and bind credentials, so a configuration change never reuses old contexts.
+ * Idle contexts are closed after the idle timeout by a background job. Broken connection of a pooled context is replaced
+ * with a new one and the operation is repeated once.
+ */
+class LdapServiceContextPool {
+    private static final Log log = Log.getLog(LdapServiceContextPool.class);
+
+    private static final int MAX_IDLE_CONTEXTS = 4;
+
+    @FunctionalInterface
+    interface ContextOperation<T> {
+        T execute(@NotNull DirContext context) throws NamingException, DBException;
+    }
+
+    @NotNull
+    private final LdapContextFactory contextFactory;
+    private final long idleTimeout;
+    private final Map<String, Deque<IdleContext>> idleContexts = new HashMap<>();
+    @NotNull
+    private final EvictionJob evictionJob = new EvictionJob();
+
+    LdapServiceContextPool(@NotNull LdapContextFactory contextFactory, long idleTimeout) {
+        this.contextFactory = contextFactory;
+        this.idleTimeout = idleTimeout;
+    }
+
+    <T> T execute(
+        @NotNull Hashtable<String, String> environment,
+        @NotNull ContextOperation<T> operation
+    ) throws NamingException, DBException {
+        String poolKey = getPoolKey(environment);
+        DirContext context = borrowContext(poolKey);
+        boolean pooled = context != null;
+        if (context == null) {
+            context = contextFactory.createContext(environment);
+        }
+        try {
+            T result = operation.execute(context);
+            releaseContext(poolKey, context);
+            return result;
+        } catch (CommunicationException | ServiceUnavailableException e) {
+            closeContext(context);
+            if (!pooled) {
+                throw e;
+            }
+            log.debug("Pooled LDAP connection is broken, reconnecting: " + e.getMessage());
+            context = contextFactory.createContext(environment);
+            try {
+                T result = operation.execute(context);
+                releaseContext(poolKey, context);
+                return result;
+            } catch (NamingException | DBException | RuntimeException e2) {
+                closeContext(context);
+                throw e2;
+            }
+        } catch (NamingException | DBException | RuntimeException e) {
+            // Operation failure doesn't break the connection
+            releaseContext(poolKey, context);
+            throw e;
+        }
+    }
+
+    synchronized void dispose() {
+        evictionJob.cancel();
+        for (Deque<IdleContext> contexts : idleContexts.values()) {
+            for (IdleContext idleContext : contexts) {
+                closeContext(idleContext.context());
+            }
+        }
+        idleContexts.clear();
+    }
+
+    @Nullable
+    private synchronized DirContext borrowContext(@NotNull String poolKey) {
+        removeExpiredContexts();
+        Deque<IdleContext> contexts = idleContexts.get(poolKey);
+        if (contexts == null) {
+            return null;
+        }
+        IdleContext idleContext = contexts.pollFirst();
+        if (contexts.isEmpty()) {
+            idleContexts.remove(poolKey);
+        }
+        return idleContext == null ? null : idleContext.context();
+    }
+
+    private void releaseContext(@NotNull String poolKey, @NotNull DirContext context) {
+        synchronized (this) {
+            if (idleTimeout > 0) {
+                Deque<IdleContext> contexts = idleContexts.computeIfAbsent(poolKey, key -> new ArrayDeque<>());
+                if (contexts.size() < MAX_IDLE_CONTEXTS) {
+                    contexts.addFirst(new IdleContext(context, System.currentTimeMillis() + idleTimeout));
+                    // Running job is scheduled again after it finishes
+                    int jobState = evictionJob.getState();
+                    if (jobState != Job.SLEEPING && jobState != Job.WAITING) {
+                        evictionJob.schedule(idleTimeout);
+                    }
+                    return;
+                }
+            }
+        }
+        closeContext(context);
+    }
+
+    private void removeExpiredContexts() {
+        long currentTime = System.currentTimeMillis();
+        for (Iterator<Deque<IdleContext>> iterator = idleContexts.values().iterator(); iterator.hasNext(); ) {
+            Deque<IdleContext> contexts = iterator.next();
+            contexts.removeIf(idleContext -> {
+                if (idleContext.expireTime() <= currentTime) {
+                    closeContext(idleContext.context());
+                    return true;
+                }
+                return false;
+            });
+            if (contexts.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @NotNull
+    private static String getPoolKey(@NotNull Hashtable<String, String> environment) {
+        return environment.get(Context.PROVIDER_URL)
+            + "\n" + environment.get(Context.SECURITY_PRINCIPAL)
+            + "\n" + environment.get(Context.SECURITY_CREDENTIALS);
+    }
+
+    private static void closeContext(@NotNull DirContext context) {
+        try {
+            context.close();
+        } catch (NamingException e) {
+            log.debug("Error closing LDAP context", e);
+        }
+    }
+
+    /**
+     * Closes expired contexts while there are idle contexts in the pool
+     */
+    private class EvictionJob extends AbstractJob {
+        EvictionJob() {
+            super("Close idle LDAP connections");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            synchronized (LdapServiceContextPool.this) {
+                removeExpiredContexts();
+                if (!idleContexts.isEmpty()) {
+                    schedule(idleTimeout);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private record IdleContext(@NotNull DirContext context, long expireTime) {
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.ldap.auth;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of directory lookup results.
+ * Entries expire after the specified time, the least recently used entries are evicted when cache is full.
+ */
+class LdapTtlCache<K, V> {
+
+    private final long ttl;
+    private final Map<K, CacheEntry<V>> entries;
+
+    LdapTtlCache(int maxSize, long ttl) {
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Nullable
+    synchronized V get(@NotNull K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireTime() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    synchronized void put(@NotNull K key, @NotNull V value) {
+        if (ttl > 0) {
+            entries.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    synchronized void remove(@NotNull K key) {
+        entries.remove(key);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    private record CacheEntry<V>(@NotNull V value, long expireTime) {
+    }
+}
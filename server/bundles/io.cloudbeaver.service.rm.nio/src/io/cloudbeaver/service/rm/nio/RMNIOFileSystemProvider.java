@@ -16,7 +16,9 @@
  */
 package io.cloudbeaver.service.rm.nio;
 
+import io.cloudbeaver.model.rm.local.LocalResourceController;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.nio.NIOFileSystemProvider;
 import org.jkiss.dbeaver.model.nio.NIOUtils;
@@ -30,12 +32,15 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileAttributeView;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -94,7 +99,7 @@ public class RMNIOFileSystemProvider extends NIOFileSystemProvider {
     }
 
     @Override
-    public RMByteArrayChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs)
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs)
         throws IOException {
         RMPath rmPath = (RMPath) path;
         if (Files.isDirectory(rmPath)) {
@@ -102,6 +107,13 @@ public class RMNIOFileSystemProvider extends NIOFileSystemProvider {
         }
 
         try {
+            if (rmController instanceof LocalResourceController localController) {
+                SeekableByteChannel fileChannel = openLocalChannel(localController, rmPath, options);
+                if (fileChannel != null) {
+                    return fileChannel;
+                }
+            }
+            // Resource content is loaded into memory
             if (Files.exists(path)) {
                 byte[] data = rmController.getResourceContents(rmPath.getRmProjectId(), rmPath.getResourcePath());
                 return new RMByteArrayChannel(data, rmPath, options);
@@ -113,8 +125,53 @@ public class RMNIOFileSystemProvider extends NIOFileSystemProvider {
         }
     }
 
+    /**
+     * Opens channel which streams data directly from/to the resource file of a local project.
+     * Returns null for options which require the in-memory channel (read-write access, in-place overwrite).
+     */
+    @Nullable
+    private SeekableByteChannel openLocalChannel(
+        @NotNull LocalResourceController localController,
+        @NotNull RMPath rmPath,
+        @NotNull Set<? extends OpenOption> options
+    ) throws IOException, DBException {
+        if (options.contains(StandardOpenOption.DELETE_ON_CLOSE)) {
+            return null;
+        }
+        boolean exists = Files.exists(rmPath);
+        boolean append = options.contains(StandardOpenOption.APPEND);
+        if (!append && !options.contains(StandardOpenOption.WRITE)) {
+            if (!exists) {
+                throw new NoSuchFileException(rmPath.toString());
+            }
+            return localController.openResourceReadChannel(rmPath.getRmProjectId(), rmPath.getResourcePath());
+        }
+        if (options.contains(StandardOpenOption.READ)
+            || (exists && !append && !options.contains(StandardOpenOption.TRUNCATE_EXISTING))) {
+            return null;
+        }
+        if (exists && options.contains(StandardOpenOption.CREATE_NEW)) {
+            throw new FileAlreadyExistsException(rmPath.toString());
+        }
+        if (!exists && !options.contains(StandardOpenOption.CREATE) && !options.contains(StandardOpenOption.CREATE_NEW)) {
+            throw new NoSuchFileException(rmPath.toString());
+        }
+        return localController.openResourceWriteChannel(rmPath.getRmProjectId(), rmPath.getResourcePath(), append);
+    }
+
     @Override
     public OutputStream newOutputStream(Path path, OpenOption... options) throws IOException {
+        if (rmController instanceof LocalResourceController) {
+            Set<OpenOption> openOptions = new HashSet<>();
+            if (options.length == 0) {
+                openOptions.add(StandardOpenOption.CREATE);
+                openOptions.add(StandardOpenOption.TRUNCATE_EXISTING);
+            } else {
+                openOptions.addAll(Arrays.asList(options));
+            }
+            openOptions.add(StandardOpenOption.WRITE);
+            return Channels.newOutputStream(newByteChannel(path, openOptions));
+        }
         return new RMOutputStream((RMPath) path);
     }
 
@@ -77,6 +77,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     implements SMAdminController, SMAuthenticationManager {
 
     private static final Log log = Log.getLog(CBEmbeddedSecurityController.class);
+    // Keeps IN lists within the limits of all supported databases
+    private static final int MAX_SUBJECTS_PER_QUERY = 1000;
 
     protected static final String CHAR_BOOL_TRUE = "Y";
     protected static final String CHAR_BOOL_FALSE = "N";
@@ -92,6 +94,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     protected final SMCredentialsProvider credentialsProvider;
 
     protected final SMControllerConfiguration smConfig;
+    protected final SMPermissionCache permissionCache;
 
     public CBEmbeddedSecurityController(
         T application,
@@ -103,6 +106,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         this.database = database;
         this.credentialsProvider = credentialsProvider;
         this.smConfig = smConfig;
+        this.permissionCache = database.getPermissionCache();
         //设置用户数据源
         this.userdatabase = EmbeddedSecurityControllerFactory.getUserInstance();
 
@@ -152,6 +156,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         } catch (SQLException e) {
             throw new DBCException("Error saving user in database", e);
         }
+        permissionCache.invalidatePermissions();
     }
 
     /**
@@ -195,6 +200,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
        } catch (SQLException e) {
            log.error("Failed attempt import user: " + e.getMessage());
        }
+       permissionCache.invalidatePermissions();
     }
 
     protected void importUsers(@NotNull Connection connection, @NotNull SMUserImportList userImportList)
@@ -230,6 +236,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         } catch (SQLException e) {
             throw new DBCException("Error deleting user from database", e);
         }
+        permissionCache.invalidatePermissions();
         var event = new WSUserDeletedEvent(userId);
         application.getEventController().addEvent(event);
     }
@@ -426,13 +433,24 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                     }
                 }
             }
-            readSubjectsMetas(dbCon, SMSubjectType.team, null, teams);
+            readSubjectsMetas(dbCon, teams);
             return teams.values().toArray(new SMUserTeam[0]);
         } catch (SQLException e) {
             throw new DBCException("Error while reading user teams", e);
         }
     }
 
+    @NotNull
+    private Set<String> getAllLinkedSubjects(@NotNull String subjectId) throws DBException {
+        return permissionCache.getLinkedSubjects(subjectId, () -> {
+            try (Connection dbCon = database.openConnection()) {
+                return Collections.unmodifiableSet(getAllLinkedSubjects(dbCon, subjectId));
+            } catch (SQLException e) {
+                throw new DBCException("Error reading subject teams", e);
+            }
+        });
+    }
+
     private Set<String> getAllLinkedSubjects(Connection dbCon, String subjectId) throws SQLException {
         Set<String> allSubjects = new HashSet<>();
         allSubjects.add(subjectId);
@@ -563,7 +581,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 return new SMUser[0];
             }
 
-            readSubjectsMetas(dbCon, SMSubjectType.user, filter.getUserIdMask(), result);
+            readSubjectsMetas(dbCon, result);
             String teamsSql =
                 "SELECT USER_ID,TEAM_ID FROM {table_prefix}CB_USER_TEAM\n" +
                 "WHERE USER_ID IN (" + SQLUtils.generateParamList(result.size()) + ")";
@@ -649,28 +667,33 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         }
     }
 
-    private void readSubjectsMetas(Connection dbCon, SMSubjectType subjectType, String userIdMask,
-                                   Map<String, ? extends SMSubject> result) throws SQLException {
-        // Read metas
-        try (PreparedStatement dbStat = dbCon.prepareStatement(
-            database.normalizeTableNames("SELECT m.SUBJECT_ID,m.META_ID,m.META_VALUE FROM {table_prefix}CB_AUTH_SUBJECT s, " +
-                "{table_prefix}CB_SUBJECT_META m\n" +
-                "WHERE s.SUBJECT_TYPE=? AND s.SUBJECT_ID=m.SUBJECT_ID" +
-                (CommonUtils.isEmpty(userIdMask) ? "" : " AND s.SUBJECT_ID LIKE ?")))
-        ) {
-            dbStat.setString(1, subjectType.getCode());
-            if (!CommonUtils.isEmpty(userIdMask)) {
-                dbStat.setString(2, "%" + userIdMask + "%");
-            }
-            try (ResultSet dbResult = dbStat.executeQuery()) {
-                while (dbResult.next()) {
-                    String subjectId = dbResult.getString(1);
-                    SMSubject subject = result.get(subjectId);
-                    if (subject != null) {
-                        subject.setMetaParameter(
-                            dbResult.getString(2),
-                            dbResult.getString(3)
-                        );
+    /**
+     * Reads metas of all specified subjects. Subjects are read by chunks with a single query per chunk.
+     */
+    private void readSubjectsMetas(Connection dbCon, Map<String, ? extends SMSubject> subjects) throws SQLException {
+        if (subjects.isEmpty()) {
+            return;
+        }
+        List<String> subjectIds = new ArrayList<>(subjects.keySet());
+        for (int offset = 0; offset < subjectIds.size(); offset += MAX_SUBJECTS_PER_QUERY) {
+            List<String> chunk = subjectIds.subList(offset, Math.min(offset + MAX_SUBJECTS_PER_QUERY, subjectIds.size()));
+            try (PreparedStatement dbStat = dbCon.prepareStatement(database.normalizeTableNames(
+                "SELECT SUBJECT_ID,META_ID,META_VALUE FROM {table_prefix}CB_SUBJECT_META\n" +
+                    "WHERE SUBJECT_ID IN (" + SQLUtils.generateParamList(chunk.size()) + ")"))
+            ) {
+                int parameterIndex = 1;
+                for (String subjectId : chunk) {
+                    dbStat.setString(parameterIndex++, subjectId);
+                }
+                try (ResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        SMSubject subject = subjects.get(dbResult.getString(1));
+                        if (subject != null) {
+                            subject.setMetaParameter(
+                                dbResult.getString(2),
+                                dbResult.getString(3)
+                            );
+                        }
                     }
                 }
             }
@@ -1230,7 +1253,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                     }
                 }
             }
-            readSubjectsMetas(dbCon, SMSubjectType.team, null, teams);
+            readSubjectsMetas(dbCon, teams);
             return teams.values().toArray(new SMTeam[0]);
         } catch (SQLException e) {
             throw new DBCException("Error reading teams from database", e);
@@ -1422,6 +1445,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         } catch (SQLException e) {
             throw new DBCException("Error deleting team from database", e);
         }
+        permissionCache.invalidatePermissions();
         if (force) {
             addSubjectPermissionsUpdateEvent(teamId, SMSubjectType.team);
         }
@@ -1482,6 +1506,14 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     @NotNull
     @Override
     public Set<String> getSubjectPermissions(String subjectId) throws DBException {
+        return new HashSet<>(permissionCache.getSubjectPermissions(
+            subjectId,
+            () -> Collections.unmodifiableSet(readSubjectPermissions(subjectId))
+        ));
+    }
+
+    @NotNull
+    private Set<String> readSubjectPermissions(@NotNull String subjectId) throws DBException {
         try (Connection dbCon = database.openConnection()) {
             Set<String> permissions = new HashSet<>();
             try (PreparedStatement dbStat = dbCon.prepareStatement(
@@ -1502,6 +1534,14 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     @NotNull
     @Override
     public Set<String> getUserPermissions(String userId) throws DBException {
+        return new HashSet<>(permissionCache.getUserPermissions(
+            userId,
+            () -> Collections.unmodifiableSet(readUserPermissions(userId))
+        ));
+    }
+
+    @NotNull
+    private Set<String> readUserPermissions(@NotNull String userId) throws DBException {
         try (Connection dbCon = database.openConnection()) {
             Set<String> permissions = new HashSet<>();
             try (PreparedStatement dbStat = dbCon.prepareStatement(
@@ -1527,7 +1567,6 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                     }
                 }
             }
-            permissions.addAll(getSubjectPermissions(userId));
             return permissions;
         } catch (SQLException e) {
             throw new DBCException("Error reading user permissions", e);
@@ -2456,6 +2495,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN WHERE TOKEN_ID=?"), smToken);
         } catch (SQLException e) {
             throw new DBCException("Session invalidation failed", e);
+        } finally {
+            permissionCache.invalidateToken(smToken);
         }
     }
 
@@ -2466,6 +2507,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN"));
         } catch (SQLException e) {
             throw new DBCException("Session invalidation failed", e);
+        } finally {
+            permissionCache.invalidateTokens();
         }
         application.getEventController().addEvent(new WSUserCloseSessionsEvent(List.of(), getSmSessionId(), getUserId()));
     }
@@ -2476,6 +2519,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN WHERE USER_ID=?"), userId);
         } catch (SQLException e) {
             throw new DBCException("Session invalidation failed", e);
+        } finally {
+            permissionCache.invalidateTokens();
         }
     }
 
@@ -3636,6 +3681,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     ) throws SQLException, DBException {
         JDBCUtils.executeStatement(
             dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN WHERE SESSION_ID=?"), smSessionId);
+        permissionCache.invalidateTokens();
         return generateNewSessionTokens(smSessionId, userId, authRole, dbCon);
     }
 
@@ -3697,6 +3743,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
             }
         } catch (SQLException e) {
             throw new DBException("Error delete active user's session", e);
+        } finally {
+            permissionCache.invalidateTokens();
         }
     }
 
@@ -3741,9 +3789,17 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
 
     @NotNull
     private SMAuthPermissions getTokenPermissions(@NotNull String token) throws DBException {
-        String userId;
-        String sessionId;
-        String authRole;
+        SMPermissionCache.TokenInfo tokenInfo = permissionCache.getTokenInfo(token, () -> readTokenInfo(token));
+        if (application.isMultiNode() && isTokenExpired(tokenInfo.expirationTime())) {
+            throw new SMAccessTokenExpiredException("Error reading permissions: token has expired");
+        }
+        String userId = tokenInfo.userId();
+        var permissions = userId == null ? getAnonymousUserPermissions() : getUserPermissions(userId, tokenInfo.authRole());
+        return new SMAuthPermissions(userId, tokenInfo.sessionId(), permissions);
+    }
+
+    @NotNull
+    private SMPermissionCache.TokenInfo readTokenInfo(@NotNull String token) throws DBException {
         try (Connection dbCon = database.openConnection();
              PreparedStatement dbStat = dbCon.prepareStatement(
                  database.normalizeTableNames("""
@@ -3755,19 +3811,16 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 if (!dbResult.next()) {
                     throw new SMException("Error reading permissions: input token not recognized.");
                 }
-                userId = dbResult.getString(1);
-                var expiredDate = dbResult.getTimestamp(2);
-                if (application.isMultiNode() && isTokenExpired(expiredDate)) {
-                    throw new SMAccessTokenExpiredException("Error reading permissions: token has expired");
-                }
-                sessionId = dbResult.getString(3);
-                authRole = dbResult.getString(4);
+                return new SMPermissionCache.TokenInfo(
+                    dbResult.getString(1),
+                    dbResult.getString(3),
+                    dbResult.getString(4),
+                    dbResult.getTimestamp(2)
+                );
             }
         } catch (SQLException e) {
             throw new DBCException("Error reading token info in database", e);
         }
-        var permissions = userId == null ? getAnonymousUserPermissions() : getUserPermissions(userId, authRole);
-        return new SMAuthPermissions(userId, sessionId, permissions);
     }
 
     @Override
@@ -3980,6 +4033,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
 
 
     private void addSubjectPermissionsUpdateEvent(@NotNull String subjectId, @Nullable SMSubjectType subjectType) {
+        permissionCache.invalidatePermissions();
         if (subjectType == null) {
             subjectType = getSubjectType(subjectId);
         }
@@ -3997,6 +4051,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     }
 
     private void addObjectPermissionsUpdateEvent(@NotNull Set<String> objectIds, @NotNull SMObjectType objectType) {
+        permissionCache.invalidatePermissions();
         for (var objectId : objectIds) {
             var event = WSObjectPermissionEvent.update(
                 getSmSessionId(),
@@ -4009,6 +4064,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     }
 
     private void addObjectPermissionsDeleteEvent(@NotNull Set<String> objectIds, @NotNull SMObjectType objectType) {
+        permissionCache.invalidatePermissions();
         for (var objectId : objectIds) {
             var event = WSObjectPermissionEvent.delete(
                 getSmSessionId(),
@@ -4032,6 +4088,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         } catch (SQLException e) {
             throw new DBCException("Error deleting object permissions", e);
         }
+        permissionCache.invalidatePermissions();
     }
 
     @Override
@@ -4082,6 +4139,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         } catch (SQLException e) {
             throw new DBCException("Error deleting subject permissions", e);
         }
+        permissionCache.invalidatePermissions();
     }
 
     @NotNull
@@ -4098,34 +4156,10 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     @NotNull
     @Override
     public List<SMObjectPermissions> getAllAvailableObjectsPermissions(@NotNull SMObjectType objectType) throws DBException {
-
-        String subjectId = getSubjectId();
-        try (Connection dbCon = database.openConnection()) {
-            Set<String> allSubjects = getAllLinkedSubjects(dbCon, subjectId);
-            {
-                var sqlBuilder = new StringBuilder("SELECT OBJECT_ID,PERMISSION FROM {table_prefix}CB_OBJECT_PERMISSIONS ");
-                sqlBuilder.append("WHERE SUBJECT_ID IN (");
-                appendStringParameters(sqlBuilder, allSubjects);
-                sqlBuilder.append(") AND OBJECT_TYPE=?");
-                try (PreparedStatement dbStat = dbCon.prepareStatement(database.normalizeTableNames(sqlBuilder.toString()))) {
-                    dbStat.setString(1, objectType.name());
-
-                    var permissionsByObjectId = new LinkedHashMap<String, Set<String>>();
-                    try (ResultSet dbResult = dbStat.executeQuery()) {
-                        while (dbResult.next()) {
-                            var objectId = dbResult.getString(1);
-                            permissionsByObjectId.computeIfAbsent(objectId, key -> new HashSet<>()).add(dbResult.getString(2));
-                        }
-                    }
-                    return permissionsByObjectId.entrySet()
-                        .stream()
-                        .map(entry -> new SMObjectPermissions(entry.getKey(), entry.getValue()))
-                        .collect(Collectors.toList());
-                }
-            }
-        } catch (SQLException e) {
-            throw new DBCException("Error reading projects permissions", e);
-        }
+        return getAvailableObjectsPermissions(getSubjectId(), objectType).entrySet()
+            .stream()
+            .map(entry -> new SMObjectPermissions(entry.getKey(), new HashSet<>(entry.getValue())))
+            .collect(Collectors.toList());
     }
 
     @NotNull
@@ -4135,30 +4169,43 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         @NotNull String objectId,
         @NotNull SMObjectType objectType
     ) throws DBException {
-        try (Connection dbCon = database.openConnection()) {
-            Set<String> allSubjects = getAllLinkedSubjects(dbCon, subjectId);
-            {
-                var sqlBuilder = new StringBuilder("SELECT PERMISSION FROM {table_prefix}CB_OBJECT_PERMISSIONS ");
-                sqlBuilder.append("WHERE SUBJECT_ID IN (");
-                appendStringParameters(sqlBuilder, allSubjects);
-                sqlBuilder.append(") AND OBJECT_TYPE=? AND OBJECT_ID=?");
+        Set<String> permissions = getAvailableObjectsPermissions(subjectId, objectType).get(objectId);
+        return new SMObjectPermissions(objectId, permissions == null ? new HashSet<>() : new HashSet<>(permissions));
+    }
 
-                try (PreparedStatement dbStat = dbCon.prepareStatement(database.normalizeTableNames(sqlBuilder.toString()))) {
-                    dbStat.setString(1, objectType.name());
-                    dbStat.setString(2, objectId);
+    /**
+     * Returns permissions of all objects of the specified type granted to the subject or to its teams
+     */
+    @NotNull
+    private Map<String, Set<String>> getAvailableObjectsPermissions(
+        @NotNull String subjectId,
+        @NotNull SMObjectType objectType
+    ) throws DBException {
+        return permissionCache.getObjectPermissions(subjectId, objectType, () -> {
+            Set<String> allSubjects = getAllLinkedSubjects(subjectId);
+            String sql = "SELECT OBJECT_ID,PERMISSION FROM {table_prefix}CB_OBJECT_PERMISSIONS " +
+                "WHERE SUBJECT_ID IN (" + SQLUtils.generateParamList(allSubjects.size()) + ") AND OBJECT_TYPE=?";
+            try (Connection dbCon = database.openConnection();
+                 PreparedStatement dbStat = dbCon.prepareStatement(database.normalizeTableNames(sql))
+            ) {
+                int index = 1;
+                for (String linkedSubjectId : allSubjects) {
+                    dbStat.setString(index++, linkedSubjectId);
+                }
+                dbStat.setString(index, objectType.name());
 
-                    var permissions = new HashSet<String>();
-                    try (ResultSet dbResult = dbStat.executeQuery()) {
-                        while (dbResult.next()) {
-                            permissions.add(dbResult.getString(1));
-                        }
+                var permissionsByObjectId = new LinkedHashMap<String, Set<String>>();
+                try (ResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        var objectId = dbResult.getString(1);
+                        permissionsByObjectId.computeIfAbsent(objectId, key -> new HashSet<>()).add(dbResult.getString(2));
                     }
-                    return new SMObjectPermissions(objectId, permissions);
                 }
+                return Collections.unmodifiableMap(permissionsByObjectId);
+            } catch (SQLException e) {
+                throw new DBCException("Error reading projects permissions", e);
             }
-        } catch (SQLException e) {
-            throw new DBCException("Error reading projects permissions", e);
-        }
+        });
     }
 
     @NotNull
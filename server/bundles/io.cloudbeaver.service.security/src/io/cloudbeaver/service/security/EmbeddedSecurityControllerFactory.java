@@ -23,6 +23,7 @@ import io.cloudbeaver.model.app.ServletAuthApplication;
 import io.cloudbeaver.model.config.SMControllerConfiguration;
 import io.cloudbeaver.model.config.WebDatabaseConfig;
 import io.cloudbeaver.service.security.db.CBDatabase;
+import io.cloudbeaver.service.security.indaas.LoginPorcess;
 import io.cloudbeaver.service.security.internal.ClearAuthAttemptInfoJob;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
@@ -134,13 +135,13 @@ public class EmbeddedSecurityControllerFactory<T extends ServletAuthApplication>
                             userdatabaseConfig,
                             smConfig
                     );
+                    LoginPorcess.initTokenCache(smConfig);
                 }
                 try {
                     log.info("USER_INSTANCE.openConnection().getMetaData().getDatabaseProductName():"+USER_INSTANCE.openConnection().getMetaData().getDatabaseProductName());
                 }catch (Exception e){
                     e.printStackTrace();
                 }
-
             }
         }
 
@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.security;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.security.SMObjectType;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned in-memory cache of subject permissions, linked subjects and access tokens.
+ * <p>
+ * Each entry remembers the cache version it was loaded with. Any permission, team membership or subject change
+ * increments the version, so all entries loaded before the change (including ones which are being loaded right now)
+ * become stale at once. Token entries have their own version because tokens are regenerated on every login.
+ * <p>
+ * Cached values are shared, callers must not modify them.
+ */
+public class SMPermissionCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final int maxSize;
+    private final AtomicLong permissionsVersion = new AtomicLong();
+    private final AtomicLong tokensVersion = new AtomicLong();
+
+    private final Map<String, CachedValue<Set<String>>> subjectPermissions = new ConcurrentHashMap<>();
+    private final Map<String, CachedValue<Set<String>>> userPermissions = new ConcurrentHashMap<>();
+    private final Map<String, CachedValue<Set<String>>> linkedSubjects = new ConcurrentHashMap<>();
+    private final Map<ObjectPermissionsKey, CachedValue<Map<String, Set<String>>>> objectPermissions = new ConcurrentHashMap<>();
+    private final Map<String, CachedValue<TokenInfo>> tokens = new ConcurrentHashMap<>();
+
+    public SMPermissionCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SMPermissionCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    @NotNull
+    public Set<String> getSubjectPermissions(
+        @NotNull String subjectId,
+        @NotNull Loader<Set<String>> loader
+    ) throws DBException {
+        return getOrLoad(subjectPermissions, subjectId, permissionsVersion, loader);
+    }
+
+    @NotNull
+    public Set<String> getUserPermissions(
+        @NotNull String userId,
+        @NotNull Loader<Set<String>> loader
+    ) throws DBException {
+        return getOrLoad(userPermissions, userId, permissionsVersion, loader);
+    }
+
+    /**
+     * Returns subject itself and all teams the subject belongs to
+     */
+    @NotNull
+    public Set<String> getLinkedSubjects(
+        @NotNull String subjectId,
+        @NotNull Loader<Set<String>> loader
+    ) throws DBException {
+        return getOrLoad(linkedSubjects, subjectId, permissionsVersion, loader);
+    }
+
+    /**
+     * Returns permissions of all objects of the specified type available for the subject (object id -> permissions)
+     */
+    @NotNull
+    public Map<String, Set<String>> getObjectPermissions(
+        @NotNull String subjectId,
+        @NotNull SMObjectType objectType,
+        @NotNull Loader<Map<String, Set<String>>> loader
+    ) throws DBException {
+        return getOrLoad(objectPermissions, new ObjectPermissionsKey(subjectId, objectType), permissionsVersion, loader);
+    }
+
+    @NotNull
+    public TokenInfo getTokenInfo(
+        @NotNull String token,
+        @NotNull Loader<TokenInfo> loader
+    ) throws DBException {
+        return getOrLoad(tokens, token, tokensVersion, loader);
+    }
+
+    /**
+     * Invalidates all cached permissions. Must be called after any permission or team membership change.
+     */
+    public void invalidatePermissions() {
+        permissionsVersion.incrementAndGet();
+        subjectPermissions.clear();
+        userPermissions.clear();
+        linkedSubjects.clear();
+        objectPermissions.clear();
+    }
+
+    public void invalidateToken(@NotNull String token) {
+        tokens.remove(token);
+    }
+
+    /**
+     * Invalidates all cached tokens. Must be called when tokens are removed by session or user.
+     */
+    public void invalidateTokens() {
+        tokensVersion.incrementAndGet();
+        tokens.clear();
+    }
+
+    public void invalidateAll() {
+        invalidatePermissions();
+        invalidateTokens();
+    }
+
+    @NotNull
+    private <K, V> V getOrLoad(
+        @NotNull Map<K, CachedValue<V>> cache,
+        @NotNull K key,
+        @NotNull AtomicLong version,
+        @NotNull Loader<V> loader
+    ) throws DBException {
+        if (!isEnabled()) {
+            return loader.load();
+        }
+        long currentVersion = version.get();
+        CachedValue<V> cached = cache.get(key);
+        if (cached != null && cached.version() == currentVersion) {
+            return cached.value();
+        }
+        V value = loader.load();
+        if (cache.size() >= maxSize) {
+            // Simple overflow protection, entries will be reloaded on demand
+            cache.clear();
+        }
+        // Value loaded concurrently with invalidation is stored with the old version and will never be returned
+        cache.put(key, new CachedValue<>(currentVersion, value));
+        return value;
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        @NotNull
+        V load() throws DBException;
+    }
+
+    public record TokenInfo(
+        @Nullable String userId,
+        @Nullable String sessionId,
+        @Nullable String authRole,
+        @Nullable Timestamp expirationTime
+    ) {
+    }
+
+    private record CachedValue<V>(long version, @NotNull V value) {
+    }
+
+    private record ObjectPermissionsKey(@NotNull String subjectId, @NotNull SMObjectType objectType) {
+    }
+}
@@ -24,6 +24,7 @@ import io.cloudbeaver.model.app.ServletApplication;
 import io.cloudbeaver.model.config.WebDatabaseConfig;
 import io.cloudbeaver.registry.WebAuthProviderDescriptor;
 import io.cloudbeaver.registry.WebAuthProviderRegistry;
+import io.cloudbeaver.service.security.SMPermissionCache;
 import io.cloudbeaver.service.security.indaas.LoginPorcess;
 import io.cloudbeaver.utils.ServletAppUtils;
 import org.apache.commons.dbcp2.*;
@@ -92,10 +93,13 @@ public class CBDatabase {
     private String instanceId;
     private SMAdminController adminSecurityController;
     private SQLDialect dialect;
+    private final SMPermissionCache permissionCache;
 
     public CBDatabase(ServletApplication application, WebDatabaseConfig databaseConfiguration) {
         this.application = application;
         this.databaseConfiguration = databaseConfiguration;
+        // In cluster permissions may be changed by other nodes, so they are always read from database
+        this.permissionCache = new SMPermissionCache(application.isMultiNode() ? 0 : SMPermissionCache.DEFAULT_MAX_SIZE);
     }
 
     public void setAdminSecurityController(SMAdminController adminSecurityController) {
@@ -117,6 +121,14 @@ public class CBDatabase {
         return cbDataSource;
     }
 
+    /**
+     * Permission cache shared by all security controllers working with this database
+     */
+    @NotNull
+    public SMPermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
     public void initialize() throws DBException {
         log.debug("Initiate management database");
         if (CommonUtils.isEmpty(databaseConfiguration.getDriver())) {
@@ -0,0 +1,145 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.security.indaas;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of validated rdp_session tokens.
+ * Tokens are shared with other services, so validation result is kept only for a short staleness window:
+ * token revocation made by other services takes effect after this window.
+ * Session expiry time extensions are collected and written in batches, at most once per update period.
+ */
+public class IndaasTokenCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final long expiryUpdatePeriodMillis;
+
+    private final Map<String, CachedToken> tokens;
+    // Session id -> time of the last expiry time extension
+    private final Map<String, Long> expiryUpdateTimes = new ConcurrentHashMap<>();
+    private final Set<String> pendingExpiryUpdates = ConcurrentHashMap.newKeySet();
+
+    public IndaasTokenCache(long ttlMillis, int maxSize, long expiryUpdatePeriodMillis) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.expiryUpdatePeriodMillis = expiryUpdatePeriodMillis;
+        this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+                return size() > IndaasTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    public long getExpiryUpdatePeriodMillis() {
+        return expiryUpdatePeriodMillis;
+    }
+
+    /**
+     * Returns cached session of the token if it was validated within staleness window and is not expired yet.
+     */
+    @Nullable
+    public LocalSession getSession(@NotNull String token) {
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        CachedToken cachedToken;
+        synchronized (tokens) {
+            cachedToken = tokens.get(token);
+        }
+        if (cachedToken == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - cachedToken.validateTime() > ttlMillis
+            || !cachedToken.session().getExpiryTime().isAfter(ZonedDateTime.now(LoginPorcess.zoneId))
+        ) {
+            invalidate(token);
+            return null;
+        }
+        return cachedToken.session();
+    }
+
+    public void putSession(@NotNull String token, @NotNull LocalSession session) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        synchronized (tokens) {
+            tokens.put(token, new CachedToken(session, System.currentTimeMillis()));
+        }
+    }
+
+    public void invalidate(@NotNull String token) {
+        synchronized (tokens) {
+            tokens.remove(token);
+        }
+    }
+
+    public void clear() {
+        synchronized (tokens) {
+            tokens.clear();
+        }
+        expiryUpdateTimes.clear();
+    }
+
+    /**
+     * Registers session usage. Expiry time of the session will be extended by the next batch update
+     * if it wasn't extended during the last update period.
+     */
+    public void touchSession(@NotNull String sessionId) {
+        long now = System.currentTimeMillis();
+        Long lastUpdateTime = expiryUpdateTimes.get(sessionId);
+        if (lastUpdateTime != null && now - lastUpdateTime < expiryUpdatePeriodMillis) {
+            return;
+        }
+        expiryUpdateTimes.put(sessionId, now);
+        pendingExpiryUpdates.add(sessionId);
+    }
+
+    /**
+     * Returns and clears sessions which expiry time must be extended.
+     */
+    @NotNull
+    public List<String> drainPendingExpiryUpdates() {
+        List<String> sessionIds = new ArrayList<>();
+        for (Iterator<String> iterator = pendingExpiryUpdates.iterator(); iterator.hasNext(); ) {
+            sessionIds.add(iterator.next());
+            iterator.remove();
+        }
+        // Forget sessions which weren't used for a long time
+        long minUpdateTime = System.currentTimeMillis() - expiryUpdatePeriodMillis * 2;
+        expiryUpdateTimes.values().removeIf(updateTime -> updateTime < minUpdateTime);
+        return sessionIds;
+    }
+
+    /**
+     * Returns sessions back to the pending list (e.g. if batch update failed).
+     */
+    public void addPendingExpiryUpdates(@NotNull Collection<String> sessionIds) {
+        pendingExpiryUpdates.addAll(sessionIds);
+    }
+
+    private record CachedToken(@NotNull LocalSession session, long validateTime) {
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.security.indaas;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+/**
+ * Writes collected rdp_session expiry time extensions in one batch.
+ */
+public class IndaasTokenExpiryUpdateJob extends AbstractJob {
+
+    private static final Log log = Log.getLog(IndaasTokenExpiryUpdateJob.class);
+
+    private final IndaasTokenCache tokenCache;
+
+    public IndaasTokenExpiryUpdateJob(IndaasTokenCache tokenCache) {
+        super("Update DRI session expiry time");
+        this.tokenCache = tokenCache;
+        setSystem(true);
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor) {
+        try {
+            LoginPorcess.flushExpiryUpdates(tokenCache);
+        } catch (Exception e) {
+            log.error("Error updating session expiry time", e);
+        }
+        schedule(tokenCache.getExpiryUpdatePeriodMillis());
+        return Status.OK_STATUS;
+    }
+}
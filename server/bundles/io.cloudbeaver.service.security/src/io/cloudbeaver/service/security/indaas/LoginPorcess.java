@@ -1,6 +1,7 @@
 package io.cloudbeaver.service.security.indaas;
 
 import com.google.gson.Gson;
+import io.cloudbeaver.model.config.SMControllerConfiguration;
 import io.cloudbeaver.service.security.EmbeddedSecurityControllerFactory;
 import io.cloudbeaver.service.security.db.CBDatabase;
 import jakarta.servlet.http.Cookie;
@@ -26,6 +27,25 @@ public class LoginPorcess {
     public static ZoneId zoneId = ZoneId.of("Asia/Shanghai");
     private static Map<String, String> pidSessionMap = new HashMap<>();
     private static Map<String, String> hidSessionMap = new HashMap<>();
+    // 已验证token的短期缓存, 以及批量更新session有效期
+    private static volatile IndaasTokenCache tokenCache = createTokenCache(new SMControllerConfiguration());
+
+    /**
+     * 根据配置重新创建token缓存, 并启动批量更新session有效期的任务
+     */
+    public static void initTokenCache(SMControllerConfiguration smConfig) {
+        IndaasTokenCache cache = createTokenCache(smConfig);
+        tokenCache = cache;
+        new IndaasTokenExpiryUpdateJob(cache).schedule(cache.getExpiryUpdatePeriodMillis());
+    }
+
+    private static IndaasTokenCache createTokenCache(SMControllerConfiguration smConfig) {
+        return new IndaasTokenCache(
+            smConfig.getTokenCacheTtl() * 1000L,
+            smConfig.getTokenCacheSize(),
+            Math.max(1, smConfig.getTokenExpiryUpdatePeriod()) * 1000L
+        );
+    }
 
     /**  模型中心初始化时，同时在dri中创建用户
      *
@@ -882,8 +902,8 @@ public class LoginPorcess {
         return password;
     }
 
-    //更新session有效期
-    private static void updateExpiryTime(String session_id){
+    //批量更新session有效期
+    private static void updateExpiryTimes(Collection<String> sessionIds) throws Exception {
         Connection connection = null;
         PreparedStatement preparedStatement =  null;
         try {
@@ -892,24 +912,43 @@ public class LoginPorcess {
             connection = dataSource.openConnection();
             connection.setAutoCommit(true);
             String sql = "update  rdp_session set expiryTime = ? ,refreshExpiryTime = ? where session_id = ?";
-            ZoneId zoneId = ZoneId.of("Asia/Shanghai");
             ZonedDateTime createdAt = ZonedDateTime.now(zoneId);
-//            LOG.info("createdAt.toString():"+createdAt.toString());
+            String expiryTime = createdAt.plusSeconds(86400).format(formtter);
+            String refreshExpiryTime = createdAt.plusSeconds(50400).format(formtter);
             preparedStatement = connection.prepareStatement(sql);
-            preparedStatement.setString(1,createdAt.plusSeconds(86400).format(formtter));
-            preparedStatement.setString(2,createdAt.plusSeconds(50400).format(formtter));
-            preparedStatement.setString(3,session_id);
-
-            preparedStatement.executeUpdate();
-
-        } catch (Exception e) {
-            log.error(e.getMessage(),e);
+            for (String sessionId : sessionIds) {
+                preparedStatement.setString(1, expiryTime);
+                preparedStatement.setString(2, refreshExpiryTime);
+                preparedStatement.setString(3, sessionId);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
         } finally {
             closePreparedStatement(preparedStatement);
             closeConnection(connection);
         }
     }
 
+    /**
+     * 将收集到的session有效期更新一次性写入数据库
+     */
+    public static void flushExpiryUpdates(IndaasTokenCache cache) throws Exception {
+        if (EmbeddedSecurityControllerFactory.getUserInstance() == null) {
+            return;
+        }
+        List<String> sessionIds = cache.drainPendingExpiryUpdates();
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        try {
+            updateExpiryTimes(sessionIds);
+        } catch (Exception e) {
+            // 下次重试
+            cache.addPendingExpiryUpdates(sessionIds);
+            throw e;
+        }
+    }
+
     public static void main(String[] args) {
 
     }
@@ -922,16 +961,27 @@ public class LoginPorcess {
             CBDatabase dataSource = EmbeddedSecurityControllerFactory.getUserInstance();
             connection = dataSource.openConnection();
             connection.setAutoCommit(true);
+            // 先按session_id精确匹配(可使用索引), 找不到时再按session_id前缀匹配
             String sql = "select username, session_id,permission,userhash,expiryTime,refreshExpiryTime,refreshId,token from " +
-                    "  rdp_session where  session_id like  ? and isvalid = ? order by create_at desc limit 1";
+                    "  rdp_session where  session_id = ? and isvalid = ? order by create_at desc limit 1";
             preparedStatement = connection.prepareStatement(sql);
-//            preparedStatement.setString(1,"%" + token.trim() + "%");
-            preparedStatement.setString(1,"%" + token + "%");
+            preparedStatement.setString(1,token);
             preparedStatement.setInt(2,1);
 
             ResultSet resultSet = preparedStatement.executeQuery();
+            boolean found = resultSet.next();
+            if (!found) {
+                closePreparedStatement(preparedStatement);
+                sql = "select username, session_id,permission,userhash,expiryTime,refreshExpiryTime,refreshId,token from " +
+                    "  rdp_session where  session_id like  ? and isvalid = ? order by create_at desc limit 1";
+                preparedStatement = connection.prepareStatement(sql);
+                preparedStatement.setString(1,token + "%");
+                preparedStatement.setInt(2,1);
+                resultSet = preparedStatement.executeQuery();
+                found = resultSet.next();
+            }
             //只有一个或0条记录
-            while (resultSet.next()){
+            if (found){
                 String username = resultSet.getString("username");
                 String permission = resultSet.getString("permission");
                 String sessionId = resultSet.getString("session_id");
@@ -954,8 +1004,8 @@ public class LoginPorcess {
 //                    usersToSessionMap.put(userhash, session);
 //                    sessionIdSessionMap.put(session.getSessionId().toString(), session);
 //                    refreshIdSessionMap.put(session.getRefreshId().toString(), session);
-                        // 如果验证有效，则更新数据库session有效期
-                        updateExpiryTime(sessionId);
+                        // 如果验证有效，则更新数据库session有效期(批量延迟写入)
+                        tokenCache.touchSession(sessionId);
                         return session;
                     }
                 } else {
@@ -976,8 +1026,15 @@ public class LoginPorcess {
     }
 
     public static String authenticateDB(String user,String token,String appname) throws Exception {
-        //因需要多个服务公用token,所以每次认证必须查询数据库.
-        LocalSession session = queryAndCheckSession(null,token);
+        //因需要多个服务公用token, 缓存的验证结果只在短时间内有效, 之后重新查询数据库.
+        IndaasTokenCache cache = tokenCache;
+        LocalSession session = cache.getSession(token);
+        if (session == null) {
+            session = queryAndCheckSession(null,token);
+            cache.putSession(token, session);
+        } else {
+            cache.touchSession(session.getSessionId().toString());
+        }
 
         if(session == null){
             throw new Exception("The session with id '" + token + "' is not valid.");
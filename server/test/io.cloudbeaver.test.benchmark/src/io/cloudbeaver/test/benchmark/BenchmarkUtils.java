@@ -0,0 +1,70 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.server.CBConstants;
+import io.cloudbeaver.test.WebGQLClient;
+import io.cloudbeaver.test.platform.CEServerTestSuite;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.auth.SMAuthStatus;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+
+import java.net.CookieManager;
+import java.net.http.HttpClient;
+import java.util.Map;
+
+class BenchmarkUtils {
+
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * Creates GraphQL client and signs in as the test user
+     */
+    @NotNull
+    static WebGQLClient createAuthenticatedClient(@NotNull CookieManager cookieManager) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .cookieHandler(cookieManager)
+            .version(HttpClient.Version.HTTP_2)
+            .build();
+        WebGQLClient client = CEServerTestSuite.createClient(httpClient);
+        Map<String, Object> authInfo = CEServerTestSuite.authenticateTestUser(client);
+        if (!SMAuthStatus.SUCCESS.name().equals(JSONUtils.getString(authInfo, "authStatus"))) {
+            throw new DBException("Test user authentication failed");
+        }
+        return client;
+    }
+
+    /**
+     * Returns server side session of the client
+     */
+    @NotNull
+    static WebSession getWebSession(@NotNull CookieManager cookieManager) throws DBException {
+        String sessionId = cookieManager.getCookieStore().getCookies()
+            .stream()
+            .filter(cookie -> cookie.getName().equals(CBConstants.CB_SESSION_COOKIE_NAME))
+            .findFirst()
+            .orElseThrow(() -> new DBException("Session cookie not found"))
+            .getValue();
+        if (!(CEServerTestSuite.getTestApp().getSessionManager().getSession(sessionId) instanceof WebSession webSession)) {
+            throw new DBException("Web session '" + sessionId + "' not found");
+        }
+        return webSession;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.test.WebGQLClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.CookieManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphQL endpoint execution of the typical client operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GraphQLEndpointBenchmark {
+
+    private static final Map<String, String> OPERATIONS = Map.of(
+        "serverConfig", """
+            query serverConfig {
+              result: serverConfig {
+                name
+                version
+                workspaceId
+                anonymousAccessEnabled
+              }
+            }""",
+        "sessionState", """
+            query sessionState {
+              result: sessionState {
+                createTime
+                lastAccessTime
+                locale
+                cacheExpired
+              }
+            }""",
+        "navNodeChildren", """
+            query navNodeChildren($parentPath: ID!) {
+              result: navNodeChildren(parentPath: $parentPath) {
+                id
+                name
+                hasChildren
+              }
+            }""",
+        "userConnections", """
+            query userConnections {
+              result: userConnections {
+                id
+                name
+                connected
+              }
+            }"""
+    );
+
+    @Param({"serverConfig", "sessionState", "navNodeChildren", "userConnections"})
+    public String operation;
+
+    private WebGQLClient client;
+    private String query;
+    private Map<String, Object> variables;
+
+    @Setup(Level.Trial)
+    public void authenticate() throws Exception {
+        client = BenchmarkUtils.createAuthenticatedClient(new CookieManager());
+        query = OPERATIONS.get(operation);
+        variables = "navNodeChildren".equals(operation) ? Map.of("parentPath", "/") : null;
+    }
+
+    @Benchmark
+    public Object execute() throws Exception {
+        return client.sendQuery(query, variables);
+    }
+}
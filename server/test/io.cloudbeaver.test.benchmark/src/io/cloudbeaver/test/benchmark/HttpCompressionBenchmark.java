@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes on the wire and throughput of a large GraphQL response with and without compression, over HTTP/1.1 and h2c.
+ * <p>
+ * HTTP client doesn't decompress responses, so response body size is the size sent by the server.
+ * Bytes per operation is {@code responseBytes / throughput}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HttpCompressionBenchmark {
+
+    private static final String GQL_API_URL = "http://localhost:18978/api/gql";
+    private static final String SERVER_STATUS_URL = "http://localhost:18978/status";
+    private static final String DRIVER_LIST_QUERY = """
+        {"query": "query driverList { result: driverList { id name description icon iconBig providerId driverClassName defaultPort sampleURL embedded } }"}""";
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public String protocol;
+
+    private HttpClient httpClient;
+    private HttpClient.Version version;
+    private HttpRequest request;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ResponseCounters {
+        public long responseBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            responseBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createClient() throws Exception {
+        version = HttpClient.Version.valueOf(protocol);
+        httpClient = HttpClient.newBuilder()
+            .version(version)
+            .build();
+        // HTTP client upgrades to h2c only requests without body, so the connection is upgraded before POST requests
+        HttpResponse<Void> statusResponse = httpClient.send(
+            HttpRequest.newBuilder(URI.create(SERVER_STATUS_URL)).GET().build(),
+            HttpResponse.BodyHandlers.discarding()
+        );
+        checkVersion(statusResponse);
+        request = HttpRequest.newBuilder(URI.create(GQL_API_URL))
+            .header("Content-Type", "application/json")
+            .header("Accept-Encoding", encoding)
+            .POST(HttpRequest.BodyPublishers.ofString(DRIVER_LIST_QUERY))
+            .build();
+    }
+
+    @Benchmark
+    public int execute(ResponseCounters counters) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected response status " + response.statusCode());
+        }
+        checkVersion(response);
+        counters.responseBytes += response.body().length;
+        return response.body().length;
+    }
+
+    private void checkVersion(HttpResponse<?> response) {
+        // HTTP client silently falls back to HTTP/1.1 if the server refuses h2c upgrade
+        if (response.version() != version) {
+            throw new IllegalStateException("Response protocol is " + response.version() + " instead of " + version);
+        }
+    }
+}
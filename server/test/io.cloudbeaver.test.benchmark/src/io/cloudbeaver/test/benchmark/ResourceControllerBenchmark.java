@@ -0,0 +1,81 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.model.session.WebSession;
+import org.jkiss.dbeaver.model.rm.RMController;
+import org.jkiss.dbeaver.model.rm.RMProject;
+import org.jkiss.dbeaver.model.rm.RMResource;
+import org.jkiss.utils.SecurityUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.CookieManager;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local resource controller list and read operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResourceControllerBenchmark {
+
+    private static final String SCRIPTS_FOLDER = "Scripts";
+    private static final int RESOURCE_COUNT = 200;
+
+    private RMController rmController;
+    private RMProject project;
+    private String[] resourcePaths;
+
+    @Setup(Level.Trial)
+    public void createResources() throws Exception {
+        CookieManager cookieManager = new CookieManager();
+        BenchmarkUtils.createAuthenticatedClient(cookieManager);
+        WebSession webSession = BenchmarkUtils.getWebSession(cookieManager);
+        rmController = webSession.getRmController();
+        project = rmController.createProject("RM_Benchmark" + SecurityUtils.generateUniqueId(), null);
+
+        byte[] content = "SELECT * FROM BENCH_DATA WHERE ID = 1;\n".repeat(100).getBytes(StandardCharsets.UTF_8);
+        resourcePaths = new String[RESOURCE_COUNT];
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            resourcePaths[i] = SCRIPTS_FOLDER + "/script_" + i + ".sql";
+            rmController.setResourceContents(project.getId(), resourcePaths[i], content, false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteResources() throws Exception {
+        if (project != null) {
+            rmController.deleteProject(project.getId());
+        }
+    }
+
+    @Benchmark
+    public RMResource[] listResources() throws Exception {
+        return rmController.listResources(project.getId(), SCRIPTS_FOLDER, null, true, false, false);
+    }
+
+    @Benchmark
+    public byte[] readResource() throws Exception {
+        String resourcePath = resourcePaths[ThreadLocalRandom.current().nextInt(RESOURCE_COUNT)];
+        return rmController.getResourceContents(project.getId(), resourcePath);
+    }
+}
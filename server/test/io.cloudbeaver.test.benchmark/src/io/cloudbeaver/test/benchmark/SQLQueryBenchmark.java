@@ -0,0 +1,179 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.test.WebGQLClient;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.CookieManager;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query execution through the GraphQL API against embedded H2 database.
+ * Covers result set fetch and conversion (WebSQLQueryDataReceiver) and result serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SQLQueryBenchmark {
+
+    private static final String H2_DRIVER_ID = "h2:h2_embedded_v2";
+    private static final String H2_URL = "jdbc:h2:mem:sql_query_benchmark;DB_CLOSE_DELAY=-1";
+    private static final int TABLE_ROW_COUNT = 10000;
+
+    private static final String GQL_CONNECTION_CREATE = """
+        mutation createConnection($config: ConnectionConfig!) {
+          result: createConnection(config: $config) {
+            id
+          }
+        }""";
+    private static final String GQL_CONNECTION_INIT = """
+        mutation initConnection($id: ID!) {
+          result: initConnection(id: $id) {
+            id
+          }
+        }""";
+    private static final String GQL_CONNECTION_DELETE = """
+        mutation deleteConnection($id: ID!) {
+          result: deleteConnection(id: $id)
+        }""";
+    private static final String GQL_CONTEXT_CREATE = """
+        mutation sqlContextCreate($connectionId: ID!) {
+          result: sqlContextCreate(connectionId: $connectionId) {
+            id
+          }
+        }""";
+    private static final String GQL_EXECUTE_QUERY = """
+        mutation asyncSqlExecuteQuery($connectionId: ID!, $contextId: ID!, $sql: String!) {
+          result: asyncSqlExecuteQuery(connectionId: $connectionId, contextId: $contextId, sql: $sql) {
+            id
+          }
+        }""";
+    private static final String GQL_TASK_INFO = """
+        mutation asyncTaskInfo($id: String!) {
+          result: asyncTaskInfo(id: $id, removeOnFinish: false) {
+            running
+            error {
+              message
+            }
+          }
+        }""";
+    private static final String GQL_EXECUTE_RESULTS = """
+        mutation asyncSqlExecuteResults($taskId: ID!) {
+          result: asyncSqlExecuteResults(taskId: $taskId) {
+            results {
+              resultSet {
+                id
+                columns {
+                  name
+                  dataKind
+                }
+                rowsWithMetaData {
+                  data
+                  metaData
+                }
+              }
+            }
+          }
+        }""";
+    private static final String GQL_RESULT_CLOSE = """
+        mutation sqlResultClose($connectionId: ID!, $contextId: ID!, $resultId: ID!) {
+          result: sqlResultClose(connectionId: $connectionId, contextId: $contextId, resultId: $resultId)
+        }""";
+
+    @Param({"100", "10000"})
+    public int rowCount;
+
+    private WebGQLClient client;
+    private String connectionId;
+    private String contextId;
+
+    @Setup(Level.Trial)
+    public void createData() throws Exception {
+        client = BenchmarkUtils.createAuthenticatedClient(new CookieManager());
+
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("name", "SQL query benchmark");
+        configuration.put("driverId", H2_DRIVER_ID);
+        configuration.put("url", H2_URL);
+        Map<String, Object> connection = client.sendQuery(GQL_CONNECTION_CREATE, Map.of("config", configuration));
+        connectionId = JSONUtils.getString(connection, "id");
+        client.sendQuery(GQL_CONNECTION_INIT, Map.of("id", connectionId));
+        Map<String, Object> context = client.sendQuery(GQL_CONTEXT_CREATE, Map.of("connectionId", connectionId));
+        contextId = JSONUtils.getString(context, "id");
+
+        executeQuery("DROP TABLE IF EXISTS BENCH_DATA");
+        executeQuery("CREATE TABLE BENCH_DATA(ID INT PRIMARY KEY, NAME VARCHAR(100), AMOUNT DECIMAL(12, 2), " +
+            "RATE DOUBLE, CREATED TIMESTAMP, ACTIVE BOOLEAN)");
+        executeQuery("INSERT INTO BENCH_DATA SELECT X, CONCAT('name_', X), X * 1.25, RAND(), " +
+            "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), MOD(X, 2) = 0 FROM SYSTEM_RANGE(1, " + TABLE_ROW_COUNT + ")");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteData() throws Exception {
+        if (connectionId != null) {
+            client.sendQuery(GQL_CONNECTION_DELETE, Map.of("id", connectionId));
+        }
+    }
+
+    @Benchmark
+    public Object executeSelect() throws Exception {
+        Map<String, Object> executeInfo = executeQuery("SELECT * FROM BENCH_DATA ORDER BY ID LIMIT " + rowCount);
+        List<Map<String, Object>> results = JSONUtils.getObjectList(executeInfo, "results");
+        for (Map<String, Object> result : results) {
+            Map<String, Object> resultSet = JSONUtils.getObject(result, "resultSet");
+            String resultId = JSONUtils.getString(resultSet, "id");
+            if (resultId != null) {
+                // Do not let results pile up in the context
+                client.sendQuery(GQL_RESULT_CLOSE, Map.of(
+                    "connectionId", connectionId,
+                    "contextId", contextId,
+                    "resultId", resultId));
+            }
+        }
+        return executeInfo;
+    }
+
+    @NotNull
+    private Map<String, Object> executeQuery(@NotNull String sql) throws Exception {
+        Map<String, Object> task = client.sendQuery(GQL_EXECUTE_QUERY, Map.of(
+            "connectionId", connectionId,
+            "contextId", contextId,
+            "sql", sql));
+        String taskId = JSONUtils.getString(task, "id");
+        while (true) {
+            Map<String, Object> taskInfo = client.sendQuery(GQL_TASK_INFO, Map.of("id", taskId));
+            Map<String, Object> error = JSONUtils.getObjectOrNull(taskInfo, "error");
+            if (error != null) {
+                throw new DBException("Query '" + sql + "' failed: " + JSONUtils.getString(error, "message"));
+            }
+            if (!JSONUtils.getBoolean(taskInfo, "running")) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        return client.sendQuery(GQL_EXECUTE_RESULTS, Map.of("taskId", taskId));
+    }
+}
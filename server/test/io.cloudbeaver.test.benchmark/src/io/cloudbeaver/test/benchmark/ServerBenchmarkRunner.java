@@ -0,0 +1,81 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.test.platform.CEServerTestSuite;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Runs JMH benchmarks inside the running test server.
+ * <p>
+ * Benchmarks can't be forked because they use the server started in the OSGi container,
+ * so all of them are executed in the same JVM one after another.
+ * Results are written in JSON format (see benchmark.result property), GC profiler adds allocation rate per operation.
+ */
+public class ServerBenchmarkRunner {
+
+    private static final String PROP_INCLUDE = "benchmark.include";
+    private static final String PROP_RESULT = "benchmark.result";
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        CEServerTestSuite.startServer();
+    }
+
+    @AfterClass
+    public static void shutdownServer() {
+        CEServerTestSuite.shutdownServer();
+    }
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        Path resultFile = Path.of(System.getProperty(PROP_RESULT, "target/jmh-result.json"));
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        Options options = new OptionsBuilder()
+            .include(System.getProperty(PROP_INCLUDE, ".*Benchmark.*"))
+            .forks(0)
+            .shouldFailOnError(true)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.toString())
+            .build();
+
+        // JMH loads generated benchmark classes with the context class loader
+        Thread currentThread = Thread.currentThread();
+        ClassLoader oldClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(ServerBenchmarkRunner.class.getClassLoader());
+        try {
+            Collection<RunResult> results = new Runner(options).run();
+            Assert.assertFalse("No benchmarks were executed", results.isEmpty());
+        } finally {
+            currentThread.setContextClassLoader(oldClassLoader);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.model.session.WebHttpRequestInfo;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.server.CBApplication;
+import io.cloudbeaver.service.session.CBSessionManager;
+import io.cloudbeaver.test.platform.CEServerTestSuite;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.security.SMController;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session lookup by concurrent requests.
+ * Requests and sessions are Mockito mocks, so absolute numbers include the mock invocation cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class SessionManagerBenchmark {
+
+    private static final int SESSION_COUNT = 1000;
+
+    private CBSessionManager sessionManager;
+    private String[] sessionIds;
+    private HttpServletRequest[] requests;
+    private HttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void createSessions() throws Exception {
+        sessionManager = new BenchmarkSessionManager(CEServerTestSuite.getTestApp());
+        sessionIds = new String[SESSION_COUNT];
+        requests = new HttpServletRequest[SESSION_COUNT];
+        response = Mockito.mock(HttpServletResponse.class);
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            sessionIds[i] = "bench_session_" + i;
+            requests[i] = mockRequest(sessionIds[i]);
+            sessionManager.getWebSession(requests[i], response, false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeSessions() {
+        for (HttpServletRequest request : requests) {
+            sessionManager.closeSession(request);
+        }
+    }
+
+    @Benchmark
+    public Object getSession() {
+        return sessionManager.getSession(sessionIds[ThreadLocalRandom.current().nextInt(SESSION_COUNT)]);
+    }
+
+    @Benchmark
+    public WebSession getWebSession() throws Exception {
+        return sessionManager.getWebSession(requests[ThreadLocalRandom.current().nextInt(SESSION_COUNT)], response, false);
+    }
+
+    @NotNull
+    private static HttpServletRequest mockRequest(@NotNull String sessionId) {
+        HttpSession httpSession = Mockito.mock(HttpSession.class);
+        Mockito.when(httpSession.getId()).thenReturn(sessionId);
+        Mockito.when(httpSession.isNew()).thenReturn(true);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getSession()).thenReturn(httpSession);
+        Mockito.when(request.getSession(Mockito.anyBoolean())).thenReturn(httpSession);
+        return request;
+    }
+
+    /**
+     * Creates lightweight sessions, benchmark measures only the lookup
+     */
+    private static class BenchmarkSessionManager extends CBSessionManager {
+        BenchmarkSessionManager(CBApplication<?> application) {
+            super(application);
+        }
+
+        @NotNull
+        @Override
+        protected WebSession createWebSessionImpl(@NotNull WebHttpRequestInfo request) throws DBException {
+            WebSession webSession = Mockito.mock(WebSession.class);
+            SMController securityController = Mockito.mock(SMController.class);
+            Mockito.when(webSession.getSessionId()).thenReturn(request.getId());
+            Mockito.when(webSession.getSecurityController()).thenReturn(securityController);
+            return webSession;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.test.benchmark;
+
+import io.cloudbeaver.service.sql.WebDataFormat;
+import io.cloudbeaver.service.sql.WebSQLUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of fetched cell values into the values sent to the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WebCellValueBenchmark {
+
+    private static final int VALUE_COUNT = 1000;
+
+    @Param({"string", "long", "double", "decimal", "timestamp", "boolean"})
+    public String valueType;
+
+    private Object[] values;
+
+    @Setup
+    public void prepareValues() {
+        Random random = new Random(42);
+        values = new Object[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = switch (valueType) {
+                case "string" -> "value_" + random.nextInt();
+                case "long" -> random.nextLong();
+                case "double" -> random.nextDouble() * 1000000;
+                case "decimal" -> BigDecimal.valueOf(random.nextLong(), 4);
+                case "timestamp" -> new Timestamp(random.nextLong() % 4102444800000L);
+                case "boolean" -> random.nextBoolean();
+                default -> throw new IllegalArgumentException("Unsupported value type: " + valueType);
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void makeWebCellValue(Blackhole blackhole) throws DBCException {
+        for (Object value : values) {
+            // Session is used only for documents and LOBs
+            blackhole.consume(WebSQLUtils.makeWebCellValue(null, null, value, WebDataFormat.resultset));
+        }
+    }
+}
@@ -18,6 +18,7 @@ package io.cloudbeaver.model.rm;
 
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.CBConstants;
+import io.cloudbeaver.service.rm.nio.RMByteArrayChannel;
 import io.cloudbeaver.service.rm.nio.RMNIOFileSystem;
 import io.cloudbeaver.service.rm.nio.RMNIOFileSystemProvider;
 import io.cloudbeaver.service.rm.nio.RMPath;
@@ -34,18 +35,25 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.CookieManager;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class RMNIOTest {
+    // 64Mb
+    private static final int LARGE_FILE_CHUNKS = 1024;
 
     private static WebSession webSession;
     private static RMProject testProject;
@@ -173,6 +181,78 @@ public class RMNIOTest {
         Assert.assertNull(rm.getResource(testProject.getId(), script));
     }
 
+    @Test
+    public void testLargeResourceStreaming() throws IOException, DBException {
+        RMPath rootPath = (RMPath) rmFsProvider.getPath(getProjectUri());
+        RMController rm = webSession.getRmController();
+        String script = "large_script_" + SecurityUtils.generateUniqueId() + ".sql";
+        RMPath scriptPath = (RMPath) rootPath.resolve(script);
+
+        // write much more data than a single buffer, chunk by chunk
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(scriptPath)) {
+            for (int i = 0; i < LARGE_FILE_CHUNKS; i++) {
+                fillChunk(chunk, i);
+                out.write(chunk);
+            }
+        }
+        long expectedSize = (long) LARGE_FILE_CHUNKS * chunk.length;
+        Assert.assertEquals(expectedSize, Files.size(scriptPath));
+        Assert.assertEquals(expectedSize, rm.getResource(testProject.getId(), script).getLength());
+
+        // sequential read
+        try (SeekableByteChannel channel = Files.newByteChannel(scriptPath)) {
+            Assert.assertFalse("Resource must be streamed", channel instanceof RMByteArrayChannel);
+            Assert.assertEquals(expectedSize, channel.size());
+            ByteBuffer buffer = ByteBuffer.allocate(chunk.length);
+            for (int i = 0; i < LARGE_FILE_CHUNKS; i++) {
+                buffer.clear();
+                readFully(channel, buffer);
+                fillChunk(chunk, i);
+                Assert.assertArrayEquals("Chunk " + i, chunk, buffer.array());
+            }
+            buffer.clear();
+            Assert.assertEquals(-1, channel.read(buffer));
+
+            // positional read
+            int chunkIndex = LARGE_FILE_CHUNKS / 2;
+            channel.position((long) chunkIndex * chunk.length);
+            buffer.clear();
+            readFully(channel, buffer);
+            fillChunk(chunk, chunkIndex);
+            Assert.assertArrayEquals(chunk, buffer.array());
+        }
+
+        // append
+        fillChunk(chunk, LARGE_FILE_CHUNKS);
+        try (OutputStream out = Files.newOutputStream(scriptPath, StandardOpenOption.APPEND)) {
+            out.write(chunk);
+        }
+        Assert.assertEquals(expectedSize + chunk.length, Files.size(scriptPath));
+        try (SeekableByteChannel channel = Files.newByteChannel(scriptPath)) {
+            channel.position(expectedSize);
+            ByteBuffer buffer = ByteBuffer.allocate(chunk.length);
+            readFully(channel, buffer);
+            Assert.assertArrayEquals(chunk, buffer.array());
+        }
+
+        Files.delete(scriptPath);
+        Assert.assertFalse(Files.exists(scriptPath));
+    }
+
+    private static void fillChunk(byte[] chunk, int index) {
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) (index * 31 + i);
+        }
+    }
+
+    private static void readFully(SeekableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
 
     private URI getProjectUri() {
         return URI.create("rm://" + testProject.getId());
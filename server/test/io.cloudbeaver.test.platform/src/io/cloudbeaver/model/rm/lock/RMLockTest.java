@@ -24,11 +24,16 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class RMLockTest {
@@ -188,7 +193,8 @@ public class RMLockTest {
             try {
                 try (var lock = lockController2.lockProject(project1, "testForceUnlock2")) {
                     Assert.assertTrue("Project1 not locket by thread1", isLockedByThread1.get());
-                    Mockito.verify(lockController2, Mockito.atLeast(5)).isLocked(Mockito.any());
+                    // lock owner is alive, so the lock is intercepted only after max lock time
+                    Mockito.verify(lockController2).forceUnlock(Mockito.any());
                     thread1CDL.countDown();
                 }
             } catch (Throwable e) {
@@ -207,4 +213,55 @@ public class RMLockTest {
         }
         Assert.assertFalse(lockController2.isProjectLocked(project1));
     }
+
+    @Test
+    public void testConcurrentAccessToSeveralProjects() throws Throwable {
+        int projectCount = 4;
+        int threadsPerProject = 3;
+        int iterations = 20;
+        ExecutorService projectExecutor = Executors.newFixedThreadPool(projectCount * threadsPerProject);
+        // all threads of the first iteration must hold locks of different projects at the same time
+        CyclicBarrier differentProjectsBarrier = new CyclicBarrier(projectCount);
+        AtomicInteger[] activeOperations = new AtomicInteger[projectCount];
+        AtomicBoolean exclusiveAccessViolated = new AtomicBoolean(false);
+        for (int i = 0; i < projectCount; i++) {
+            activeOperations[i] = new AtomicInteger();
+        }
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < projectCount; i++) {
+                int projectIndex = i;
+                String projectId = "s_fakeMultiProject" + i;
+                for (int t = 0; t < threadsPerProject; t++) {
+                    boolean firstThread = t == 0;
+                    var lockController = new TestLockController(CEServerTestSuite.getTestApp());
+                    futures.add(projectExecutor.submit(() -> {
+                        for (int iteration = 0; iteration < iterations; iteration++) {
+                            try (var lock = lockController.lockProject(projectId, "testConcurrentAccessToSeveralProjects")) {
+                                if (activeOperations[projectIndex].incrementAndGet() != 1) {
+                                    exclusiveAccessViolated.set(true);
+                                }
+                                if (firstThread && iteration == 0) {
+                                    differentProjectsBarrier.await(1, TimeUnit.MINUTES);
+                                }
+                                Thread.sleep(1);
+                                activeOperations[projectIndex].decrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            projectExecutor.shutdownNow();
+        }
+        Assert.assertFalse("Project was locked by several operations at the same time", exclusiveAccessViolated.get());
+        var lockController = new TestLockController(CEServerTestSuite.getTestApp());
+        for (int i = 0; i < projectCount; i++) {
+            Assert.assertFalse(lockController.isProjectLocked("s_fakeMultiProject" + i));
+        }
+    }
 }
@@ -41,4 +41,10 @@ public class TestLockController extends RMFileLockController {
     public boolean isLocked(Path lockFilePath) {
         return super.isLocked(lockFilePath);
     }
+
+    //avoid mockito access method error
+    @Override
+    public void forceUnlock(Path projectLockFile) {
+        super.forceUnlock(projectLockFile);
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.session;
+
+import io.cloudbeaver.model.app.ServletAppConfiguration;
+import io.cloudbeaver.model.app.ServletApplication;
+import org.jkiss.dbeaver.model.app.DBPWorkspace;
+import org.jkiss.dbeaver.model.auth.SMCredentials;
+import org.jkiss.dbeaver.model.auth.SMCredentialsProvider;
+import org.jkiss.dbeaver.model.rm.RMController;
+import org.jkiss.dbeaver.model.rm.RMProject;
+import org.jkiss.dbeaver.model.security.SMController;
+import org.jkiss.dbeaver.model.security.user.SMAuthPermissions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WebUserContextConcurrencyTest {
+    private static final String SESSION_ID = "test-sm-session";
+    private static final String NEW_SESSION_ID = "new-sm-session";
+    private static final Set<String> OLD_PERMISSIONS = Set.of("old-permission");
+    private static final Set<String> NEW_PERMISSIONS = Set.of("new-permission");
+
+    private final CountDownLatch refreshStarted = new CountDownLatch(1);
+    private final CountDownLatch refreshReleased = new CountDownLatch(1);
+    private final AtomicInteger permissionReads = new AtomicInteger();
+
+    private ExecutorService executor;
+    private ServletApplication application;
+    private SMController securityController;
+    private WebUserContext userContext;
+
+    @Before
+    public void createContext() throws Exception {
+        executor = Executors.newCachedThreadPool();
+
+        securityController = Mockito.mock(SMController.class);
+        Mockito.when(securityController.getTokenPermissions()).thenAnswer(invocation -> {
+            permissionReads.incrementAndGet();
+            refreshStarted.countDown();
+            Assert.assertTrue(refreshReleased.await(30, TimeUnit.SECONDS));
+            return new SMAuthPermissions(null, SESSION_ID, NEW_PERMISSIONS);
+        });
+        RMController rmController = Mockito.mock(RMController.class);
+        Mockito.when(rmController.listAccessibleProjects()).thenReturn(new RMProject[0]);
+        ServletAppConfiguration appConfiguration = Mockito.mock(ServletAppConfiguration.class);
+        application = Mockito.mock(ServletApplication.class);
+        Mockito.when(application.getAppConfiguration()).thenReturn(appConfiguration);
+        Mockito.when(application.createSecurityController(ArgumentMatchers.any())).thenReturn(securityController);
+        Mockito.when(application.createResourceController(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(rmController);
+
+        userContext = new WebUserContext(application, Mockito.mock(DBPWorkspace.class));
+        userContext.refresh("access-token", null, new SMAuthPermissions(null, SESSION_ID, OLD_PERMISSIONS));
+        Assert.assertEquals(OLD_PERMISSIONS, userContext.getUserPermissions());
+    }
+
+    @After
+    public void shutdown() {
+        refreshReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadersAreNotBlockedByRefresh() throws Exception {
+        Future<?> refresh = executor.submit(() -> {
+            userContext.refreshPermissions();
+            return null;
+        });
+        Assert.assertTrue(refreshStarted.await(10, TimeUnit.SECONDS));
+
+        // Refresh is in progress and waits for the security manager
+        Future<Set<String>> read = executor.submit(() -> {
+            Assert.assertTrue(userContext.isAuthorizedInSecurityManager());
+            Assert.assertEquals(SESSION_ID, userContext.getSmSessionId());
+            Assert.assertSame(securityController, userContext.getSecurityController());
+            Assert.assertNull(userContext.getUserId());
+            return userContext.getUserPermissions();
+        });
+        Assert.assertEquals(OLD_PERMISSIONS, read.get(5, TimeUnit.SECONDS));
+        Assert.assertFalse(refresh.isDone());
+
+        refreshReleased.countDown();
+        refresh.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(NEW_PERMISSIONS, userContext.getUserPermissions());
+    }
+
+    @Test
+    public void testSessionRefreshIsPublishedAtOnce() throws Exception {
+        CountDownLatch controllerRequested = new CountDownLatch(1);
+        CountDownLatch controllerReleased = new CountDownLatch(1);
+        AtomicReference<SMCredentials> controllerCredentials = new AtomicReference<>();
+        Mockito.when(application.getAdminSecurityController(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            controllerCredentials.set(invocation.<SMCredentialsProvider>getArgument(0).getActiveUserCredentials());
+            controllerRequested.countDown();
+            Assert.assertTrue(controllerReleased.await(30, TimeUnit.SECONDS));
+            return null;
+        });
+        try {
+            Future<Boolean> refresh = executor.submit(() -> userContext.refresh(
+                "new-access-token", null, new SMAuthPermissions(null, NEW_SESSION_ID, NEW_PERMISSIONS)));
+            Assert.assertTrue(controllerRequested.await(10, TimeUnit.SECONDS));
+
+            // Controllers created by the refresh use the new credentials
+            Assert.assertEquals("new-access-token", controllerCredentials.get().getSmAccessToken());
+            // Other threads still see the previous state as a whole
+            Future<?> read = executor.submit(() -> {
+                Assert.assertEquals("access-token", userContext.getActiveUserCredentials().getSmAccessToken());
+                Assert.assertEquals(SESSION_ID, userContext.getActiveUserCredentials().getSmSessionId());
+                Assert.assertEquals(SESSION_ID, userContext.getSmSessionId());
+                Assert.assertEquals(OLD_PERMISSIONS, userContext.getUserPermissions());
+                return null;
+            });
+            read.get(5, TimeUnit.SECONDS);
+
+            controllerReleased.countDown();
+            Assert.assertTrue(refresh.get(10, TimeUnit.SECONDS));
+        } finally {
+            controllerReleased.countDown();
+        }
+        Assert.assertEquals("new-access-token", userContext.getActiveUserCredentials().getSmAccessToken());
+        Assert.assertEquals(NEW_SESSION_ID, userContext.getSmSessionId());
+        Assert.assertEquals(NEW_PERMISSIONS, userContext.getUserPermissions());
+    }
+
+    @Test
+    public void testConcurrentRefreshesShareRead() throws Exception {
+        Future<?> refresh = executor.submit(() -> {
+            userContext.refreshPermissions();
+            return null;
+        });
+        Assert.assertTrue(refreshStarted.await(10, TimeUnit.SECONDS));
+
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Thread waiter = new Thread(() -> {
+                try {
+                    userContext.refreshPermissions();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            waiter.start();
+            waiters.add(waiter);
+        }
+        // Wait until all callers join the refresh which is scheduled after the running one
+        for (Thread waiter : waiters) {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (waiter.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(Thread.State.WAITING, waiter.getState());
+        }
+        Assert.assertEquals(1, permissionReads.get());
+
+        refreshReleased.countDown();
+        refresh.get(10, TimeUnit.SECONDS);
+        for (Thread waiter : waiters) {
+            waiter.join(10_000);
+            Assert.assertFalse(waiter.isAlive());
+        }
+        // The running refresh and a single scheduled one for all waiting callers
+        Assert.assertEquals(2, permissionReads.get());
+        Assert.assertEquals(NEW_PERMISSIONS, userContext.getUserPermissions());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service;
+
+import io.cloudbeaver.DBWebException;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.server.CBApplication;
+import io.cloudbeaver.server.CBConstants;
+import io.cloudbeaver.server.WebAppUtils;
+import jakarta.servlet.MultipartConfigElement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.eclipse.jetty.ee10.servlet.ServletContextRequest;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.DBQuotaException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class WebFileUploadTest {
+    private static final String TEMP_FOLDER_NAME = "upload-test";
+    private static final long UPLOAD_SIZE_LIMIT = 1000;
+    private static final String FILE_NAME = "data.csv";
+    private static final byte[] FILE_CONTENT = "id,name\n1,test\n".getBytes(StandardCharsets.UTF_8);
+
+    private final String sessionId = UUID.randomUUID().toString();
+    private Map<String, Object> resourceQuotas;
+    private WebSession session;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private Part part;
+
+    @Before
+    public void prepareRequest() throws Exception {
+        resourceQuotas = CBApplication.getInstance().getAppConfiguration().getResourceQuotas();
+        resourceQuotas.put(CBConstants.QUOTA_PROP_UPLOAD_FILE_SIZE_LIMIT, UPLOAD_SIZE_LIMIT);
+
+        session = Mockito.mock(WebSession.class);
+        Mockito.when(session.getSessionId()).thenReturn(sessionId);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+
+        part = Mockito.mock(Part.class);
+        Mockito.when(part.getSize()).thenReturn((long) FILE_CONTENT.length);
+        Mockito.doAnswer(invocation -> {
+            Files.write(Paths.get(invocation.<String>getArgument(0)), FILE_CONTENT);
+            return null;
+        }).when(part).write(ArgumentMatchers.anyString());
+
+        request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getContentLengthLong()).thenReturn((long) FILE_CONTENT.length);
+        Mockito.when(request.getPart(WebFileUpload.PART_FILE_DATA)).thenReturn(part);
+        response = Mockito.mock(HttpServletResponse.class);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        resourceQuotas.remove(CBConstants.QUOTA_PROP_UPLOAD_FILE_SIZE_LIMIT);
+        Path sessionFolder = getTempFolder().resolve(sessionId);
+        if (Files.exists(sessionFolder)) {
+            try (Stream<Path> files = Files.walk(sessionFolder)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFileIsStoredInSessionFolder() throws Exception {
+        WebFileUpload upload = WebFileUpload.startUpload(session, request, response, TEMP_FOLDER_NAME);
+        Assert.assertNotNull(upload);
+        Path sessionFolder = getTempFolder().resolve(sessionId);
+        Assert.assertEquals(sessionFolder, upload.getSessionFolder());
+        Assert.assertTrue(Files.isDirectory(sessionFolder));
+
+        // Parser must write file parts into the session folder and stop at the quota
+        ArgumentCaptor<Object> multipartConfig = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(request).setAttribute(
+            ArgumentMatchers.eq(ServletContextRequest.MULTIPART_CONFIG_ELEMENT), multipartConfig.capture());
+        MultipartConfigElement configElement = (MultipartConfigElement) multipartConfig.getValue();
+        Assert.assertEquals(sessionFolder.toString(), configElement.getLocation());
+        Assert.assertEquals(UPLOAD_SIZE_LIMIT, configElement.getMaxFileSize());
+
+        Path file = upload.receiveFile(WebFileUpload.PART_FILE_DATA, FILE_NAME);
+        Assert.assertEquals(sessionFolder.resolve(FILE_NAME), file);
+        Mockito.verify(part).write(file.toAbsolutePath().toString());
+        Assert.assertArrayEquals(FILE_CONTENT, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testFileOverLimitIsRejected() throws Exception {
+        Mockito.when(part.getSize()).thenReturn(UPLOAD_SIZE_LIMIT + 1);
+        WebFileUpload upload = WebFileUpload.startUpload(session, request, response, TEMP_FOLDER_NAME);
+        Assert.assertNotNull(upload);
+
+        Assert.assertThrows(DBQuotaException.class, () -> upload.receiveFile(WebFileUpload.PART_FILE_DATA, FILE_NAME));
+        Mockito.verify(part, Mockito.never()).write(ArgumentMatchers.anyString());
+        Assert.assertFalse(Files.exists(upload.getSessionFolder().resolve(FILE_NAME)));
+    }
+
+    @Test
+    public void testRequestOverLimitIsNotRead() throws Exception {
+        Mockito.when(request.getContentLengthLong()).thenReturn(UPLOAD_SIZE_LIMIT * 1000);
+
+        Assert.assertNull(WebFileUpload.startUpload(session, request, response, TEMP_FOLDER_NAME));
+        Mockito.verify(response).sendError(
+            ArgumentMatchers.eq(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE), ArgumentMatchers.anyString());
+        Mockito.verify(request, Mockito.never()).getPart(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void testFileNameOutsideSessionFolderIsRejected() throws Exception {
+        WebFileUpload upload = WebFileUpload.startUpload(session, request, response, TEMP_FOLDER_NAME);
+        Assert.assertNotNull(upload);
+
+        Assert.assertThrows(DBWebException.class, () -> upload.receiveFile(WebFileUpload.PART_FILE_DATA, "../" + FILE_NAME));
+        Mockito.verify(request, Mockito.never()).getPart(ArgumentMatchers.anyString());
+    }
+
+    private static Path getTempFolder() {
+        return WebAppUtils.getWebPlatform().getTempFolder(new VoidProgressMonitor(), TEMP_FOLDER_NAME);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.admin.impl;
+
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.*;
+import java.util.*;
+
+public class ConnectionPortScannerTest {
+    private static final int PORT_COUNT = 20;
+    private static final long CONNECT_TIMEOUT = 1000;
+    private static final int BACKLOG_FILL_TIMEOUT = 200;
+    private static final int MAX_BACKLOG_CONNECTIONS = 10;
+
+    private final List<ServerSocket> serverSockets = new ArrayList<>();
+    private final List<Socket> backlogSockets = new ArrayList<>();
+    private final Set<InetSocketAddress> openAddresses = new HashSet<>();
+    private final Set<InetSocketAddress> closedAddresses = new HashSet<>();
+
+    @Before
+    public void openPorts() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        for (int i = 0; i < PORT_COUNT; i++) {
+            ServerSocket serverSocket = new ServerSocket(0, 50, loopback);
+            serverSockets.add(serverSocket);
+            openAddresses.add(new InetSocketAddress(loopback, serverSocket.getLocalPort()));
+        }
+        for (int i = 0; i < PORT_COUNT; i++) {
+            // Nobody listens on the port after the socket is closed
+            try (ServerSocket serverSocket = new ServerSocket(0, 50, loopback)) {
+                closedAddresses.add(new InetSocketAddress(loopback, serverSocket.getLocalPort()));
+            }
+        }
+    }
+
+    @After
+    public void closePorts() throws Exception {
+        for (Socket socket : backlogSockets) {
+            socket.close();
+        }
+        for (ServerSocket serverSocket : serverSockets) {
+            serverSocket.close();
+        }
+    }
+
+    @Test
+    public void testOpenPortsAreFound() throws Exception {
+        Assert.assertEquals(openAddresses, scan(64));
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        Assert.assertEquals(openAddresses, scan(1));
+    }
+
+    @Test
+    public void testScanTimeDoesNotDependOnPortCount() throws Exception {
+        List<InetSocketAddress> hangingAddresses = new ArrayList<>();
+        for (int i = 0; i < PORT_COUNT; i++) {
+            InetSocketAddress address = openHangingPort();
+            Assume.assumeTrue("Connections to a port with the full backlog must hang", address != null);
+            hangingAddresses.add(address);
+        }
+
+        List<InetSocketAddress> foundAddresses = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+        new ConnectionPortScanner(PORT_COUNT, CONNECT_TIMEOUT)
+            .scan(new VoidProgressMonitor(), hangingAddresses, foundAddresses::add);
+        long scanTime = System.currentTimeMillis() - startTime;
+
+        Assert.assertTrue("Hanging ports must not be reported", foundAddresses.isEmpty());
+        Assert.assertTrue("Probes must wait for the connect timeout", scanTime >= CONNECT_TIMEOUT);
+        // Sequential scan would take a timeout per port
+        Assert.assertTrue("Scan took " + scanTime + "ms", scanTime < CONNECT_TIMEOUT * 2);
+    }
+
+    /**
+     * Opens a port which never accepts connections and fills its backlog,
+     * so the following connection attempts hang until the timeout.
+     */
+    private InetSocketAddress openHangingPort() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        ServerSocket serverSocket = new ServerSocket(0, 1, loopback);
+        serverSockets.add(serverSocket);
+        InetSocketAddress address = new InetSocketAddress(loopback, serverSocket.getLocalPort());
+        for (int i = 0; i < MAX_BACKLOG_CONNECTIONS; i++) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(address, BACKLOG_FILL_TIMEOUT);
+                backlogSockets.add(socket);
+            } catch (SocketTimeoutException e) {
+                socket.close();
+                return address;
+            }
+        }
+        return null;
+    }
+
+    private Set<InetSocketAddress> scan(int maxConcurrentProbes) throws Exception {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        addresses.addAll(openAddresses);
+        addresses.addAll(closedAddresses);
+        Collections.shuffle(addresses);
+
+        List<InetSocketAddress> foundAddresses = new ArrayList<>();
+        new ConnectionPortScanner(maxConcurrentProbes, CONNECT_TIMEOUT)
+            .scan(new VoidProgressMonitor(), addresses, foundAddresses::add);
+        Assert.assertEquals("Each open port must be reported once", new HashSet<>(foundAddresses).size(), foundAddresses.size());
+        return new HashSet<>(foundAddresses);
+    }
+}
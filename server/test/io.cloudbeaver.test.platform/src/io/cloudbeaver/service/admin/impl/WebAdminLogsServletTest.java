@@ -0,0 +1,97 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.admin.impl;
+
+import io.cloudbeaver.server.servlets.WebServletUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class WebAdminLogsServletTest {
+    private Path logFile;
+
+    @Before
+    public void createLogFile() throws Exception {
+        logFile = Files.createTempFile("admin-logs-test", ".log");
+    }
+
+    @After
+    public void deleteLogFile() throws Exception {
+        Files.deleteIfExists(logFile);
+    }
+
+    @Test
+    public void testTailOfSmallLog() throws Exception {
+        Assert.assertEquals("", tail("", 10));
+        Assert.assertEquals("line 3\n", tail("line 1\nline 2\nline 3\n", 1));
+        Assert.assertEquals("line 2\nline 3\n", tail("line 1\nline 2\nline 3\n", 2));
+        Assert.assertEquals("line 1\nline 2\nline 3\n", tail("line 1\nline 2\nline 3\n", 5));
+        // The last line is not terminated yet
+        Assert.assertEquals("line 3", tail("line 1\nline 2\nline 3", 1));
+        Assert.assertEquals("\n", tail("line 1\n\n", 1));
+    }
+
+    @Test
+    public void testTailCrossesBlocks() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            content.append("log line ").append(i).append('\n');
+        }
+        String tail = tail(content.toString(), 5000);
+        Assert.assertTrue(tail.startsWith("log line 95000\n"));
+        Assert.assertTrue(tail.endsWith("log line 99999\n"));
+        Assert.assertEquals(5000, tail.split("\n").length);
+    }
+
+    @Test
+    public void testGzipEncodingNegotiation() {
+        Assert.assertTrue(isGzipAccepted("gzip, deflate, br"));
+        Assert.assertTrue(isGzipAccepted("deflate;q=1.0, GZIP;q=0.5"));
+        Assert.assertTrue(isGzipAccepted("*"));
+        Assert.assertTrue(isGzipAccepted("gzip ; q=0.001"));
+        Assert.assertFalse(isGzipAccepted(null));
+        Assert.assertFalse(isGzipAccepted("identity"));
+        Assert.assertFalse(isGzipAccepted("gzip;q=0"));
+        Assert.assertFalse(isGzipAccepted("gzip;q=0.000, deflate"));
+        Assert.assertFalse(isGzipAccepted("x-gzip-custom"));
+        // Explicit coding takes precedence over the wildcard
+        Assert.assertFalse(isGzipAccepted("*;q=1, gzip;q=0"));
+        Assert.assertTrue(isGzipAccepted("*;q=0, gzip"));
+        Assert.assertFalse(isGzipAccepted("*;q=0"));
+    }
+
+    private static boolean isGzipAccepted(String acceptEncoding) {
+        return WebServletUtils.isEncodingAccepted(acceptEncoding, "gzip");
+    }
+
+    private String tail(String content, int lineCount) throws Exception {
+        Files.writeString(logFile, content);
+        long fileSize = Files.size(logFile);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long offset = WebAdminLogsServlet.findTailOffset(channel, fileSize, lineCount);
+            byte[] bytes = Files.readAllBytes(logFile);
+            return new String(bytes, (int) offset, (int) (fileSize - offset), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.ldap.auth;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.security.SMAuthProviderCustomConfiguration;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import javax.naming.AuthenticationException;
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LdapAuthProviderTest {
+    private static final String BASE_DN = "ou=people,dc=example,dc=com";
+    private static final String BIND_USER = "cn=service,dc=example,dc=com";
+    private static final String BIND_PASSWORD = "service-password";
+    private static final String USER_PASSWORD = "user-password";
+
+    private final AtomicInteger serviceBinds = new AtomicInteger();
+    private final AtomicInteger userBinds = new AtomicInteger();
+    private final AtomicInteger searches = new AtomicInteger();
+    private final AtomicBoolean breakServiceConnections = new AtomicBoolean();
+    private final List<DirContext> serviceContexts = Collections.synchronizedList(new ArrayList<>());
+    // Users which don't match the configured filter anymore
+    private final Set<String> filteredOutUsers = Collections.synchronizedSet(new HashSet<>());
+
+    private LdapAuthProvider provider;
+
+    @Before
+    public void createProvider() {
+        provider = new LdapAuthProvider(this::createContext, 60_000);
+    }
+
+    @Test
+    public void testUserDNIsResolvedOnce() throws Exception {
+        Map<String, Object> userData = login(createConfiguration(""), "john");
+        Assert.assertEquals("john", userData.get(LdapConstants.CRED_USERNAME));
+        Assert.assertEquals(1, serviceBinds.get());
+        Assert.assertEquals(1, searches.get());
+        Assert.assertEquals(1, userBinds.get());
+
+        // the next login is a single user bind
+        login(createConfiguration(""), "john");
+        Assert.assertEquals(1, serviceBinds.get());
+        Assert.assertEquals(1, searches.get());
+        Assert.assertEquals(2, userBinds.get());
+
+        // service context is reused for another user
+        login(createConfiguration(""), "jane");
+        Assert.assertEquals(1, serviceBinds.get());
+        Assert.assertEquals(2, searches.get());
+        Mockito.verify(serviceContexts.get(0), Mockito.never()).close();
+    }
+
+    @Test
+    public void testWrongPasswordWithCachedDN() throws Exception {
+        SMAuthProviderCustomConfiguration configuration = createConfiguration("");
+        login(configuration, "john");
+        try {
+            login(configuration, "john", "wrong");
+            Assert.fail("Authentication must fail");
+        } catch (DBException e) {
+            // expected
+        }
+        // DN is resolved again after the failed bind
+        Assert.assertEquals(2, searches.get());
+        login(configuration, "john");
+        Assert.assertEquals(2, searches.get());
+    }
+
+    @Test
+    public void testFilterIsCheckedOnEachLogin() throws Exception {
+        SMAuthProviderCustomConfiguration configuration = createConfiguration("(objectClass=person)");
+        Map<String, Object> parameters = new HashMap<>(configuration.getParameters());
+        parameters.remove(LdapConstants.PARAM_LOGIN);
+        configuration.setParameters(parameters);
+
+        String userDN = "uid=john," + BASE_DN;
+        login(configuration, userDN);
+        login(configuration, userDN);
+        Assert.assertEquals(1, serviceBinds.get());
+        Assert.assertEquals(2, searches.get());
+        Assert.assertEquals(2, userBinds.get());
+    }
+
+    @Test
+    public void testUserRemovedFromFilterWithCachedDN() throws Exception {
+        SMAuthProviderCustomConfiguration configuration = createConfiguration("(memberOf=cn=dba)");
+        login(configuration, "john");
+        Assert.assertEquals(1, searches.get());
+
+        // DN is cached, only the filter is checked
+        login(configuration, "john");
+        Assert.assertEquals(2, searches.get());
+        Assert.assertEquals(2, userBinds.get());
+
+        filteredOutUsers.add("uid=john," + BASE_DN);
+        try {
+            login(configuration, "john");
+            Assert.fail("User which doesn't match the filter must be denied");
+        } catch (DBException e) {
+            // expected
+        }
+        Assert.assertEquals(2, userBinds.get());
+    }
+
+    @Test
+    public void testBrokenServiceContextIsReplaced() throws Exception {
+        SMAuthProviderCustomConfiguration configuration = createConfiguration("");
+        login(configuration, "john");
+        breakServiceConnections.set(true);
+        login(configuration, "jane");
+        Assert.assertEquals(2, serviceBinds.get());
+        Mockito.verify(serviceContexts.get(0)).close();
+    }
+
+    @Test
+    public void testConfigurationChangeResetsCache() throws Exception {
+        login(createConfiguration(""), "john");
+        login(createConfiguration("(objectClass=person)"), "john");
+        // Different filter, so the DN is resolved again and old connections are closed
+        Assert.assertEquals(2, searches.get());
+        Assert.assertEquals(2, serviceBinds.get());
+        Mockito.verify(serviceContexts.get(0)).close();
+    }
+
+    private Map<String, Object> login(SMAuthProviderCustomConfiguration configuration, String userName) throws DBException {
+        return login(configuration, userName, USER_PASSWORD);
+    }
+
+    private Map<String, Object> login(
+        SMAuthProviderCustomConfiguration configuration,
+        String userName,
+        String password
+    ) throws DBException {
+        Map<String, Object> credentials = new HashMap<>();
+        credentials.put(LdapConstants.CRED_USER_DN, userName);
+        credentials.put(LdapConstants.CRED_PASSWORD, password);
+        return provider.authExternalUser(new VoidProgressMonitor(), configuration, credentials);
+    }
+
+    private static SMAuthProviderCustomConfiguration createConfiguration(String filter) {
+        SMAuthProviderCustomConfiguration configuration = new SMAuthProviderCustomConfiguration("ldap");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(LdapConstants.PARAM_HOST, "localhost");
+        parameters.put(LdapConstants.PARAM_PORT, "389");
+        parameters.put(LdapConstants.PARAM_DN, BASE_DN);
+        parameters.put(LdapConstants.PARAM_USER_IDENTIFIER_ATTR, "uid");
+        parameters.put(LdapConstants.PARAM_BIND_USER, BIND_USER);
+        parameters.put(LdapConstants.PARAM_BIND_USER_PASSWORD, BIND_PASSWORD);
+        parameters.put(LdapConstants.PARAM_LOGIN, "uid");
+        parameters.put(LdapConstants.PARAM_FILTER, filter);
+        configuration.setParameters(parameters);
+        return configuration;
+    }
+
+    /**
+     * In-process directory stand-in: every created context is a bind.
+     */
+    private DirContext createContext(Hashtable<String, String> environment) throws AuthenticationException {
+        String principal = environment.get(Context.SECURITY_PRINCIPAL);
+        String credentials = environment.get(Context.SECURITY_CREDENTIALS);
+        if (BIND_USER.equals(principal)) {
+            if (!BIND_PASSWORD.equals(credentials)) {
+                throw new AuthenticationException("Invalid service credentials");
+            }
+            serviceBinds.incrementAndGet();
+            DirContext context = createServiceContext(serviceContexts.size());
+            serviceContexts.add(context);
+            return context;
+        }
+        userBinds.incrementAndGet();
+        if (!USER_PASSWORD.equals(credentials)) {
+            throw new AuthenticationException("Invalid credentials");
+        }
+        return Mockito.mock(DirContext.class);
+    }
+
+    private DirContext createServiceContext(int index) {
+        DirContext context = Mockito.mock(DirContext.class);
+        try {
+            Mockito.when(context.search(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(SearchControls.class)
+            )).thenAnswer(invocation -> {
+                // The first context is "disconnected" by the server
+                if (index == 0 && breakServiceConnections.get()) {
+                    throw new CommunicationException("Connection closed");
+                }
+                searches.incrementAndGet();
+                String base = invocation.getArgument(0);
+                String filter = invocation.getArgument(1);
+                List<SearchResult> results = new ArrayList<>();
+                if (base.startsWith("uid=")) {
+                    // Filter validation of the full DN
+                    if (!filteredOutUsers.contains(base)) {
+                        results.add(createSearchResult(base));
+                    }
+                } else {
+                    String userId = filter.replaceAll(".*\\(uid=([^)]+)\\).*", "$1");
+                    results.add(createSearchResult("uid=" + userId + "," + BASE_DN));
+                }
+                return new ListEnumeration(results);
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return context;
+    }
+
+    private static SearchResult createSearchResult(String dn) {
+        SearchResult result = new SearchResult(dn, null, new BasicAttributes());
+        result.setNameInNamespace(dn);
+        return result;
+    }
+
+    private static class ListEnumeration implements NamingEnumeration<SearchResult> {
+        private final Iterator<SearchResult> iterator;
+
+        ListEnumeration(List<SearchResult> results) {
+            this.iterator = results.iterator();
+        }
+
+        @Override
+        public SearchResult next() {
+            return iterator.next();
+        }
+
+        @Override
+        public boolean hasMore() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return hasMore();
+        }
+
+        @Override
+        public SearchResult nextElement() {
+            return next();
+        }
+    }
+}
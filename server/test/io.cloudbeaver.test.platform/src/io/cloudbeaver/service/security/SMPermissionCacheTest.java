@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.security;
+
+import io.cloudbeaver.auth.NoAuthCredentialsProvider;
+import io.cloudbeaver.test.platform.CEServerTestSuite;
+import org.jkiss.dbeaver.model.security.SMObjectType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class SMPermissionCacheTest {
+    private static final String TEST_USER = "perm_cache_user";
+    private static final String TEST_TEAM = "perm_cache_team";
+    private static final String TEST_PERMISSION = "perm_cache_permission";
+    private static final String TEST_PROJECT = "s_perm_cache_project";
+    private static final String GRANTOR = "cbadmin";
+
+    private CBEmbeddedSecurityController<?> controller;
+    // Another controller instance, like the one of a different web session
+    private CBEmbeddedSecurityController<?> otherController;
+
+    @Before
+    public void createSubjects() throws Exception {
+        var testApp = CEServerTestSuite.getTestApp();
+        controller = (CBEmbeddedSecurityController<?>) testApp.getSecurityController();
+        otherController = (CBEmbeddedSecurityController<?>) testApp.getAdminSecurityController(new NoAuthCredentialsProvider());
+        controller.createTeam(TEST_TEAM, TEST_TEAM, null, GRANTOR);
+        controller.createUser(TEST_USER, null, true, null);
+    }
+
+    @After
+    public void deleteSubjects() throws Exception {
+        controller.deleteAllObjectPermissions(TEST_PROJECT, SMObjectType.project);
+        controller.deleteUser(TEST_USER);
+        controller.deleteTeam(TEST_TEAM, true);
+    }
+
+    @Test
+    public void testSubjectPermissionChangesAreVisibleImmediately() throws Exception {
+        Assert.assertFalse(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+
+        controller.setUserTeams(TEST_USER, new String[]{TEST_TEAM}, GRANTOR);
+        Assert.assertFalse(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+
+        controller.setSubjectPermissions(TEST_TEAM, List.of(TEST_PERMISSION), GRANTOR);
+        Assert.assertTrue(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+
+        // Removing user from the team revokes team permissions
+        controller.setUserTeams(TEST_USER, new String[0], GRANTOR);
+        Assert.assertFalse(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+
+        controller.setSubjectPermissions(TEST_USER, List.of(TEST_PERMISSION), GRANTOR);
+        Assert.assertTrue(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+
+        controller.setSubjectPermissions(TEST_USER, List.of(), GRANTOR);
+        Assert.assertFalse(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+    }
+
+    @Test
+    public void testObjectPermissionChangesAreVisibleImmediately() throws Exception {
+        Set<String> permissions = Set.of("project-view");
+        controller.setUserTeams(TEST_USER, new String[]{TEST_TEAM}, GRANTOR);
+        Assert.assertTrue(getProjectPermissions().isEmpty());
+
+        controller.addObjectPermissions(Set.of(TEST_PROJECT), SMObjectType.project, Set.of(TEST_TEAM), permissions, GRANTOR);
+        Assert.assertEquals(permissions, getProjectPermissions());
+
+        controller.deleteObjectPermissions(Set.of(TEST_PROJECT), SMObjectType.project, Set.of(TEST_TEAM), permissions);
+        Assert.assertTrue(getProjectPermissions().isEmpty());
+
+        controller.setObjectPermissions(Set.of(TEST_PROJECT), SMObjectType.project, Set.of(TEST_USER), permissions, GRANTOR);
+        Assert.assertEquals(permissions, getProjectPermissions());
+
+        controller.deleteAllObjectPermissions(TEST_PROJECT, SMObjectType.project);
+        Assert.assertTrue(getProjectPermissions().isEmpty());
+    }
+
+    @Test
+    public void testDeletedUserLosesPermissions() throws Exception {
+        controller.setSubjectPermissions(TEST_USER, List.of(TEST_PERMISSION), GRANTOR);
+        Assert.assertTrue(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+
+        controller.deleteUser(TEST_USER);
+        Assert.assertFalse(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+        controller.createUser(TEST_USER, null, true, null);
+        Assert.assertFalse(otherController.getUserPermissions(TEST_USER).contains(TEST_PERMISSION));
+    }
+
+    private Set<String> getProjectPermissions() throws Exception {
+        return Set.of(otherController.getObjectPermissions(TEST_USER, TEST_PROJECT, SMObjectType.project).getPermissions());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.security;
+
+import io.cloudbeaver.test.platform.CEServerTestSuite;
+import org.jkiss.dbeaver.model.DBPPage;
+import org.jkiss.dbeaver.model.security.user.SMUser;
+import org.jkiss.dbeaver.model.security.user.SMUserFilter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SMSubjectMetaQueryTest {
+    private static final String USER_PREFIX = "meta_query_user_";
+    private static final String META_NAME = "meta_query_param";
+    // Same as the IN list size limit of the security controller
+    private static final int MAX_SUBJECTS_PER_QUERY = 1000;
+    private static final String META_QUERY_PATTERN = "%FROM %CB_SUBJECT_META%WHERE SUBJECT_ID IN%";
+
+    private CBEmbeddedSecurityController<?> controller;
+    private final List<String> createdUsers = new ArrayList<>();
+
+    @Before
+    public void init() throws Exception {
+        controller = (CBEmbeddedSecurityController<?>) CEServerTestSuite.getTestApp().getSecurityController();
+        try (Connection dbCon = EmbeddedSecurityControllerFactory.getDbInstance().openConnection()) {
+            Assume.assumeTrue(
+                "Query statistics are available in H2 only",
+                dbCon.getMetaData().getDatabaseProductName().contains("H2")
+            );
+        }
+    }
+
+    @After
+    public void deleteUsers() throws Exception {
+        for (String userId : createdUsers) {
+            controller.deleteUser(userId);
+        }
+        setQueryStatistics(false);
+    }
+
+    @Test
+    public void testUserListQueryCountDoesNotDependOnUsersNumber() throws Exception {
+        createUsers(5);
+        long smallPageQueries = countFindUsersQueries(5);
+
+        createUsers(45);
+        long largePageQueries = countFindUsersQueries(50);
+
+        Assert.assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    @Test
+    public void testOnlyRequestedSubjectMetasAreRead() throws Exception {
+        createUsers(50);
+        resetQueryStatistics();
+        SMUser[] users = controller.findUsers(new SMUserFilter(USER_PREFIX, null, new DBPPage(10, 5)));
+
+        Assert.assertEquals(5, users.length);
+        int metaCount = 0;
+        for (SMUser user : users) {
+            Assert.assertEquals(user.getUserId(), user.getMetaParameters().get(META_NAME));
+            metaCount += user.getMetaParameters().size();
+        }
+        // Metas of the other users of the page are not read at all
+        Assert.assertEquals(1, readQueryStatistics(META_QUERY_PATTERN, "EXECUTION_COUNT"));
+        Assert.assertEquals(metaCount, readQueryStatistics(META_QUERY_PATTERN, "CUMULATIVE_ROW_COUNT"));
+    }
+
+    @Test
+    public void testSubjectMetasAreReadByChunks() throws Exception {
+        int userCount = MAX_SUBJECTS_PER_QUERY + 10;
+        createUsers(userCount);
+        resetQueryStatistics();
+        SMUser[] users = controller.findUsers(new SMUserFilter(USER_PREFIX, null, new DBPPage(0, userCount * 2)));
+
+        Assert.assertEquals(userCount, users.length);
+        for (SMUser user : users) {
+            Assert.assertEquals(user.getUserId(), user.getMetaParameters().get(META_NAME));
+        }
+        Assert.assertEquals(2, readQueryStatistics(META_QUERY_PATTERN, "EXECUTION_COUNT"));
+    }
+
+    private long countFindUsersQueries(int expectedUsers) throws Exception {
+        resetQueryStatistics();
+        SMUser[] users = controller.findUsers(new SMUserFilter(USER_PREFIX, null, new DBPPage(0, 1000)));
+        long queryCount = readQueryCount();
+
+        Assert.assertEquals(expectedUsers, users.length);
+        for (SMUser user : users) {
+            Assert.assertEquals(user.getUserId(), user.getMetaParameters().get(META_NAME));
+        }
+        return queryCount;
+    }
+
+    private void createUsers(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            String userId = USER_PREFIX + createdUsers.size();
+            controller.createUser(userId, Map.of(META_NAME, userId), true, null);
+            createdUsers.add(userId);
+        }
+    }
+
+    private static void resetQueryStatistics() throws Exception {
+        // Re-enabling statistics resets them
+        setQueryStatistics(false);
+        setQueryStatistics(true);
+    }
+
+    private static void setQueryStatistics(boolean enabled) throws Exception {
+        try (Connection dbCon = EmbeddedSecurityControllerFactory.getDbInstance().openConnection();
+             Statement dbStat = dbCon.createStatement()
+        ) {
+            dbStat.execute("SET QUERY_STATISTICS " + enabled);
+        }
+    }
+
+    /**
+     * Counts executions of the user list queries: users, their metas and teams.
+     */
+    private static long readQueryCount() throws Exception {
+        try (Connection dbCon = EmbeddedSecurityControllerFactory.getDbInstance().openConnection();
+             Statement dbStat = dbCon.createStatement();
+             ResultSet dbResult = dbStat.executeQuery(
+                 "SELECT SUM(EXECUTION_COUNT) FROM INFORMATION_SCHEMA.QUERY_STATISTICS " +
+                     "WHERE SQL_STATEMENT LIKE '%CB_USER%' OR SQL_STATEMENT LIKE '%CB_SUBJECT_META%'")
+        ) {
+            Assert.assertTrue(dbResult.next());
+            return dbResult.getLong(1);
+        }
+    }
+
+    /**
+     * Sums the statistics column over the statements matching the pattern.
+     */
+    private static long readQueryStatistics(String sqlPattern, String column) throws Exception {
+        try (Connection dbCon = EmbeddedSecurityControllerFactory.getDbInstance().openConnection();
+             PreparedStatement dbStat = dbCon.prepareStatement(
+                 "SELECT SUM(" + column + ") FROM INFORMATION_SCHEMA.QUERY_STATISTICS WHERE SQL_STATEMENT LIKE ?")
+        ) {
+            dbStat.setString(1, sqlPattern);
+            try (ResultSet dbResult = dbStat.executeQuery()) {
+                Assert.assertTrue(dbResult.next());
+                return dbResult.getLong(1);
+            }
+        }
+    }
+}
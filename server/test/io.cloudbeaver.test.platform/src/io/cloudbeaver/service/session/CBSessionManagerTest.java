@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.session;
+
+import io.cloudbeaver.model.session.WebHttpRequestInfo;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.server.CBApplication;
+import io.cloudbeaver.test.platform.CEServerTestSuite;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.security.SMController;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CBSessionManagerTest {
+
+    private static final int THREAD_COUNT = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequestsCreateSingleSession() throws Exception {
+        var sessionManager = new TestSessionManager(CEServerTestSuite.getTestApp());
+        sessionManager.creationDelayMs = 50;
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<WebSession>> results = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executor.submit(() -> {
+                startLatch.await();
+                return sessionManager.getWebSession(mockRequest("s_concurrent"), mockResponse(), false);
+            }));
+        }
+        startLatch.countDown();
+
+        Set<WebSession> sessions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<WebSession> result : results) {
+            sessions.add(result.get(1, TimeUnit.MINUTES));
+        }
+        Assert.assertEquals("Duplicate sessions created", 1, sessions.size());
+        Assert.assertEquals(1, sessionManager.createdSessions.get());
+        Assert.assertSame(sessions.iterator().next(), sessionManager.getSession("s_concurrent"));
+    }
+
+    @Test
+    public void testSlowSessionCreationDoesNotBlockOtherSessions() throws Exception {
+        var sessionManager = new TestSessionManager(CEServerTestSuite.getTestApp());
+        sessionManager.slowSessionId = "s_slow";
+
+        Future<WebSession> slowSession = executor.submit(
+            () -> sessionManager.getWebSession(mockRequest("s_slow"), mockResponse(), false)
+        );
+        Assert.assertTrue(sessionManager.slowCreationStarted.await(1, TimeUnit.MINUTES));
+
+        // Other sessions must be created and found while slow session is still being created
+        List<Future<WebSession>> otherSessions = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT - 1; i++) {
+            String sessionId = "s_fast_" + i;
+            otherSessions.add(executor.submit(
+                () -> sessionManager.getWebSession(mockRequest(sessionId), mockResponse(), false)
+            ));
+        }
+        for (Future<WebSession> otherSession : otherSessions) {
+            Assert.assertNotNull(otherSession.get(10, TimeUnit.SECONDS));
+        }
+        Assert.assertFalse(slowSession.isDone());
+        Assert.assertNull(sessionManager.getSession("s_slow"));
+        Assert.assertEquals(THREAD_COUNT - 1, sessionManager.getAllActiveSessions().size());
+
+        sessionManager.slowCreationLatch.countDown();
+        Assert.assertNotNull(slowSession.get(1, TimeUnit.MINUTES));
+        Assert.assertEquals(THREAD_COUNT, sessionManager.getAllActiveSessions().size());
+    }
+
+    @Test
+    public void testFailedCreationIsRetried() throws Exception {
+        var sessionManager = new TestSessionManager(CEServerTestSuite.getTestApp());
+        sessionManager.failuresLeft.set(1);
+
+        try {
+            sessionManager.getWebSession(mockRequest("s_failed"), mockResponse(), false);
+            Assert.fail("Session creation error expected");
+        } catch (DBException e) {
+            // expected
+        }
+        Assert.assertNull(sessionManager.getSession("s_failed"));
+        Assert.assertNotNull(sessionManager.getWebSession(mockRequest("s_failed"), mockResponse(), false));
+        Assert.assertEquals(2, sessionManager.createdSessions.get());
+    }
+
+    @NotNull
+    private static HttpServletRequest mockRequest(@NotNull String sessionId) {
+        HttpSession httpSession = Mockito.mock(HttpSession.class);
+        Mockito.when(httpSession.getId()).thenReturn(sessionId);
+        Mockito.when(httpSession.isNew()).thenReturn(true);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getSession()).thenReturn(httpSession);
+        Mockito.when(request.getSession(Mockito.anyBoolean())).thenReturn(httpSession);
+        return request;
+    }
+
+    @NotNull
+    private static HttpServletResponse mockResponse() {
+        return Mockito.mock(HttpServletResponse.class);
+    }
+
+    private static class TestSessionManager extends CBSessionManager {
+        private final AtomicInteger createdSessions = new AtomicInteger();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final CountDownLatch slowCreationStarted = new CountDownLatch(1);
+        private final CountDownLatch slowCreationLatch = new CountDownLatch(1);
+        private volatile String slowSessionId;
+        private volatile long creationDelayMs;
+
+        TestSessionManager(CBApplication<?> application) {
+            super(application);
+        }
+
+        @NotNull
+        @Override
+        protected WebSession createWebSessionImpl(@NotNull WebHttpRequestInfo request) throws DBException {
+            createdSessions.incrementAndGet();
+            try {
+                // Simulates management database round trip
+                if (request.getId().equals(slowSessionId)) {
+                    slowCreationStarted.countDown();
+                    slowCreationLatch.await(1, TimeUnit.MINUTES);
+                } else if (creationDelayMs > 0) {
+                    Thread.sleep(creationDelayMs);
+                }
+            } catch (InterruptedException e) {
+                throw new DBException("Interrupted", e);
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new DBException("Test session creation failure");
+            }
+            WebSession webSession = Mockito.mock(WebSession.class);
+            SMController securityController = Mockito.mock(SMController.class);
+            Mockito.when(webSession.getSessionId()).thenReturn(request.getId());
+            Mockito.when(webSession.getSecurityController()).thenReturn(securityController);
+            return webSession;
+        }
+    }
+}
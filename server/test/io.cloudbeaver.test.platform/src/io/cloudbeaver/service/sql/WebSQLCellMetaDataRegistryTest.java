@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import org.jkiss.dbeaver.model.meta.MetaData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WebSQLCellMetaDataRegistryTest {
+
+    @Test
+    public void testMetaDataMatchesReflection() throws Throwable {
+        List<Object> values = List.of(
+            new PublicValue("first", 1),
+            new PublicValue("second", 2),
+            new HiddenValue(42L),
+            "plain string",
+            17
+        );
+        Map<String, Object> cached = null;
+        Map<String, Object> reflected = null;
+        for (Object value : values) {
+            cached = WebSQLCellMetaDataRegistry.collectMetaData(value, null);
+            reflected = collectByReflection(value);
+            Assert.assertEquals("Metadata mismatch for " + value.getClass().getName(), reflected, cached);
+        }
+        Assert.assertNull(WebSQLCellMetaDataRegistry.collectMetaData(null, null));
+    }
+
+    @Test
+    public void testMetaDataMergedIntoRowMap() throws Throwable {
+        Map<String, Object> rowMetaData = WebSQLCellMetaDataRegistry.collectMetaData(new PublicValue("a", 1), null);
+        rowMetaData = WebSQLCellMetaDataRegistry.collectMetaData(new HiddenValue(5L), rowMetaData);
+
+        Map<String, Object> expected = collectByReflection(new PublicValue("a", 1));
+        expected.putAll(collectByReflection(new HiddenValue(5L)));
+        Assert.assertEquals(expected, rowMetaData);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAccessorErrorIsPropagated() throws Throwable {
+        WebSQLCellMetaDataRegistry.collectMetaData(new FailingValue(), null);
+    }
+
+    private static Map<String, Object> collectByReflection(Object value) throws Exception {
+        Map<String, Object> metaDataMap = null;
+        for (Method method : value.getClass().getMethods()) {
+            if (method.isAnnotationPresent(MetaData.class)) {
+                if (metaDataMap == null) {
+                    metaDataMap = new HashMap<>();
+                }
+                metaDataMap.put(method.getAnnotation(MetaData.class).name(), method.invoke(value));
+            }
+        }
+        return metaDataMap;
+    }
+
+    public static class PublicValue {
+        private final String label;
+        private final int position;
+
+        PublicValue(String label, int position) {
+            this.label = label;
+            this.position = position;
+        }
+
+        @MetaData(name = "label")
+        public String getLabel() {
+            return label;
+        }
+
+        @MetaData(name = "position")
+        public int getPosition() {
+            return position;
+        }
+
+        public String getIgnored() {
+            return "ignored";
+        }
+    }
+
+    static class HiddenValue {
+        private final long rowId;
+
+        HiddenValue(long rowId) {
+            this.rowId = rowId;
+        }
+
+        @MetaData(name = "rowId")
+        public long getRowId() {
+            return rowId;
+        }
+    }
+
+    public static class FailingValue {
+        @MetaData(name = "failure")
+        public String getFailure() {
+            throw new IllegalStateException("Metadata read error");
+        }
+    }
+}
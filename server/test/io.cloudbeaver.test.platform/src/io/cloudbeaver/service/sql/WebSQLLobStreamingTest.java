@@ -0,0 +1,168 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import io.cloudbeaver.server.servlets.WebServletUtils;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.DBQuotaException;
+import org.jkiss.dbeaver.registry.DataSourceProviderRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class WebSQLLobStreamingTest {
+    private static final String H2_DRIVER_ID = "h2:h2_embedded_v2";
+    private static final int LOB_SIZE = 5 * 1024 * 1024 + 123;
+
+    private Connection connection;
+    private Path tempFolder;
+    private byte[] lobContent;
+
+    @Before
+    public void createLob() throws Exception {
+        DBPDriver driver = DataSourceProviderRegistry.getInstance().findDriver(H2_DRIVER_ID);
+        Assert.assertNotNull("H2 driver not found", driver);
+        Driver driverInstance = driver.getDriverInstance(new VoidProgressMonitor());
+        connection = driverInstance.connect("jdbc:h2:mem:lob_streaming_test", new Properties());
+        try (Statement dbStat = connection.createStatement()) {
+            dbStat.execute("CREATE TABLE LOB_TEST(ID INT PRIMARY KEY, CONTENT BLOB)");
+        }
+        lobContent = new byte[LOB_SIZE];
+        new Random(42).nextBytes(lobContent);
+        try (PreparedStatement dbStat = connection.prepareStatement("INSERT INTO LOB_TEST VALUES(1, ?)")) {
+            dbStat.setBinaryStream(1, new ByteArrayInputStream(lobContent), lobContent.length);
+            dbStat.execute();
+        }
+        tempFolder = Files.createTempDirectory("lob-streaming-test");
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        try (Statement dbStat = connection.createStatement()) {
+            dbStat.execute("DROP TABLE LOB_TEST");
+        }
+        connection.close();
+        try (Stream<Path> files = Files.walk(tempFolder)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testBlobIsStreamedToFile() throws Exception {
+        Path lobFile = tempFolder.resolve("blob.bin");
+        try (InputStream contentStream = openBlobStream()) {
+            WebSQLDataLOBReceiver.writeLobContent(contentStream, lobFile, null);
+        }
+        Assert.assertEquals(LOB_SIZE, Files.size(lobFile));
+        Assert.assertArrayEquals(lobContent, Files.readAllBytes(lobFile));
+
+        // full download
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WebServletUtils.writeFileRange(lobFile, out, 0, LOB_SIZE);
+        Assert.assertArrayEquals(lobContent, out.toByteArray());
+
+        // range crossing buffer boundaries
+        WebServletUtils.ByteRange range = WebServletUtils.parseRange("bytes=100000-3000000", LOB_SIZE);
+        Assert.assertNotNull(range);
+        Assert.assertEquals(100000, range.start());
+        Assert.assertEquals(2900001, range.length());
+        out = new ByteArrayOutputStream();
+        WebServletUtils.writeFileRange(lobFile, out, range.start(), range.length());
+        Assert.assertArrayEquals(Arrays.copyOfRange(lobContent, 100000, 3000001), out.toByteArray());
+
+        // suffix range
+        range = WebServletUtils.parseRange("bytes=-1000", LOB_SIZE);
+        Assert.assertNotNull(range);
+        out = new ByteArrayOutputStream();
+        WebServletUtils.writeFileRange(lobFile, out, range.start(), range.length());
+        Assert.assertArrayEquals(Arrays.copyOfRange(lobContent, LOB_SIZE - 1000, LOB_SIZE), out.toByteArray());
+    }
+
+    @Test
+    public void testBlobSizeQuota() throws Exception {
+        Path lobFile = tempFolder.resolve("blob-quota.bin");
+        try (InputStream contentStream = openBlobStream()) {
+            WebSQLDataLOBReceiver.writeLobContent(contentStream, lobFile, 1024L * 1024L);
+            Assert.fail("Quota exception expected");
+        } catch (DBQuotaException e) {
+            // expected
+        }
+        Assert.assertFalse("Partial LOB file must be removed", Files.exists(lobFile));
+    }
+
+    @Test
+    public void testParseRange() {
+        Assert.assertNull(WebServletUtils.parseRange(null, 100));
+        Assert.assertNull(WebServletUtils.parseRange("bytes=0-10,20-30", 100));
+        Assert.assertNull(WebServletUtils.parseRange("items=0-10", 100));
+        Assert.assertNull(WebServletUtils.parseRange("bytes=abc", 100));
+
+        WebServletUtils.ByteRange range = WebServletUtils.parseRange("bytes=90-", 100);
+        Assert.assertNotNull(range);
+        Assert.assertEquals(90, range.start());
+        Assert.assertEquals(10, range.length());
+
+        range = WebServletUtils.parseRange("bytes=50-1000", 100);
+        Assert.assertNotNull(range);
+        Assert.assertEquals(50, range.length());
+
+        range = WebServletUtils.parseRange("bytes=100-", 100);
+        Assert.assertNotNull(range);
+        Assert.assertFalse(range.isSatisfiable());
+    }
+
+    private InputStream openBlobStream() throws Exception {
+        PreparedStatement dbStat = connection.prepareStatement("SELECT CONTENT FROM LOB_TEST WHERE ID=1");
+        ResultSet dbResult = dbStat.executeQuery();
+        Assert.assertTrue(dbResult.next());
+        InputStream blobStream = dbResult.getBinaryStream(1);
+        return new FilterInputStream(blobStream) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                try {
+                    dbResult.close();
+                    dbStat.close();
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import io.cloudbeaver.DBWebException;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+public class WebSQLResultsRegistryTest {
+
+    @Test
+    public void testLruEviction() throws Exception {
+        WebSQLResultsRegistry registry = new WebSQLResultsRegistry(2, 1000, 0);
+        registry.put(createResults("1", 1));
+        registry.put(createResults("2", 1));
+        // Touch the first result, so the second one becomes the least recently used
+        Assert.assertNotNull(registry.get("1"));
+        registry.put(createResults("3", 1));
+
+        Assert.assertNotNull(registry.get("1"));
+        Assert.assertNotNull(registry.get("3"));
+        assertExpired(registry, "2");
+        // Results which were never saved are not expired
+        Assert.assertNull(registry.get("4"));
+
+        WebSQLResultsRegistry.Statistics statistics = registry.getStatistics();
+        Assert.assertEquals(2, statistics.size());
+        Assert.assertEquals(1, statistics.evictionCount());
+        Assert.assertEquals(1, statistics.expiredCount());
+    }
+
+    @Test
+    public void testWeightEviction() throws Exception {
+        WebSQLResultsRegistry registry = new WebSQLResultsRegistry(100, 25, 0);
+        registry.put(createResults("1", 10));
+        registry.put(createResults("2", 10));
+        Assert.assertEquals(22, registry.getStatistics().weight());
+
+        registry.put(createResults("3", 10));
+        assertExpired(registry, "1");
+        Assert.assertNotNull(registry.get("2"));
+        Assert.assertNotNull(registry.get("3"));
+
+        // The last result is kept even if it alone is heavier than the limit
+        registry.put(createResults("4", 100));
+        Assert.assertNotNull(registry.get("4"));
+        Assert.assertEquals(1, registry.getStatistics().size());
+        Assert.assertEquals(101, registry.getStatistics().weight());
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        WebSQLResultsRegistry registry = new WebSQLResultsRegistry(100, 1000, 100);
+        registry.put(createResults("1", 1));
+        Assert.assertNotNull(registry.get("1"));
+        Thread.sleep(300);
+        assertExpired(registry, "1");
+        Assert.assertEquals(0, registry.getStatistics().weight());
+    }
+
+    @Test
+    public void testCloseResults() throws Exception {
+        WebSQLResultsRegistry registry = new WebSQLResultsRegistry(100, 1000, 0);
+        registry.put(createResults("1", 5));
+        Assert.assertTrue(registry.remove("1"));
+        Assert.assertFalse(registry.remove("1"));
+        // Closed results are not reported as expired
+        Assert.assertNull(registry.get("1"));
+        Assert.assertEquals(0, registry.getStatistics().weight());
+    }
+
+    private static void assertExpired(WebSQLResultsRegistry registry, String resultsId) {
+        try {
+            registry.get(resultsId);
+            Assert.fail("Results '" + resultsId + "' must be expired");
+        } catch (DBWebException e) {
+            Assert.assertEquals(DBWebException.ERROR_CODE_RESULTS_EXPIRED, e.getWebErrorCode());
+        }
+    }
+
+    private static WebSQLResultsInfo createResults(String id, int attributeCount) {
+        WebSQLResultsInfo resultsInfo = new WebSQLResultsInfo(Mockito.mock(DBSDataContainer.class), id);
+        DBDAttributeBinding[] attributes = new DBDAttributeBinding[attributeCount];
+        for (int i = 0; i < attributeCount; i++) {
+            attributes[i] = Mockito.mock(DBDAttributeBinding.class);
+            Mockito.when(attributes[i].getNestedBindings()).thenReturn(List.of());
+        }
+        resultsInfo.setAttributes(attributes);
+        return resultsInfo;
+    }
+}
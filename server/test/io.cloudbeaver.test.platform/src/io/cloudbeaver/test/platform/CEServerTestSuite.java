@@ -20,8 +20,19 @@ package io.cloudbeaver.test.platform;
 import io.cloudbeaver.auth.provider.local.LocalAuthProvider;
 import io.cloudbeaver.model.rm.RMNIOTest;
 import io.cloudbeaver.model.rm.lock.RMLockTest;
+import io.cloudbeaver.model.session.WebUserContextConcurrencyTest;
 import io.cloudbeaver.server.CBApplication;
 import io.cloudbeaver.server.CBApplicationCE;
+import io.cloudbeaver.service.WebFileUploadTest;
+import io.cloudbeaver.service.admin.impl.ConnectionPortScannerTest;
+import io.cloudbeaver.service.admin.impl.WebAdminLogsServletTest;
+import io.cloudbeaver.service.ldap.auth.LdapAuthProviderTest;
+import io.cloudbeaver.service.security.SMPermissionCacheTest;
+import io.cloudbeaver.service.security.SMSubjectMetaQueryTest;
+import io.cloudbeaver.service.session.CBSessionManagerTest;
+import io.cloudbeaver.service.sql.WebSQLCellMetaDataRegistryTest;
+import io.cloudbeaver.service.sql.WebSQLLobStreamingTest;
+import io.cloudbeaver.service.sql.WebSQLResultsRegistryTest;
 import io.cloudbeaver.test.WebGQLClient;
 import io.cloudbeaver.utils.WebTestUtils;
 import org.jkiss.code.NotNull;
@@ -43,7 +54,18 @@ import java.util.Map;
         AuthenticationTest.class,
         ResourceManagerTest.class,
         RMLockTest.class,
-        RMNIOTest.class
+        RMNIOTest.class,
+        WebSQLCellMetaDataRegistryTest.class,
+        CBSessionManagerTest.class,
+        SMPermissionCacheTest.class,
+        WebSQLLobStreamingTest.class,
+        WebSQLResultsRegistryTest.class,
+        ConnectionPortScannerTest.class,
+        LdapAuthProviderTest.class,
+        SMSubjectMetaQueryTest.class,
+        WebUserContextConcurrencyTest.class,
+        WebAdminLogsServletTest.class,
+        WebFileUploadTest.class
     }
 )
 public class CEServerTestSuite {